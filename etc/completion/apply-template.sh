@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+#
+# Applies the kcctl specifics to a completion script generated by picocli.AutoComplete:
+# inserts the _kcctl_completion_candidates function and turns the completion candidates
+# generated for the completion commands, e.g. ("kcctl" "connector-name-completions"),
+# into invocations of that function.
+#
+# Usage: etc/completion/apply-template.sh [kcctl_completion]
+
+set -euo pipefail
+
+template="$(dirname "$0")/kcctl_completion_candidates.bash"
+script="${1:-kcctl_completion}"
+
+if grep -q '^function _kcctl_completion_candidates()' "$script"; then
+  echo "The template has been applied to $script already" >&2
+  exit 1
+fi
+
+awk -v template="$template" '
+  /^# Bash completion entry point function\./ {
+    while ((getline line < template) > 0) {
+      print line
+    }
+  }
+  { print }
+' "$script" | sed -E 's/\("kcctl" "([a-z-]+-completions)"\)/(`_kcctl_completion_candidates \1`)/' > "$script.tmp"
+
+mv "$script.tmp" "$script"
@@ -0,0 +1,29 @@
+# _kcctl_completion_candidates prints the completion candidates of the given completion command (e.g.
+# connector-name-completions) for the current context.
+#
+# Candidates are read from the cache file maintained by kcctl (~/.kcctl-cache/completions/<context>/<kind>);
+# kcctl only is invoked if that file doesn't exist or has expired, avoiding to start kcctl on most [TAB] presses.
+#
+# This function is inserted by etc/completion/apply-template.sh when regenerating the completion script.
+function _kcctl_completion_candidates() {
+  local command="$1"
+  local kind="${command%-name-completions}s"
+  local context
+  local cacheFile
+  local expiresAt
+  local candidates
+
+  context=$(sed -n 's/.*"currentContext" *: *"\([^"]*\)".*/\1/p' "$HOME/.kcctl" 2>/dev/null | head -n 1)
+  cacheFile="$HOME/.kcctl-cache/completions/${context//[^A-Za-z0-9._-]/_}/${kind}"
+
+  if [[ -n "$context" && -r "$cacheFile" ]]; then
+    { read -r expiresAt; read -r candidates; } < "$cacheFile"
+    if [[ "$expiresAt" =~ ^[0-9]+$ && "$expiresAt" -gt "$(date +%s)" ]]; then
+      echo "$candidates"
+      return 0
+    fi
+  fi
+
+  kcctl cached-completions "$command"
+}
+
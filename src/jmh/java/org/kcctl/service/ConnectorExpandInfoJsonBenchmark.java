@@ -0,0 +1,108 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * (De-)serializing the response of {@code GET /connectors?expand=status&expand=info}, both by materializing the
+ * complete map (as {@link KafkaConnectApi#getConnectorExpandInfo(List)} does) and incrementally via
+ * {@link ConnectorStatusReader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectorExpandInfoJsonBenchmark {
+
+    private static final TypeReference<Map<String, ConnectorExpandInfo>> EXPAND_INFO = new TypeReference<>() {
+    };
+
+    @Param({ "10", "1000", "10000" })
+    int connectors;
+
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .build();
+
+    private Map<String, ConnectorExpandInfo> expandInfo;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        expandInfo = new LinkedHashMap<>();
+        for (int i = 0; i < connectors; i++) {
+            String name = "connector-%05d".formatted(i);
+            List<TaskState> tasks = new ArrayList<>();
+            List<TaskInfo> taskInfos = new ArrayList<>();
+            for (int task = 0; task < 2; task++) {
+                tasks.add(new TaskState(task, "RUNNING", "worker-" + task + ":8083", null));
+                taskInfos.add(new TaskInfo(name, task));
+            }
+
+            Map<String, String> config = new LinkedHashMap<>();
+            config.put("name", name);
+            config.put("connector.class", "io.debezium.connector.postgresql.PostgresConnector");
+            config.put("tasks.max", "2");
+            config.put("topic.prefix", "topic-" + i);
+
+            expandInfo.put(name, new ConnectorExpandInfo(
+                    new ConnectorStatusInfo(name, new ConnectorState("RUNNING", "worker-0:8083"), "source", tasks),
+                    new ConnectorInfo(name, config, taskInfos, "source")));
+        }
+
+        json = mapper.writeValueAsBytes(expandInfo);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(expandInfo);
+    }
+
+    @Benchmark
+    public Map<String, ConnectorExpandInfo> deserialize() throws IOException {
+        return mapper.readValue(json, EXPAND_INFO);
+    }
+
+    @Benchmark
+    public void readStatusesIncrementally(Blackhole blackhole) {
+        InputStream response = new ByteArrayInputStream(json);
+        try (ConnectorStatusReader reader = new ConnectorStatusReader(response)) {
+            reader.forEachRemaining(blackhole::consume);
+        }
+    }
+}
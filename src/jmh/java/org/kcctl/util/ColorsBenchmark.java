@@ -0,0 +1,64 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Colorizing the task states of a connector, as done for each row of {@code get connectors}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColorsBenchmark {
+
+    @Param({ "1", "10", "100" })
+    int tasks;
+
+    private String running;
+    private String mixed;
+
+    @Setup
+    public void setUp() {
+        String[] states = { "RUNNING", "FAILED", "PAUSED", "UNASSIGNED" };
+        StringJoiner allRunning = new StringJoiner(", ");
+        StringJoiner someFailed = new StringJoiner(", ");
+        for (int i = 0; i < tasks; i++) {
+            allRunning.add(i + ": RUNNING");
+            someFailed.add(i + ": " + states[i % states.length]);
+        }
+        running = allRunning.toString();
+        mixed = someFailed.toString();
+    }
+
+    @Benchmark
+    public String replaceColorStateRunning() {
+        return Colors.replaceColorState(running);
+    }
+
+    @Benchmark
+    public String replaceColorStateMixed() {
+        return Colors.replaceColorState(mixed);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.kcctl.service.ConfigInfos.ConfigKeyInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Searching the configuration keys of a plug-in, as done by {@code describe plugin --search}, including the
+ * round-trip through {@link MutableConfigKeyInfo} for highlighting the matches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({ "100", "5000" })
+    int keys;
+
+    @Param({ "ssl", "(?i)timeout.*ms", "no-match-at-all" })
+    String regex;
+
+    private List<ConfigKeyInfo> config;
+    private Pattern pattern;
+
+    @Setup
+    public void setUp() {
+        String[] words = { "ssl", "sasl", "consumer", "producer", "timeout", "retry", "backoff", "topic", "offset", "batch" };
+        config = new ArrayList<>(keys);
+        for (int i = 0; i < keys; i++) {
+            String name = words[i % words.length] + "." + words[(i / words.length) % words.length] + "." + (i % 3 == 0 ? "ms" : "size") + "." + i;
+            String documentation = "The " + words[(i + 3) % words.length] + " setting controlling the " + words[(i + 7) % words.length]
+                    + " behaviour, in milliseconds if the name ends with ms. Changing it affects the timeout of requests.";
+            config.add(new ConfigKeyInfo(name, "STRING", false, null, "MEDIUM", documentation, "Common", i, "LONG", name, List.of()));
+        }
+        pattern = Pattern.compile(regex);
+    }
+
+    @Benchmark
+    public List<ConfigKeyInfo> searchConfig() {
+        return Search.searchConfig(config, pattern);
+    }
+
+    @Benchmark
+    public List<ConfigKeyInfo> searchConfigByName() {
+        return Search.searchConfigByName(config, pattern);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.kcctl.service.ConnectorState;
+import org.kcctl.service.ConnectorStatusInfo;
+import org.kcctl.service.TaskState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rendering the table of {@code get connectors}, with the same columns and styles as that command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableRendererBenchmark {
+
+    @Param({ "10", "1000", "10000" })
+    int connectors;
+
+    private List<ConnectorStatusInfo> statuses;
+    private final PrintWriter out = new PrintWriter(Writer.nullWriter());
+
+    @Setup
+    public void setUp() {
+        statuses = new ArrayList<>(connectors);
+        for (int i = 0; i < connectors; i++) {
+            List<TaskState> tasks = List.of(
+                    new TaskState(0, "RUNNING", "worker-0:8083", null),
+                    new TaskState(1, i % 10 == 0 ? "FAILED" : "RUNNING", "worker-1:8083", null));
+            statuses.add(new ConnectorStatusInfo("connector-%05d".formatted(i), new ConnectorState(i % 7 == 0 ? "PAUSED" : "RUNNING", "worker-2:8083"),
+                    i % 2 == 0 ? "source" : "sink", tasks));
+        }
+    }
+
+    @Benchmark
+    public void render() {
+        new TableRenderer<ConnectorStatusInfo>()
+                .column("NAME", ConnectorStatusInfo::name)
+                .column(" TYPE", status -> " " + status.type())
+                .column(" STATE", status -> " " + status.connector().state(), Colors::colorizeState)
+                .column(" TASKS", status -> " " + tasks(status.tasks()), Colors::replaceColorState, 100)
+                .render(statuses, out);
+        out.flush();
+    }
+
+    private static String tasks(List<TaskState> tasks) {
+        return tasks.stream().map(task -> task.id() + ": " + task.state()).collect(Collectors.joining(", "));
+    }
+}
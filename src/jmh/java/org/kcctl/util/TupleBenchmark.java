@@ -0,0 +1,72 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Printing the key/value lines of {@code describe connector}. {@link Tuple#print(List)} writes to
+ * {@link System#out}, which is redirected to a discarding stream while the benchmark runs, so that only the
+ * formatting is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TupleBenchmark {
+
+    @Param({ "20", "500" })
+    int tuples;
+
+    private List<Tuple> describe;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        describe = new ArrayList<>(tuples);
+        describe.add(new Tuple("Name", "orders-source"));
+        describe.add(new Tuple("Type", "source"));
+        describe.add(new Tuple("State", Colors.colorizeState("RUNNING")));
+        describe.add(new Tuple("    Config", ""));
+        for (int i = describe.size(); i < tuples; i++) {
+            describe.add(new Tuple("      property." + i, "value-" + i));
+        }
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void print() {
+        Tuple.print(describe);
+    }
+}
@@ -8,20 +8,33 @@
 package org.kcctl.command;
 
 import java.io.File;
+import java.io.PrintWriter;
 import java.nio.file.Files;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.kcctl.service.Capability;
+import org.kcctl.service.CapabilityRegistry;
 import org.kcctl.service.ConfigInfos;
+import org.kcctl.service.ConnectorExpandInfo;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
 import org.kcctl.service.KafkaConnectException;
+import org.kcctl.util.CompletionCache;
 import org.kcctl.util.ConfigurationContext;
+import org.kcctl.util.FanOut;
+import org.kcctl.util.OutputBuffer;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.freva.asciitable.AsciiTable;
+import com.github.freva.asciitable.Column;
+import com.github.freva.asciitable.HorizontalAlign;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -34,7 +47,7 @@ import static org.kcctl.util.Colors.ANSI_WHITE_BOLD;
 
 @Command(name = "apply", description = "Applies the given files or the stdin content for registering or updating connectors")
 public class ApplyCommand implements Callable<Integer> {
-    private record ApplyConnector(String contents, Map<String, Object> config) {
+    private record ApplyConnector(String file, String contents, Map<String, Object> config) {
         @SuppressWarnings({ "rawtypes", "unchecked" })
         public Map<String, String> configMap() {
             return config.containsKey("config") ? (Map) config.get("config") : (Map) config;
@@ -64,6 +77,21 @@ public class ApplyCommand implements Callable<Integer> {
     @Option(names = { "--dry-run" }, description = "Only validates the configuration")
     boolean dryRun;
 
+    @Option(names = {
+            "--parallelism" }, defaultValue = "1", description = "Maximum number of files applied concurrently; in-flight files are still completed when stopping after an error (default: ${DEFAULT-VALUE})")
+    int parallelism = 1;
+
+    @Option(names = {
+            "--fail-fast" }, negatable = true, defaultValue = "true", fallbackValue = "true", description = "Stop applying further files after the first error; use --no-fail-fast for applying all files regardless (default: ${DEFAULT-VALUE})")
+    boolean failFast = true;
+
+    @Option(names = {
+            "--file-timeout" }, defaultValue = "300", description = "Timeout in seconds for applying a single file, including all its requests (default: ${DEFAULT-VALUE})")
+    long fileTimeout = 300;
+
+    @Option(names = { "--force" }, description = "Update existing connectors even if their configuration is unchanged")
+    boolean force;
+
     @Spec
     CommandSpec spec;
 
@@ -119,102 +147,251 @@ public class ApplyCommand implements Callable<Integer> {
                 throw new RuntimeException("Can't parse Json content", e);
             }
 
-            return new ApplyConnector(contents, config);
+            return new ApplyConnector(filename, contents, config);
+        }
+    }
+
+    private enum Outcome {
+        CREATED,
+        UPDATED,
+        UNCHANGED,
+        VALID,
+        INVALID,
+        FAILED,
+        SKIPPED;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
         }
     }
 
+    private record FileResult(ApplyConnector applyConnector, Outcome outcome, int returnCode) {
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public Integer call() throws Exception {
 
         validate();
 
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
+        List<ApplyConnector> connectors = (List<ApplyConnector>) applyConnectors;
+
+        // Retrieved once for all the files, instead of once per file
+        Map<String, Map<String, String>> existingConnectors = dryRun ? Map.of() : getExistingConnectors(kafkaConnectApi, connectors.size());
+
+        AtomicBoolean failed = new AtomicBoolean();
+        List<FileResult> results = FanOut.map(connectors, parallelism, Duration.ofSeconds(fileTimeout), applyConnector -> {
+            if (failFast && failed.get()) {
+                return new FileResult(applyConnector, Outcome.SKIPPED, 0);
+            }
+
+            FileResult result = applyOrValidateConnector(kafkaConnectApi, applyConnector, existingConnectors);
+            if (result.returnCode() > 0) {
+                failed.set(true);
+            }
+            return result;
+        }, (applyConnector, e) -> {
+            // A timed out or unexpectedly failed file mustn't abort the others, nor suppress the summary
+            failed.set(true);
+            if (e instanceof TimeoutException) {
+                spec.commandLine().getOut().println("Applying " + applyConnector.file() + " didn't complete within " + fileTimeout + " s");
+            }
+            else {
+                spec.commandLine().getOut().println("Couldn't apply " + applyConnector.file() + ": " + e.getMessage());
+            }
+            return new FileResult(applyConnector, Outcome.FAILED, 1);
+        });
 
-        for (ApplyConnector applyConnector : (List<ApplyConnector>) applyConnectors) {
-            int returnCode = applyOrValidateConnector(kafkaConnectApi, applyConnector);
-            if (returnCode > 0)
-                return returnCode;
+        if (connectors.size() > 1) {
+            printSummary(results);
         }
 
-        return 0;
+        return results.stream()
+                .mapToInt(FileResult::returnCode)
+                .filter(returnCode -> returnCode > 0)
+                .findFirst()
+                .orElse(0);
+    }
+
+    /**
+     * Returns the names of all existing connectors, along with their configurations if they are needed for detecting
+     * unchanged connectors and can be retrieved with one request. Otherwise, the configurations are {@code null} and
+     * are retrieved per connector when needed.
+     */
+    private Map<String, Map<String, String>> getExistingConnectors(KafkaConnectApi kafkaConnectApi, int fileCount) {
+        Map<String, Map<String, String>> existingConnectors = new HashMap<>();
+
+        // For a single file, requesting the configuration of that connector only is cheaper than requesting all
+        if (!force && fileCount > 1 && CapabilityRegistry.getCapabilities(context, kafkaConnectApi).supports(Capability.EXPAND_API)) {
+            for (Map.Entry<String, ConnectorExpandInfo> connector : kafkaConnectApi.getConnectorExpandInfo(List.of("info")).entrySet()) {
+                existingConnectors.put(connector.getKey(), connector.getValue().info().config());
+            }
+        }
+        else {
+            for (String connector : kafkaConnectApi.getConnectors()) {
+                existingConnectors.put(connector, null);
+            }
+        }
+
+        return existingConnectors;
+    }
+
+    private boolean isUnchanged(KafkaConnectApi kafkaConnectApi, String connectorName, Map<String, ?> config,
+                                Map<String, Map<String, String>> existingConnectors) {
+        if (force) {
+            return false;
+        }
+
+        Map<String, String> liveConfig = existingConnectors.get(connectorName);
+        if (liveConfig == null) {
+            liveConfig = kafkaConnectApi.getConnectorConfig(connectorName);
+        }
+
+        return normalize(connectorName, config).equals(normalize(connectorName, liveConfig));
+    }
+
+    /**
+     * Brings a connector configuration into the form stored by Kafka Connect: all values are strings, and the
+     * connector name is part of the configuration.
+     */
+    private static Map<String, String> normalize(String connectorName, Map<String, ?> config) {
+        Map<String, String> normalized = new HashMap<>();
+        for (Map.Entry<String, ?> entry : config.entrySet()) {
+            normalized.put(entry.getKey(), entry.getValue() == null ? null : String.valueOf(entry.getValue()));
+        }
+        normalized.putIfAbsent("name", connectorName);
+        return normalized;
+    }
+
+    private void printSummary(List<FileResult> results) {
+        String[][] data = results.stream()
+                .map(result -> new String[]{
+                        result.applyConnector().file(),
+                        " " + Objects.toString(result.applyConnector().name(), Objects.toString(name, "")),
+                        " " + result.outcome() })
+                .toArray(String[][]::new);
+
+        spec.commandLine().getOut().println();
+        spec.commandLine().getOut().println(AsciiTable.getTable(AsciiTable.NO_BORDERS,
+                new Column[]{
+                        new Column().header("FILE").dataAlign(HorizontalAlign.LEFT),
+                        new Column().header(" CONNECTOR").dataAlign(HorizontalAlign.LEFT),
+                        new Column().header(" RESULT").dataAlign(HorizontalAlign.LEFT)
+                },
+                data));
+        spec.commandLine().getOut().println();
     }
 
     private void validate() {
         if (applyConnectors.size() > 1 && name != null)
             throw new CommandLine.ParameterException(spec.commandLine(),
                     "It is not possible to use -n when multiple files are given. Please provide the connector names in the connector configuration files.");
+        if (parallelism < 1) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--parallelism must be at least 1");
+        }
+        if (fileTimeout < 1) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--file-timeout must be at least 1");
+        }
     }
 
-    private int applyOrValidateConnector(KafkaConnectApi kafkaConnectApi, ApplyConnector applyConnector) throws Exception {
-        if (dryRun) {
-            return validateConfigs(kafkaConnectApi, applyConnector);
-        }
-        else {
-            return createOrUpdateConnector(kafkaConnectApi, applyConnector);
+    private FileResult applyOrValidateConnector(KafkaConnectApi kafkaConnectApi, ApplyConnector applyConnector, Map<String, Map<String, String>> existingConnectors) {
+        // Buffer the output of each file, so that the output of concurrently applied files isn't interleaved
+        try (OutputBuffer buffer = new OutputBuffer(spec.commandLine().getOut())) {
+            PrintWriter out = buffer.writer();
+
+            try {
+                if (dryRun) {
+                    return validateConfigs(kafkaConnectApi, applyConnector, out);
+                }
+                else {
+                    return createOrUpdateConnector(kafkaConnectApi, applyConnector, existingConnectors, out);
+                }
+            }
+            catch (JsonProcessingException e) {
+                out.println("Couldn't serialize the configuration of " + applyConnector.file() + ": " + e.getMessage());
+                return new FileResult(applyConnector, Outcome.FAILED, 1);
+            }
         }
     }
 
-    private int createOrUpdateConnector(KafkaConnectApi kafkaConnectApi, ApplyConnector applyConnector) throws Exception {
+    private FileResult createOrUpdateConnector(KafkaConnectApi kafkaConnectApi, ApplyConnector applyConnector, Map<String, Map<String, String>> existingConnectors,
+                                               PrintWriter out)
+            throws JsonProcessingException {
+        Outcome outcome;
         try {
             if (applyConnector.isNamed()) {
                 String connectorName = applyConnector.name();
-                boolean existing = kafkaConnectApi.getConnectors().contains(connectorName);
+                boolean existing = existingConnectors.containsKey(connectorName);
                 if (!existing) {
                     kafkaConnectApi.createConnector(applyConnector.contents);
-                    spec.commandLine().getOut().println("Created connector " + connectorName);
+                    CompletionCache.invalidate(context, CompletionCache.Kind.CONNECTORS, CompletionCache.Kind.TASKS);
+                    out.println("Created connector " + connectorName);
+                    outcome = Outcome.CREATED;
+                }
+                else if (isUnchanged(kafkaConnectApi, connectorName, applyConnector.configMap(), existingConnectors)) {
+                    out.println("Connector " + connectorName + " is unchanged");
+                    outcome = Outcome.UNCHANGED;
                 }
                 else {
                     kafkaConnectApi.updateConnector(connectorName, mapper.writeValueAsString(applyConnector.configMap()));
-                    spec.commandLine().getOut().println("Updated connector " + connectorName);
+                    out.println("Updated connector " + connectorName);
+                    outcome = Outcome.UPDATED;
                 }
             }
             else {
                 if (name == null) {
-                    spec.commandLine().getOut().println("Connector name must be specified either via --name or in the given file");
-                    return 1;
+                    out.println("Connector name must be specified either via --name or in the given file");
+                    return new FileResult(applyConnector, Outcome.FAILED, 1);
+                }
+
+                boolean existing = existingConnectors.containsKey(name);
+                if (existing && isUnchanged(kafkaConnectApi, name, applyConnector.configMap(), existingConnectors)) {
+                    out.println("Connector " + name + " is unchanged");
+                    return new FileResult(applyConnector, Outcome.UNCHANGED, 0);
                 }
 
-                boolean existing = kafkaConnectApi.getConnectors().contains(name);
                 kafkaConnectApi.updateConnector(name, applyConnector.contents);
 
                 if (!existing) {
-                    spec.commandLine().getOut().println("Created connector " + name);
+                    CompletionCache.invalidate(context, CompletionCache.Kind.CONNECTORS, CompletionCache.Kind.TASKS);
+                    out.println("Created connector " + name);
+                    outcome = Outcome.CREATED;
                 }
                 else {
-                    spec.commandLine().getOut().println("Updated connector " + name);
+                    out.println("Updated connector " + name);
+                    outcome = Outcome.UPDATED;
                 }
             }
         }
         catch (KafkaConnectException kce) {
             if (kce.getMessage().startsWith("Failed to find any class that implements Connector")) {
 
-                spec.commandLine().getOut().println("Specified class isn't a valid connector type. The following connector type(s) are available:");
+                out.println("Specified class isn't a valid connector type. The following connector type(s) are available:");
 
                 CommandLine getPlugins = new CommandLine(new GetPluginsCommand(context))
-                        .setOut(spec.commandLine().getOut())
+                        .setOut(out)
                         .setErr(spec.commandLine().getErr());
                 String pluginTypes = GetPluginsCommand.PluginType.SOURCE + "," + GetPluginsCommand.PluginType.SINK;
                 getPlugins.execute("-t", pluginTypes);
             }
             else {
-                spec.commandLine().getOut().println(kce.getMessage());
+                out.println(kce.getMessage());
             }
 
-            return 1;
+            return new FileResult(applyConnector, Outcome.FAILED, 1);
         }
 
-        return 0;
+        return new FileResult(applyConnector, outcome, 0);
     }
 
-    private int validateConfigs(KafkaConnectApi kafkaConnectApi, ApplyConnector applyConnector) throws Exception {
+    private FileResult validateConfigs(KafkaConnectApi kafkaConnectApi, ApplyConnector applyConnector, PrintWriter out) throws JsonProcessingException {
         Map<String, String> connectorConfigMap = applyConnector.configMap();
 
         if (!connectorConfigMap.containsKey("connector.class")) {
-            spec.commandLine().getOut().println("The configuration must contain the 'connector.class' field.");
-            return 1;
+            out.println("The configuration must contain the 'connector.class' field.");
+            return new FileResult(applyConnector, Outcome.INVALID, 1);
         }
         // In order to start a connector, "name" is not required within "config". However, when validating a
         // configuration it is! So injecting a placeholder to make sure this does not fail validation.
@@ -226,35 +403,36 @@ public class ApplyCommand implements Callable<Integer> {
             ConfigInfos configInfos = kafkaConnectApi.validateConfig(pluginName, mapper.writeValueAsString(connectorConfigMap));
             int errs = configInfos.errorCount();
             if (errs == 0) {
-                spec.commandLine().getOut().println("The configuration is valid!");
+                out.println("The configuration is valid!");
             }
             else {
-                spec.commandLine().getOut().println("The configuration is not valid! Found " + errs + " error" + ((errs != 1) ? "s" : "") + ".");
-                spec.commandLine().getOut().println(ANSI_WHITE_BOLD + "Errors" + ANSI_RESET);
+                out.println("The configuration is not valid! Found " + errs + " error" + ((errs != 1) ? "s" : "") + ".");
+                out.println(ANSI_WHITE_BOLD + "Errors" + ANSI_RESET);
                 for (ConfigInfos.ConfigInfo configInfo : configInfos.configs()) {
                     List<String> errors = configInfo.configValue().errors();
                     if (errors != null && !errors.isEmpty()) {
-                        spec.commandLine().getOut().println("  " + configInfo.configKey().name());
+                        out.println("  " + configInfo.configKey().name());
                         for (String error : errors) {
-                            spec.commandLine().getOut().println("    " + error);
+                            out.println("    " + error);
                         }
                     }
                 }
-                return 1;
+                return new FileResult(applyConnector, Outcome.INVALID, 1);
             }
         }
         catch (KafkaConnectException kce) {
             if (kce.getMessage().startsWith(CONFIG_EXCEPTION)) {
-                spec.commandLine().getOut().println("The configuration is not valid! Found 1 error.");
-                spec.commandLine().getOut().println(ANSI_WHITE_BOLD + "Errors" + ANSI_RESET);
-                spec.commandLine().getOut().println("  " + kce.getMessage().replace(CONFIG_EXCEPTION, ""));
-                return 1;
+                out.println("The configuration is not valid! Found 1 error.");
+                out.println(ANSI_WHITE_BOLD + "Errors" + ANSI_RESET);
+                out.println("  " + kce.getMessage().replace(CONFIG_EXCEPTION, ""));
+                return new FileResult(applyConnector, Outcome.INVALID, 1);
             }
             else {
-                throw kce;
+                out.println(kce.getMessage());
+                return new FileResult(applyConnector, Outcome.FAILED, 1);
             }
         }
 
-        return 0;
+        return new FileResult(applyConnector, Outcome.VALID, 0);
     }
 }
@@ -0,0 +1,47 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import org.kcctl.util.BulkExecutor;
+import org.kcctl.util.Daemon;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+
+/**
+ * Options of the commands applying a lifecycle operation to multiple connectors.
+ */
+public class BulkMixin {
+
+    @CommandLine.Spec(CommandLine.Spec.Target.MIXEE)
+    CommandSpec spec;
+
+    @CommandLine.Option(names = {
+            "--parallelism" }, defaultValue = "8", description = "Maximum number of concurrent requests (default: ${DEFAULT-VALUE})")
+    int parallelism = 8;
+
+    @CommandLine.Option(names = {
+            "--max-rate" }, defaultValue = "0", description = "Maximum number of requests per second; 0 for no limit (default: ${DEFAULT-VALUE})")
+    double maxRate = 0;
+
+    @CommandLine.Option(names = {
+            "--continue-on-error" }, description = "Continue with the remaining connectors after an operation failed, instead of stopping")
+    boolean continueOnError = false;
+
+    public BulkExecutor executor() {
+        if (parallelism < 1) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--parallelism must be at least 1");
+        }
+        if (maxRate < 0) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--max-rate must not be negative");
+        }
+
+        return new BulkExecutor(parallelism, maxRate, continueOnError, spec.commandLine().getOut(), spec.commandLine().getErr(),
+                Daemon.isTerminal());
+    }
+}
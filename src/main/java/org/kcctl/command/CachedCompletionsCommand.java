@@ -0,0 +1,66 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+import jakarta.inject.Inject;
+
+import org.kcctl.util.CompletionCache;
+import org.kcctl.util.ConfigurationContext;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+
+/**
+ * Prints the cached candidates of the given completion command, running that command if there are none. Invoked by
+ * the completion script if it couldn't read the cached candidates itself.
+ */
+@Command(name = "cached-completions", hidden = true)
+public class CachedCompletionsCommand implements Callable<Integer> {
+
+    private final ConfigurationContext context;
+
+    @Spec
+    private CommandSpec spec;
+
+    @Parameters(paramLabel = "COMMAND", description = "The completion command, e.g. 'connector-name-completions'")
+    String command;
+
+    @Inject
+    public CachedCompletionsCommand(ConfigurationContext context) {
+        this.context = context;
+    }
+
+    // Hack : Picocli currently require an empty constructor to generate the completion file
+    public CachedCompletionsCommand() {
+        context = new ConfigurationContext();
+    }
+
+    @Override
+    public Integer call() {
+        CompletionCache.Kind kind = CompletionCache.Kind.forCommand(command)
+                .orElseThrow(() -> new CommandLine.ParameterException(spec.commandLine(), "Unknown completion command: " + command));
+
+        Optional<String> candidates = CompletionCache.get(context, kind);
+        if (candidates.isPresent()) {
+            spec.commandLine().getOut().println(candidates.get());
+        }
+        else {
+            // Run within this execution rather than as a nested one; the completion command updates the cache
+            Runnable completionCommand = spec.root().commandLine().getSubcommands().get(command).getCommand();
+            completionCommand.run();
+        }
+
+        return CommandLine.ExitCode.OK;
+    }
+}
@@ -11,8 +11,9 @@ import java.util.List;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.util.CompletionCache;
 import org.kcctl.util.ConfigurationContext;
 
 import picocli.CommandLine.Command;
@@ -39,11 +40,9 @@ public class ConnectorNamesCompletionCandidateCommand implements Runnable {
 
     @Override
     public void run() {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
         List<String> connectors = kafkaConnectApi.getConnectors();
-        spec.commandLine().getOut().println(String.join(" ", connectors));
+        spec.commandLine().getOut().println(CompletionCache.put(context, CompletionCache.Kind.CONNECTORS, connectors));
     }
 }
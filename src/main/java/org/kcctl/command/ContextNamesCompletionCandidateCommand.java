@@ -11,9 +11,12 @@ import java.util.Set;
 
 import jakarta.inject.Inject;
 
+import org.kcctl.util.CompletionCache;
 import org.kcctl.util.ConfigurationContext;
 
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Spec;
 
 @Command(name = "context-name-completions", hidden = true)
 public class ContextNamesCompletionCandidateCommand implements Runnable {
@@ -21,9 +24,12 @@ public class ContextNamesCompletionCandidateCommand implements Runnable {
     @Inject
     ConfigurationContext context;
 
+    @Spec
+    CommandSpec spec;
+
     @Override
     public void run() {
         Set<String> contexts = context.getContexts().keySet();
-        System.out.println(String.join(" ", contexts));
+        spec.commandLine().getOut().println(CompletionCache.put(context, CompletionCache.Kind.CONTEXTS, contexts));
     }
 }
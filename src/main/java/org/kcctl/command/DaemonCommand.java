@@ -0,0 +1,72 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.kcctl.util.ConfigurationContext;
+import org.kcctl.util.Daemon;
+import org.kcctl.util.Timings;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+
+@Command(name = "daemon", description = "Runs kcctl as a resident process, executing the commands of other kcctl invocations with warm clients and caches")
+public class DaemonCommand implements Callable<Integer> {
+
+    @CommandLine.Mixin
+    HelpMixin help;
+
+    @CommandLine.Spec
+    CommandLine.Model.CommandSpec spec;
+
+    @Inject
+    ConfigurationContext context;
+
+    @Inject
+    Instance<CommandLine> commandLines;
+
+    @Override
+    public Integer call() throws Exception {
+        Timings.hostingCommands();
+
+        Path socket = Daemon.getSocketPath(context.getCacheDirectory().toPath());
+
+        spec.commandLine().getOut().println("Listening on " + socket + "; kcctl invocations of this user are executed by this process until it is stopped");
+        spec.commandLine().getOut().flush();
+
+        try {
+            Daemon.serve(socket, spec.root(), (args, out, err) -> {
+                // A new command line per invocation, as the commands hold the values of their options
+                CommandLine commandLine = commandLines.get()
+                        .setOut(new PrintWriter(out, true))
+                        .setErr(new PrintWriter(err, true));
+
+                try {
+                    return commandLine.execute(args);
+                }
+                finally {
+                    commandLine.getOut().flush();
+                    commandLine.getErr().flush();
+                    commandLines.destroy(commandLine);
+                }
+            });
+        }
+        catch (IllegalStateException e) {
+            spec.commandLine().getErr().println(e.getMessage());
+            return CommandLine.ExitCode.SOFTWARE;
+        }
+
+        return CommandLine.ExitCode.OK;
+    }
+}
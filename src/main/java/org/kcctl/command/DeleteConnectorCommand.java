@@ -7,15 +7,18 @@
  */
 package org.kcctl.command;
 
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 
 import jakarta.inject.Inject;
-import jakarta.ws.rs.core.Response.Status;
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
+
 import org.kcctl.completion.ConnectorNameCompletions;
 import org.kcctl.service.KafkaConnectApi;
-import org.kcctl.service.KafkaConnectException;
+import org.kcctl.service.KafkaConnectAsyncApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.util.BulkExecutor;
+import org.kcctl.util.CompletionCache;
 import org.kcctl.util.ConfigurationContext;
 import org.kcctl.util.Connectors;
 
@@ -28,6 +31,10 @@ public class DeleteConnectorCommand implements Callable<Integer> {
 
     @CommandLine.Mixin
     HelpMixin help;
+
+    @CommandLine.Mixin
+    BulkMixin bulk;
+
     @CommandLine.Option(names = { "-e", "--reg-exp" }, description = "use CONNECTOR NAME(s) as regexp pattern(s) to apply on all connectors")
     boolean regexpMode = false;
 
@@ -51,27 +58,18 @@ public class DeleteConnectorCommand implements Callable<Integer> {
 
     @Override
     public Integer call() {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
-
-        try {
-            Set<String> selectedConnector = Connectors.getSelectedConnectors(kafkaConnectApi, names, regexpMode);
-            for (String connectorToDelete : selectedConnector) {
-                kafkaConnectApi.deleteConnector(connectorToDelete);
-                spec.commandLine().getOut().println("Deleted connector " + connectorToDelete);
-            }
-        }
-        catch (KafkaConnectException kce) {
-            if (kce.getHttpStatus() == Status.NOT_FOUND) {
-                spec.commandLine().getOut().println(kce.getMessage());
-            }
-            else {
-                spec.commandLine().getOut().println(kce);
-            }
-            return 1;
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
+
+        Set<String> selectedConnectors = Connectors.getSelectedConnectors(kafkaConnectApi, names, regexpMode);
+
+        KafkaConnectAsyncApi asyncApi = KafkaConnectClientFactory.getAsyncClient(context.getCurrentContext());
+        List<BulkExecutor.Result> results = bulk.executor().execute("Deleted", selectedConnectors,
+                connector -> asyncApi.deleteConnector(connector).thenApply(v -> "Deleted connector " + connector));
+
+        if (results.stream().anyMatch(r -> r.outcome() == BulkExecutor.Outcome.SUCCEEDED)) {
+            CompletionCache.invalidate(context, CompletionCache.Kind.CONNECTORS, CompletionCache.Kind.TASKS);
         }
 
-        return 0;
+        return BulkExecutor.exitCode(results);
     }
 }
@@ -12,12 +12,14 @@ import java.util.concurrent.Callable;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.completion.ConnectorNameCompletions;
 import org.kcctl.service.AlterResetOffsetsResponse;
+import org.kcctl.service.Capability;
+import org.kcctl.service.CapabilityRegistry;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.service.WorkerCapabilities;
 import org.kcctl.util.ConfigurationContext;
-import org.kcctl.util.Version;
 
 import picocli.CommandLine;
 
@@ -32,7 +34,6 @@ public class DeleteOffsetsCommand implements Callable<Integer> {
     @CommandLine.Mixin
     HelpMixin help;
 
-    private final Version requiredVersionForDeletingOffsets = new Version(3, 6);
     private final ConfigurationContext context;
 
     @CommandLine.Spec
@@ -53,15 +54,13 @@ public class DeleteOffsetsCommand implements Callable<Integer> {
 
     @Override
     public Integer call() {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
-        Version currentVersion = new Version(kafkaConnectApi.getWorkerInfo().version());
+        WorkerCapabilities capabilities = CapabilityRegistry.getCapabilities(context, kafkaConnectApi);
 
-        if (!currentVersion.greaterOrEquals(requiredVersionForDeletingOffsets)) {
+        if (!capabilities.supports(Capability.ALTER_OFFSETS)) {
             spec.commandLine().getErr().println(String.format("Deleting connector offsets requires at least Kafka Connect %s. Current version: %s",
-                    requiredVersionForDeletingOffsets, currentVersion));
+                    Capability.ALTER_OFFSETS.requiredVersion(), capabilities.version()));
             return 1;
         }
 
@@ -13,20 +13,23 @@ import java.util.concurrent.Callable;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.completion.ConnectorNameCompletions;
+import org.kcctl.service.Capability;
+import org.kcctl.service.CapabilityRegistry;
+import org.kcctl.service.ConnectorExpandInfo;
 import org.kcctl.service.ConnectorInfo;
 import org.kcctl.service.ConnectorStatusInfo;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
 import org.kcctl.service.KafkaConnectNotFoundException;
 import org.kcctl.service.TaskConfig;
 import org.kcctl.service.TaskState;
 import org.kcctl.service.TopicsInfo;
+import org.kcctl.service.WorkerCapabilities;
 import org.kcctl.util.Colors;
 import org.kcctl.util.ConfigurationContext;
 import org.kcctl.util.Connectors;
 import org.kcctl.util.Tuple;
-import org.kcctl.util.Version;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -57,6 +60,9 @@ public class DescribeConnectorCommand implements Callable<Integer> {
     @Option(names = { "--tasks-config" }, description = "Displays tasks configuration")
     boolean includeTasksConfig;
 
+    @CommandLine.Mixin
+    FanOutMixin fanOut;
+
     @Option(names = { "-o", "--output-format" }, defaultValue = "text", description = "Specifies the output format, either 'text' (default) or 'json'")
     OutputFormat outputFormat;
 
@@ -77,18 +83,38 @@ public class DescribeConnectorCommand implements Callable<Integer> {
         mapper = new ObjectMapper();
     }
 
-    private final Version requiredVersionForTopicsApi = new Version(2, 5);
-
     @Override
     public Integer call() {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
-        Version currentVersion = new Version(kafkaConnectApi.getWorkerInfo().version());
-
-        Set<String> selectedConnector = Connectors.getSelectedConnectors(kafkaConnectApi, names, regexpMode);
-        for (String connectorToDescribe : selectedConnector) {
-            int returnCode = describe(kafkaConnectApi, connectorToDescribe, currentVersion);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
+        WorkerCapabilities capabilities = CapabilityRegistry.getCapabilities(context, kafkaConnectApi);
+
+        // When describing more than one connector, retrieve info and status of all connectors with one request;
+        // only topics and task configs are requested per connector then
+        Map<String, ConnectorExpandInfo> expandInfos = null;
+        Set<String> selectedConnectors;
+        if ((regexpMode || names.size() > 1) && capabilities.supports(Capability.EXPAND_API)) {
+            expandInfos = kafkaConnectApi.getConnectorExpandInfo(List.of("info", "status"));
+            selectedConnectors = Connectors.getSelectedConnectors(expandInfos.keySet(), names, regexpMode);
+        }
+        else {
+            selectedConnectors = Connectors.getSelectedConnectors(kafkaConnectApi, names, regexpMode);
+        }
+
+        Map<String, ConnectorExpandInfo> prefetched = expandInfos;
+        List<String> connectorsToDescribe = new ArrayList<>(selectedConnectors);
+        List<ConnectorDescription> descriptions = fanOut.map(connectorsToDescribe, name -> fetch(kafkaConnectApi, name, prefetched, capabilities));
+
+        for (int i = 0; i < connectorsToDescribe.size(); i++) {
+            if (descriptions.get(i) == null) {
+                spec.commandLine().getOut().println("Connector " + connectorsToDescribe.get(i) + " not found. The following connector(s) are available:");
+
+                GetConnectorsCommand getConnectors = new GetConnectorsCommand(context, spec);
+                getConnectors.run();
+
+                return 1;
+            }
+
+            int returnCode = describe(descriptions.get(i));
             if (returnCode > 0)
                 return returnCode;
         }
@@ -96,50 +122,35 @@ public class DescribeConnectorCommand implements Callable<Integer> {
         return 0;
     }
 
-    private int describe(KafkaConnectApi kafkaConnectApi, String connectorToDescribe, Version currentVersion) {
+    /**
+     * Retrieves everything needed for describing the given connector, using the already retrieved info and
+     * status if given. Returns {@code null} if the connector doesn't exist.
+     */
+    private ConnectorDescription fetch(KafkaConnectApi kafkaConnectApi, String connectorToDescribe, Map<String, ConnectorExpandInfo> expandInfos,
+                                       WorkerCapabilities capabilities) {
         try {
-            ConnectorInfo connector = kafkaConnectApi.getConnector(connectorToDescribe);
-            ConnectorStatusInfo connectorStatus = kafkaConnectApi.getConnectorStatus(connectorToDescribe);
-            Map<String, String> connectorConfig = kafkaConnectApi.getConnectorConfig(connectorToDescribe);
-            if (outputFormat != null) {
-                switch (outputFormat) {
-                    case JSON:
-                        try {
-                            System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(connector));
-                        }
-                        catch (JsonProcessingException e) {
-                            spec.commandLine().getErr().println("Failed to serialize connector config as JSON"
-                                    + (e.getMessage() != null ? ": " + e.getMessage() : ""));
-                            return CommandLine.ExitCode.SOFTWARE;
-                        }
-                        return 0;
-                    case TEXT:
-                        break;
+            ConnectorInfo connector;
+            ConnectorStatusInfo connectorStatus;
+            if (expandInfos != null) {
+                ConnectorExpandInfo expandInfo = expandInfos.get(connectorToDescribe);
+                if (expandInfo == null) {
+                    return null;
                 }
+                connector = expandInfo.info();
+                connectorStatus = expandInfo.status();
             }
-            List<Tuple> connectorInfo = List.of(
-                    new Tuple("Name", connector.name()),
-                    new Tuple("Type", connectorStatus.type()),
-                    new Tuple("State", Colors.colorizeState(connectorStatus.connector().state())),
-                    new Tuple("Worker ID", connectorStatus.connector().worker_id()));
-
-            Tuple.print(connectorInfo);
-
-            // Config
-            List<Tuple> config = new ArrayList<>();
-
-            // Sort connector config
-            Map<String, String> sortedConnectorConfig = new TreeMap<>(Comparator.comparing(x -> x));
-            sortedConnectorConfig.putAll(connectorConfig);
-
-            for (Entry<String, String> configEntry : sortedConnectorConfig.entrySet()) {
-                config.add(new Tuple("  " + configEntry.getKey(), configEntry.getValue()));
+            else if (outputFormat == OutputFormat.JSON) {
+                // Only the connector info is part of the JSON output
+                return new ConnectorDescription(kafkaConnectApi.getConnector(connectorToDescribe), null, Collections.emptyMap(), null);
+            }
+            else {
+                connector = kafkaConnectApi.getConnector(connectorToDescribe);
+                connectorStatus = kafkaConnectApi.getConnectorStatus(connectorToDescribe);
             }
 
-            Tuple.print(List.of(new Tuple(ANSI_WHITE_BOLD + "Config" + ANSI_RESET, "")));
-            Tuple.print(config);
-
-            Tuple.print(List.of(new Tuple(ANSI_WHITE_BOLD + "Tasks" + ANSI_RESET, "")));
+            if (outputFormat == OutputFormat.JSON) {
+                return new ConnectorDescription(connector, connectorStatus, Collections.emptyMap(), null);
+            }
 
             Map<String, Map<String, String>> tasksConfigs;
             if (includeTasksConfig) {
@@ -153,54 +164,103 @@ public class DescribeConnectorCommand implements Callable<Integer> {
                 tasksConfigs = Collections.emptyMap();
             }
 
-            // Tasks
-            for (TaskState task : connectorStatus.tasks()) {
-                Tuple.print(List.of(new Tuple("  " + task.id(), "")));
-                List<Tuple> tuples = new ArrayList<>();
-                tuples.add(new Tuple("    State", Colors.colorizeState(task.state())));
-                tuples.add(new Tuple("    Worker ID", task.worker_id()));
+            List<String> topics = null;
+            if (capabilities.supports(Capability.TOPICS_API)) {
+                Map<String, TopicsInfo> connectorTopics = kafkaConnectApi.getConnectorTopics(connectorToDescribe);
+                topics = connectorTopics.entrySet().iterator().next().getValue().topics();
+            }
 
-                if (includeTasksConfig) {
-                    tuples.add(new Tuple("    Config", ""));
+            return new ConnectorDescription(connector, connectorStatus, tasksConfigs, topics);
+        }
+        catch (KafkaConnectNotFoundException e) {
+            return null;
+        }
+    }
 
-                    for (Entry<String, String> taskConfig : tasksConfigs.get(connectorToDescribe + "-" + task.id()).entrySet()) {
-                        tuples.add(new Tuple("      " + taskConfig.getKey(), taskConfig.getValue()));
-                    }
-                }
+    private int describe(ConnectorDescription description) {
+        ConnectorInfo connector = description.connector();
+        ConnectorStatusInfo connectorStatus = description.status();
 
-                if (task.state().equals("FAILED")) {
-                    tuples.add(new Tuple("    Trace", task.trace().replaceAll("Caused by", "      Caused by")));
-                }
-                Tuple.print(tuples);
+        if (outputFormat != null) {
+            switch (outputFormat) {
+                case JSON:
+                    try {
+                        spec.commandLine().getOut().println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(connector));
+                    }
+                    catch (JsonProcessingException e) {
+                        spec.commandLine().getErr().println("Failed to serialize connector config as JSON"
+                                + (e.getMessage() != null ? ": " + e.getMessage() : ""));
+                        return CommandLine.ExitCode.SOFTWARE;
+                    }
+                    return 0;
+                case TEXT:
+                    break;
             }
+        }
+        List<Tuple> connectorInfo = List.of(
+                new Tuple("Name", connector.name()),
+                new Tuple("Type", connectorStatus.type()),
+                new Tuple("State", Colors.colorizeState(connectorStatus.connector().state())),
+                new Tuple("Worker ID", connectorStatus.connector().worker_id()));
 
-            if (currentVersion.greaterOrEquals(requiredVersionForTopicsApi)) {
+        Tuple.print(connectorInfo);
 
-                Map<String, TopicsInfo> connectorTopics = kafkaConnectApi.getConnectorTopics(connectorToDescribe);
+        // Config
+        List<Tuple> config = new ArrayList<>();
+
+        // Sort connector config
+        Map<String, String> sortedConnectorConfig = new TreeMap<>(Comparator.comparing(x -> x));
+        sortedConnectorConfig.putAll(connector.config());
+
+        for (Entry<String, String> configEntry : sortedConnectorConfig.entrySet()) {
+            config.add(new Tuple("  " + configEntry.getKey(), configEntry.getValue()));
+        }
+
+        Tuple.print(List.of(new Tuple(ANSI_WHITE_BOLD + "Config" + ANSI_RESET, "")));
+        Tuple.print(config);
+
+        Tuple.print(List.of(new Tuple(ANSI_WHITE_BOLD + "Tasks" + ANSI_RESET, "")));
 
-                Tuple.print(List.of(new Tuple(ANSI_WHITE_BOLD + "Topics" + ANSI_RESET, "")));
+        // Tasks
+        for (TaskState task : connectorStatus.tasks()) {
+            Tuple.print(List.of(new Tuple("  " + task.id(), "")));
+            List<Tuple> tuples = new ArrayList<>();
+            tuples.add(new Tuple("    State", Colors.colorizeState(task.state())));
+            tuples.add(new Tuple("    Worker ID", task.worker_id()));
 
-                List<Tuple> topics = new ArrayList<>();
+            if (includeTasksConfig) {
+                tuples.add(new Tuple("    Config", ""));
 
-                for (String topic : connectorTopics.entrySet().iterator().next().getValue().topics()) {
-                    topics.add(new Tuple("", "  " + topic));
+                for (Entry<String, String> taskConfig : description.tasksConfigs().get(connector.name() + "-" + task.id()).entrySet()) {
+                    tuples.add(new Tuple("      " + taskConfig.getKey(), taskConfig.getValue()));
                 }
-                topics.sort(Comparator.comparing(Tuple::getValue));
-                Tuple.print(topics);
             }
+
+            if (task.state().equals("FAILED")) {
+                tuples.add(new Tuple("    Trace", task.trace().replaceAll("Caused by", "      Caused by")));
+            }
+            Tuple.print(tuples);
         }
-        catch (KafkaConnectNotFoundException e) {
-            spec.commandLine().getOut().println("Connector " + connectorToDescribe + " not found. The following connector(s) are available:");
 
-            GetConnectorsCommand getConnectors = new GetConnectorsCommand(context, spec);
-            getConnectors.run();
+        if (description.topics() != null) {
+            Tuple.print(List.of(new Tuple(ANSI_WHITE_BOLD + "Topics" + ANSI_RESET, "")));
+
+            List<Tuple> topics = new ArrayList<>();
 
-            return 1;
+            for (String topic : description.topics()) {
+                topics.add(new Tuple("", "  " + topic));
+            }
+            topics.sort(Comparator.comparing(Tuple::getValue));
+            Tuple.print(topics);
         }
 
         return 0;
     }
 
+    private record ConnectorDescription(ConnectorInfo connector, ConnectorStatusInfo status, Map<String, Map<String, String>> tasksConfigs,
+                                        List<String> topics) {
+    }
+
     public enum OutputFormat {
         JSON("json"),
         TEXT("text");
@@ -13,14 +13,16 @@ import java.util.regex.Pattern;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.completion.PluginNameCompletions;
+import org.kcctl.service.Capability;
+import org.kcctl.service.CapabilityRegistry;
 import org.kcctl.service.ConfigInfos;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.service.WorkerCapabilities;
 import org.kcctl.util.ConfigurationContext;
 import org.kcctl.util.Search;
 import org.kcctl.util.Tuple;
-import org.kcctl.util.Version;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -82,18 +84,14 @@ public class DescribePluginCommand implements Callable<Integer> {
         context = new ConfigurationContext();
     }
 
-    private final Version requiredVersion = new Version(3, 2);
-
     @Override
     public Integer call() {
 
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
-        Version currentVersion = new Version(kafkaConnectApi.getWorkerInfo().version());
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
+        WorkerCapabilities capabilities = CapabilityRegistry.getCapabilities(context, kafkaConnectApi);
 
-        if (!currentVersion.greaterOrEquals(requiredVersion)) {
-            System.out.println("This command requires at least Kafka Connect 3.2. Current version: " + currentVersion);
+        if (!capabilities.supports(Capability.ALL_PLUGINS)) {
+            System.out.println("This command requires at least Kafka Connect 3.2. Current version: " + capabilities.version());
             return 1;
         }
 
@@ -0,0 +1,127 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.kcctl.util.TableRenderer;
+import org.kcctl.util.Timings;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+@Command(name = "exec", description = "Executes the kcctl commands of a script or stdin, one per line, within a single process")
+public class ExecCommand implements Callable<Integer> {
+
+    @CommandLine.Mixin
+    HelpMixin help;
+
+    @CommandLine.Spec
+    CommandLine.Model.CommandSpec spec;
+
+    @Inject
+    Instance<CommandLine> commandLines;
+
+    @Option(names = { "-f",
+            "--file" }, defaultValue = "-", description = "Script with one kcctl command per line, optionally prefixed with 'kcctl'; empty lines and lines starting with '#' are ignored. Use '-' for reading from stdin (default)")
+    String file = "-";
+
+    @Option(names = {
+            "--fail-fast" }, negatable = true, defaultValue = "true", fallbackValue = "true", description = "Stop executing further commands after the first one returning a non-zero exit code; use --no-fail-fast for executing all commands regardless (default: ${DEFAULT-VALUE})")
+    boolean failFast = true;
+
+    private record ScriptCommand(int lineNumber, String line, List<String> args) {
+    }
+
+    private record CommandResult(ScriptCommand command, Integer exitCode) {
+    }
+
+    @Override
+    public Integer call() throws IOException {
+        Timings.hostingCommands();
+
+        List<String> lines;
+        if (file.equals("-")) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            lines = reader.lines().toList();
+        }
+        else {
+            Path path = Path.of(file);
+            if (!Files.isRegularFile(path)) {
+                spec.commandLine().getErr().println("Script file not found: " + file);
+                return CommandLine.ExitCode.USAGE;
+            }
+            lines = Files.readAllLines(path);
+        }
+
+        // All lines are parsed upfront, so that syntax errors are detected before executing anything
+        List<ScriptCommand> commands = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            List<String> args;
+            try {
+                args = HostedCommands.parse(lines.get(i));
+            }
+            catch (IllegalArgumentException e) {
+                spec.commandLine().getErr().println("Line " + (i + 1) + ": " + e.getMessage());
+                return CommandLine.ExitCode.USAGE;
+            }
+
+            if (args.isEmpty()) {
+                continue;
+            }
+            if (!HostedCommands.isSupported(args.get(0))) {
+                spec.commandLine().getErr().println("Line " + (i + 1) + ": '" + args.get(0) + "' can't be used within scripts");
+                return CommandLine.ExitCode.USAGE;
+            }
+
+            commands.add(new ScriptCommand(i + 1, lines.get(i).trim(), args));
+        }
+
+        // The commands share the clients, the parsed configuration and the capabilities of the cluster, as all of
+        // these are held process-wide
+        List<CommandResult> results = new ArrayList<>(commands.size());
+        int exitCode = CommandLine.ExitCode.OK;
+
+        for (ScriptCommand command : commands) {
+            if (failFast && exitCode != CommandLine.ExitCode.OK) {
+                results.add(new CommandResult(command, null));
+                continue;
+            }
+
+            int commandExitCode = HostedCommands.execute(commandLines, spec, command.args());
+            results.add(new CommandResult(command, commandExitCode));
+            if (exitCode == CommandLine.ExitCode.OK) {
+                exitCode = commandExitCode;
+            }
+        }
+
+        if (results.size() > 1) {
+            spec.commandLine().getOut().println();
+            new TableRenderer<CommandResult>()
+                    .column("LINE", result -> String.valueOf(result.command().lineNumber()))
+                    .column(" COMMAND", result -> " " + result.command().line(), line -> line, 80)
+                    .column(" EXIT CODE", result -> " " + (result.exitCode() == null ? "skipped" : result.exitCode()))
+                    .render(results, spec.commandLine().getOut());
+            spec.commandLine().getOut().println();
+        }
+
+        return exitCode;
+    }
+}
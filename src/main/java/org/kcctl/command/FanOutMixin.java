@@ -0,0 +1,49 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import org.kcctl.util.FanOut;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+
+/**
+ * Options of the read-only commands issuing one request per connector, if the cluster doesn't allow for retrieving
+ * the information of all connectors at once.
+ */
+public class FanOutMixin {
+
+    @CommandLine.Spec(CommandLine.Spec.Target.MIXEE)
+    CommandSpec spec;
+
+    @CommandLine.Option(names = {
+            "--parallelism" }, defaultValue = "8", description = "Maximum number of concurrent requests, if the cluster doesn't support fetching all connectors at once (default: ${DEFAULT-VALUE})")
+    int parallelism = 8;
+
+    @CommandLine.Option(names = {
+            "--request-timeout" }, defaultValue = "30", description = "Timeout in seconds for a single request (default: ${DEFAULT-VALUE})")
+    long requestTimeout = 30;
+
+    /**
+     * Applies the given function to all connectors concurrently, as per the configured options.
+     */
+    public <R> List<R> map(List<String> connectors, Function<String, R> function) {
+        if (parallelism < 1) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--parallelism must be at least 1");
+        }
+        if (requestTimeout < 1) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--request-timeout must be at least 1");
+        }
+
+        return FanOut.map(connectors, parallelism, Duration.ofSeconds(requestTimeout), function);
+    }
+}
@@ -7,24 +7,36 @@
  */
 package org.kcctl.command;
 
+import java.io.InterruptedIOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
-import org.kcctl.service.ConnectorExpandInfo;
+import org.kcctl.service.Capability;
+import org.kcctl.service.CapabilityRegistry;
 import org.kcctl.service.ConnectorStatusInfo;
+import org.kcctl.service.ConnectorStatusReader;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.service.KafkaConnectNotFoundException;
+import org.kcctl.service.RequestCache;
 import org.kcctl.service.TaskState;
+import org.kcctl.util.Colors;
 import org.kcctl.util.ConfigurationContext;
-import org.kcctl.util.GetConnectorsStatusStyler;
-import org.kcctl.util.Version;
-
-import com.github.freva.asciitable.AsciiTable;
-import com.github.freva.asciitable.Column;
-import com.github.freva.asciitable.HorizontalAlign;
+import org.kcctl.util.LiveView;
+import org.kcctl.util.NdjsonRenderer;
+import org.kcctl.util.TableFormat;
+import org.kcctl.util.TableRenderer;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -39,6 +51,25 @@ public class GetConnectorsCommand implements Runnable {
     @CommandLine.Spec
     CommandLine.Model.CommandSpec spec;
 
+    @CommandLine.Option(names = { "-o",
+            "--output-format" }, defaultValue = "text", description = "Specifies the output format, either 'text' (default) or 'ndjson'; with 'ndjson', connectors are written in the order returned by the cluster")
+    TableFormat outputFormat = TableFormat.TEXT;
+
+    @CommandLine.Mixin
+    FanOutMixin fanOut = new FanOutMixin();
+
+    @CommandLine.Option(names = { "-w",
+            "--watch" }, description = "Keeps polling the connector statuses and updates the output whenever they change; with 'ndjson', only changed connectors are written, and {\"name\":...,\"removed\":true} for deleted ones")
+    boolean watch;
+
+    @CommandLine.Option(names = {
+            "--interval" }, defaultValue = "2", description = "Minimum interval in seconds between two polls in watch mode; used as long as connectors are changing (default: ${DEFAULT-VALUE})")
+    long interval = 2;
+
+    @CommandLine.Option(names = {
+            "--max-interval" }, defaultValue = "30", description = "Maximum interval in seconds between two polls in watch mode; the interval doubles with each poll without changes, up to this value (default: ${DEFAULT-VALUE})")
+    long maxInterval = 30;
+
     @Inject
     public GetConnectorsCommand(ConfigurationContext context) {
         this.context = context;
@@ -55,56 +86,198 @@ public class GetConnectorsCommand implements Runnable {
         this.spec = spec;
     }
 
-    private final Version requiredVersionForExpandApi = new Version(2, 3);
-
     @Override
     public void run() {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
-
-        Version currentVersion = new Version(kafkaConnectApi.getWorkerInfo().version());
-
-        List<ConnectorStatusInfo> connectors;
-        if (currentVersion.greaterOrEquals(requiredVersionForExpandApi)) {
-            connectors = kafkaConnectApi.getConnectorExpandInfo(List.of("status")).values().stream()
-                    .map(ConnectorExpandInfo::status)
-                    .sorted(Comparator.comparing(ConnectorStatusInfo::type).thenComparing(ConnectorStatusInfo::name))
-                    .collect(Collectors.toList());
+        if (watch && interval < 1) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--interval must be at least 1");
+        }
+
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
+        boolean expandApi = CapabilityRegistry.getCapabilities(context, kafkaConnectApi).supports(Capability.EXPAND_API);
+
+        if (watch) {
+            watch(kafkaConnectApi, expandApi);
+            return;
+        }
+
+        // Written as they are decoded; sorting would require to collect all the statuses first
+        if (outputFormat == TableFormat.NDJSON && expandApi) {
+            try (Stream<ConnectorStatusInfo> statuses = ConnectorStatusReader.stream(kafkaConnectApi)) {
+                NdjsonRenderer.render(statuses.iterator(), spec.commandLine().getOut());
+            }
+            return;
+        }
+
+        List<ConnectorStatusInfo> connectors = getConnectorStatuses(kafkaConnectApi, expandApi);
+
+        if (outputFormat == TableFormat.NDJSON) {
+            NdjsonRenderer.render(connectors, spec.commandLine().getOut());
+            return;
+        }
+
+        renderTable(connectors, spec.commandLine().getOut());
+    }
+
+    /**
+     * Written in watch mode with 'ndjson' for a connector which has been deleted.
+     */
+    record RemovedConnector(String name, boolean removed) {
+    }
+
+    /**
+     * Polls the statuses until interrupted. The interval is reset to the minimum whenever a connector changed and
+     * doubles with each poll without changes, up to the maximum. Changed connectors are detected by hashing the
+     * shown attributes of each one; the table is re-rendered only if there are changes, and only its changed lines
+     * are redrawn. A failed poll (e.g. while a worker is restarted) is reported and retried, backing off the same way.
+     */
+    private void watch(KafkaConnectApi kafkaConnectApi, boolean expandApi) {
+        Duration minDelay = Duration.ofSeconds(interval);
+        Duration maxDelay = Duration.ofSeconds(Math.max(interval, maxInterval));
+        Duration delay = minDelay;
+
+        PrintWriter out = spec.commandLine().getOut();
+        LiveView view = LiveView.forCommand(out);
+        List<String> table = List.of();
+        boolean failed = false;
+        Map<String, Integer> previousHashes = null;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            RequestCache.clear();
+            List<ConnectorStatusInfo> connectors;
+            try {
+                connectors = getConnectorStatuses(kafkaConnectApi, expandApi);
+            }
+            catch (RuntimeException e) {
+                // e.g. a daemon client having disconnected
+                if (isInterruption(e)) {
+                    return;
+                }
+
+                failed = true;
+                delay = backOff(delay, maxDelay);
+                String message = "Couldn't retrieve the connector statuses, retrying in %d s: %s".formatted(delay.toSeconds(), e.getMessage());
+                if (outputFormat == TableFormat.NDJSON) {
+                    spec.commandLine().getErr().println(message);
+                    spec.commandLine().getErr().flush();
+                }
+                else {
+                    List<String> lines = new ArrayList<>(table);
+                    lines.add(Colors.ANSI_RED + message + Colors.ANSI_RESET);
+                    view.update(lines);
+                }
+                sleep(delay);
+                continue;
+            }
+
+            Map<String, Integer> hashes = new HashMap<>();
+            List<ConnectorStatusInfo> changed = new ArrayList<>();
+            for (ConnectorStatusInfo connector : connectors) {
+                int hash = hash(connector);
+                hashes.put(connector.name(), hash);
+                if (previousHashes == null || !Integer.valueOf(hash).equals(previousHashes.get(connector.name()))) {
+                    changed.add(connector);
+                }
+            }
+            List<String> removed = previousHashes == null ? List.of()
+                    : previousHashes.keySet().stream()
+                            .filter(name -> !hashes.containsKey(name))
+                            .sorted()
+                            .toList();
+
+            if (outputFormat == TableFormat.NDJSON) {
+                NdjsonRenderer.render(changed, out);
+                NdjsonRenderer.render(removed.stream().map(name -> new RemovedConnector(name, true)).iterator(), out);
+            }
+            // Also redrawn after a failed poll, for removing its message
+            else if (previousHashes == null || !changed.isEmpty() || !removed.isEmpty() || failed) {
+                StringWriter rendered = new StringWriter();
+                renderTable(connectors, new PrintWriter(rendered));
+                table = rendered.toString().lines().toList();
+                view.update(table);
+            }
+            failed = false;
+
+            if (!changed.isEmpty() || !removed.isEmpty()) {
+                delay = minDelay;
+            }
+            else {
+                delay = backOff(delay, maxDelay);
+            }
+            previousHashes = hashes;
+
+            sleep(delay);
+        }
+    }
+
+    private static boolean isInterruption(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof InterruptedIOException) {
+                return true;
+            }
+        }
+        return Thread.currentThread().isInterrupted();
+    }
+
+    private static Duration backOff(Duration delay, Duration maxDelay) {
+        Duration doubled = delay.multipliedBy(2);
+        return doubled.compareTo(maxDelay) > 0 ? maxDelay : doubled;
+    }
+
+    private static void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay);
         }
-        else {
-            connectors = kafkaConnectApi.getConnectors().stream()
-                    .map(kafkaConnectApi::getConnectorStatus)
-                    .collect(Collectors.toList());
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int hash(ConnectorStatusInfo connector) {
+        int hash = Objects.hash(connector.type(), connector.connector().state());
+        for (TaskState task : connector.tasks()) {
+            hash = 31 * hash + Objects.hash(task.id(), task.state());
         }
+        return hash;
+    }
 
-        String[][] data = new String[connectors.size()][];
+    private List<ConnectorStatusInfo> getConnectorStatuses(KafkaConnectApi kafkaConnectApi, boolean expandApi) {
+        Comparator<ConnectorStatusInfo> order = Comparator.comparing(ConnectorStatusInfo::type).thenComparing(ConnectorStatusInfo::name);
 
-        int i = 0;
-        for (ConnectorStatusInfo status : connectors) {
-            data[i] = new String[]{
-                    status.name(),
-                    " " + status.type(),
-                    " " + status.connector().state(),
-                    " " + toString(status.tasks()) };
-            i++;
+        if (expandApi) {
+            try (Stream<ConnectorStatusInfo> statuses = ConnectorStatusReader.stream(kafkaConnectApi)) {
+                return statuses.sorted(order).collect(Collectors.toList());
+            }
         }
 
-        spec.commandLine().getOut().println();
-        Column[] columns = new Column[]{
-                new Column().header("NAME").dataAlign(HorizontalAlign.LEFT),
-                new Column().header(" TYPE").dataAlign(HorizontalAlign.LEFT),
-                new Column().header(" STATE").dataAlign(HorizontalAlign.LEFT),
-                new Column().header(" TASKS").dataAlign(HorizontalAlign.LEFT).maxWidth(100)
-        };
-        String table = AsciiTable.builder()
-                .data(columns, data)
-                .border(AsciiTable.NO_BORDERS)
-                .styler(new GetConnectorsStatusStyler())
-                .asString();
-
-        spec.commandLine().getOut().println(table);
-        spec.commandLine().getOut().println();
+        List<ConnectorStatusInfo> statuses = fanOut.map(kafkaConnectApi.getConnectors(), name -> getConnectorStatus(kafkaConnectApi, name));
+
+        return statuses.stream()
+                .filter(Objects::nonNull)
+                .sorted(order)
+                .collect(Collectors.toList());
+    }
+
+    private void renderTable(List<ConnectorStatusInfo> connectors, PrintWriter out) {
+        out.println();
+        new TableRenderer<ConnectorStatusInfo>()
+                .column("NAME", ConnectorStatusInfo::name)
+                .column(" TYPE", status -> " " + status.type())
+                .column(" STATE", status -> " " + status.connector().state(), Colors::colorizeState)
+                .column(" TASKS", status -> " " + toString(status.tasks()), Colors::replaceColorState, 100)
+                .render(connectors, out);
+
+        out.println();
+        out.println();
+    }
+
+    private ConnectorStatusInfo getConnectorStatus(KafkaConnectApi kafkaConnectApi, String name) {
+        try {
+            return kafkaConnectApi.getConnectorStatus(name);
+        }
+        catch (KafkaConnectNotFoundException e) {
+            // The connector has been deleted after the list of connectors had been retrieved
+            return null;
+        }
     }
 
     private String toString(List<TaskState> tasks) {
@@ -7,16 +7,17 @@
  */
 package org.kcctl.command;
 
+import java.net.URI;
+import java.util.List;
 import java.util.Map;
 
 import jakarta.inject.Inject;
 
 import org.kcctl.service.Context;
 import org.kcctl.util.ConfigurationContext;
-
-import com.github.freva.asciitable.AsciiTable;
-import com.github.freva.asciitable.Column;
-import com.github.freva.asciitable.HorizontalAlign;
+import org.kcctl.util.NdjsonRenderer;
+import org.kcctl.util.TableFormat;
+import org.kcctl.util.TableRenderer;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -27,26 +28,37 @@ public class GetContextsCommand implements Runnable {
     @CommandLine.Mixin
     HelpMixin help;
 
+    @CommandLine.Spec
+    CommandLine.Model.CommandSpec spec;
+
+    @CommandLine.Option(names = { "-o", "--output-format" }, defaultValue = "text", description = "Specifies the output format, either 'text' (default) or 'ndjson'")
+    TableFormat outputFormat = TableFormat.TEXT;
+
     @Inject
     ConfigurationContext configContext;
 
+    private record ContextRow(String name, URI cluster, boolean current) {
+    }
+
     @Override
     public void run() {
         Map<String, Context> contexts = configContext.getContexts();
         String current = configContext.getCurrentContextName();
 
-        String[][] data = contexts.entrySet()
+        List<ContextRow> rows = contexts.entrySet()
                 .stream()
-                .map(e -> new String[]{ e.getKey() + (e.getKey().equals(current) ? "*" : ""), e.getValue().getCluster().toASCIIString() })
-                .toArray(String[][]::new);
+                .map(e -> new ContextRow(e.getKey(), e.getValue().getCluster(), e.getKey().equals(current)))
+                .toList();
 
-        String table = AsciiTable.getTable(AsciiTable.NO_BORDERS,
-                new Column[]{
-                        new Column().header("NAME").dataAlign(HorizontalAlign.LEFT),
-                        new Column().header("KAFKA CONNECT URI").dataAlign(HorizontalAlign.LEFT)
-                },
-                data);
+        if (outputFormat == TableFormat.NDJSON) {
+            NdjsonRenderer.render(rows, spec.commandLine().getOut());
+            return;
+        }
 
-        System.out.println(table);
+        new TableRenderer<ContextRow>()
+                .column("NAME", row -> row.name() + (row.current() ? "*" : ""))
+                .column("KAFKA CONNECT URI", row -> row.cluster().toASCIIString())
+                .render(rows, spec.commandLine().getOut());
+        spec.commandLine().getOut().println();
     }
 }
@@ -10,9 +10,9 @@ package org.kcctl.command;
 import java.util.Map;
 import java.util.function.Function;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.completion.LoggerNameCompletions;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
 import org.kcctl.service.LoggerLevel;
 import org.kcctl.util.ConfigurationContext;
 
@@ -104,9 +104,7 @@ public class GetLoggerCommand implements Runnable {
     }
 
     private <T> T kafkaConnectRequest(Function<KafkaConnectApi, T> request) {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
         return request.apply(kafkaConnectApi);
     }
 }
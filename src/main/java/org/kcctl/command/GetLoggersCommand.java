@@ -11,23 +11,17 @@ import java.util.Map;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
 import org.kcctl.service.LoggerLevel;
+import org.kcctl.util.Colors;
 import org.kcctl.util.ConfigurationContext;
-
-import com.github.freva.asciitable.AsciiTable;
-import com.github.freva.asciitable.Column;
-import com.github.freva.asciitable.HorizontalAlign;
+import org.kcctl.util.NdjsonRenderer;
+import org.kcctl.util.TableFormat;
+import org.kcctl.util.TableRenderer;
 
 import picocli.CommandLine;
 
-import static org.kcctl.util.Colors.ANSI_CYAN;
-import static org.kcctl.util.Colors.ANSI_GREEN;
-import static org.kcctl.util.Colors.ANSI_RED;
-import static org.kcctl.util.Colors.ANSI_RESET;
-import static org.kcctl.util.Colors.ANSI_YELLOW;
-
 @CommandLine.Command(name = "loggers", description = "Displays information about all configured loggers")
 public class GetLoggersCommand implements Runnable {
 
@@ -39,6 +33,9 @@ public class GetLoggersCommand implements Runnable {
     @CommandLine.Spec
     CommandLine.Model.CommandSpec spec;
 
+    @CommandLine.Option(names = { "-o", "--output-format" }, defaultValue = "text", description = "Specifies the output format, either 'text' (default) or 'ndjson'")
+    TableFormat outputFormat = TableFormat.TEXT;
+
     @Inject
     public GetLoggersCommand(ConfigurationContext context) {
         this.context = context;
@@ -51,31 +48,22 @@ public class GetLoggersCommand implements Runnable {
 
     @Override
     public void run() {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
         Map<String, LoggerLevel> loggers = kafkaConnectApi.getLoggers();
-        String[][] data = loggers.entrySet().stream()
-                .map(e -> {
-                    String logger = e.getKey();
-                    LoggerLevel loggerLevel = e.getValue();
-                    String level = " " + loggerLevel.level();
-                    return new String[]{ logger, level };
-                }).toArray(String[][]::new);
 
+        if (outputFormat == TableFormat.NDJSON) {
+            NdjsonRenderer.render(loggers.entrySet().stream()
+                    .map(e -> Map.of("logger", e.getKey(), "level", e.getValue().level()))
+                    .iterator(), spec.commandLine().getOut());
+            return;
+        }
+
+        spec.commandLine().getOut().println();
+        new TableRenderer<Map.Entry<String, LoggerLevel>>()
+                .column("LOGGER", Map.Entry::getKey)
+                .column(" LEVEL", e -> " " + e.getValue().level(), Colors::colorizeLogLevel)
+                .render(loggers.entrySet(), spec.commandLine().getOut());
         spec.commandLine().getOut().println();
-        String table = AsciiTable.getTable(AsciiTable.NO_BORDERS,
-                new Column[]{
-                        new Column().header("LOGGER").dataAlign(HorizontalAlign.LEFT),
-                        new Column().header(" LEVEL").dataAlign(HorizontalAlign.LEFT)
-                },
-                data);
-        spec.commandLine().getOut().println(table.replace("ERROR", ANSI_RED + "ERROR" + ANSI_RESET)
-                .replace("WARN", ANSI_RED + "WARN" + ANSI_RESET)
-                .replace("FATAL", ANSI_RED + "FATAL" + ANSI_RESET)
-                .replace("DEBUG", ANSI_YELLOW + "DEBUG" + ANSI_RESET)
-                .replace("INFO", ANSI_GREEN + "INFO" + ANSI_RESET)
-                .replace("TRACE", ANSI_CYAN + "TRACE" + ANSI_RESET));
     }
 }
@@ -12,12 +12,14 @@ import java.util.concurrent.Callable;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.completion.ConnectorNameCompletions;
+import org.kcctl.service.Capability;
+import org.kcctl.service.CapabilityRegistry;
 import org.kcctl.service.ConnectorOffsets;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.service.WorkerCapabilities;
 import org.kcctl.util.ConfigurationContext;
-import org.kcctl.util.Version;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -35,7 +37,6 @@ public class GetOffsetsCommand implements Callable<Integer> {
     @CommandLine.Mixin
     HelpMixin help;
 
-    private final Version requiredVersionForReadingOffsets = new Version(3, 5);
     private final ObjectMapper mapper = new ObjectMapper();
     private final ConfigurationContext context;
 
@@ -57,14 +58,12 @@ public class GetOffsetsCommand implements Callable<Integer> {
 
     @Override
     public Integer call() throws JsonProcessingException {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
-        Version currentVersion = new Version(kafkaConnectApi.getWorkerInfo().version());
+        WorkerCapabilities capabilities = CapabilityRegistry.getCapabilities(context, kafkaConnectApi);
 
-        if (!currentVersion.greaterOrEquals(requiredVersionForReadingOffsets)) {
-            spec.commandLine().getErr().println("Reading connector offsets requires at least Kafka Connect 3.5. Current version: " + currentVersion);
+        if (!capabilities.supports(Capability.READ_OFFSETS)) {
+            spec.commandLine().getErr().println("Reading connector offsets requires at least Kafka Connect 3.5. Current version: " + capabilities.version());
             return 1;
         }
 
@@ -15,15 +15,16 @@ import java.util.concurrent.Callable;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.kcctl.service.Capability;
+import org.kcctl.service.CapabilityRegistry;
 import org.kcctl.service.ConnectorPlugin;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.service.WorkerCapabilities;
 import org.kcctl.util.ConfigurationContext;
-import org.kcctl.util.Version;
-
-import com.github.freva.asciitable.AsciiTable;
-import com.github.freva.asciitable.Column;
-import com.github.freva.asciitable.HorizontalAlign;
+import org.kcctl.util.NdjsonRenderer;
+import org.kcctl.util.TableFormat;
+import org.kcctl.util.TableRenderer;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -34,8 +35,6 @@ public class GetPluginsCommand implements Callable<Integer> {
     @CommandLine.Mixin
     HelpMixin help;
 
-    private final Version requiredVersionForAllPlugins = new Version(3, 2);
-
     private final ConfigurationContext context;
 
     @CommandLine.Spec
@@ -44,6 +43,9 @@ public class GetPluginsCommand implements Callable<Integer> {
     @CommandLine.Option(names = { "-t", "--types" }, description = "Valid values: ${COMPLETION-CANDIDATES}", split = ",")
     Set<PluginType> pluginTypes;
 
+    @CommandLine.Option(names = { "-o", "--output-format" }, defaultValue = "text", description = "Specifies the output format, either 'text' (default) or 'ndjson'")
+    TableFormat outputFormat = TableFormat.TEXT;
+
     @Inject
     public GetPluginsCommand(ConfigurationContext context) {
         this.context = context;
@@ -56,15 +58,14 @@ public class GetPluginsCommand implements Callable<Integer> {
 
     @Override
     public Integer call() {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
-
-        Version currentVersion = new Version(kafkaConnectApi.getWorkerInfo().version());
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
         if (pluginTypes != null && !pluginTypes.stream().allMatch(t -> t == PluginType.SINK || t == PluginType.SOURCE)) {
-            if (!currentVersion.greaterOrEquals(requiredVersionForAllPlugins)) {
-                spec.commandLine().getErr().println("Listing plugins other than source and sink requires at least Kafka Connect 3.2. Current version: " + currentVersion);
+            WorkerCapabilities capabilities = CapabilityRegistry.getCapabilities(context, kafkaConnectApi);
+
+            if (!capabilities.supports(Capability.ALL_PLUGINS)) {
+                spec.commandLine().getErr()
+                        .println("Listing plugins other than source and sink requires at least Kafka Connect 3.2. Current version: " + capabilities.version());
                 return 1;
             }
         }
@@ -75,11 +76,18 @@ public class GetPluginsCommand implements Callable<Integer> {
         }
         connectorPlugins.sort(Comparator.comparing(ConnectorPlugin::type).thenComparing(ConnectorPlugin::clazz));
 
+        if (outputFormat == TableFormat.NDJSON) {
+            NdjsonRenderer.render(connectorPlugins, spec.commandLine().getOut());
+            return 0;
+        }
+
+        spec.commandLine().getOut().println();
+        new TableRenderer<ConnectorPlugin>()
+                .column("TYPE", ConnectorPlugin::type)
+                .column(" CLASS", plugin -> " " + plugin.clazz())
+                .column(" VERSION", plugin -> " " + (plugin.version() == null ? "n/a" : plugin.version()))
+                .render(connectorPlugins, spec.commandLine().getOut());
         spec.commandLine().getOut().println();
-        spec.commandLine().getOut().println(AsciiTable.getTable(AsciiTable.NO_BORDERS, connectorPlugins, List.of(
-                new Column().header("TYPE").dataAlign(HorizontalAlign.LEFT).with(ConnectorPlugin::type),
-                new Column().header(" CLASS").dataAlign(HorizontalAlign.LEFT).with(plugin -> " " + plugin.clazz()),
-                new Column().header(" VERSION").dataAlign(HorizontalAlign.LEFT).with(plugin -> " " + (plugin.version() == null ? "n/a" : plugin.version())))));
         spec.commandLine().getOut().println();
         return 0;
     }
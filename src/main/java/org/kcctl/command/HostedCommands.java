@@ -0,0 +1,73 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.enterprise.inject.Instance;
+
+import org.kcctl.util.Strings;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+
+/**
+ * Parses and executes the command lines run within one process by {@code exec} and {@code shell}.
+ */
+final class HostedCommands {
+
+    /**
+     * Commands hosting further commands themselves, which therefore can't be run within a hosting command.
+     */
+    private static final List<String> UNSUPPORTED_COMMANDS = List.of("daemon", "exec", "shell");
+
+    private HostedCommands() {
+    }
+
+    /**
+     * Returns the arguments of the given line, without a leading {@code kcctl}. Blank lines and lines starting with
+     * {@code #} yield an empty list.
+     *
+     * @throws IllegalArgumentException if the line can't be split into arguments, e.g. due to an unterminated quote
+     */
+    static List<String> parse(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return List.of();
+        }
+
+        List<String> args = new ArrayList<>(Strings.splitArguments(trimmed));
+        if (!args.isEmpty() && args.get(0).equals("kcctl")) {
+            args.remove(0);
+        }
+        return args;
+    }
+
+    static boolean isSupported(String command) {
+        return !UNSUPPORTED_COMMANDS.contains(command);
+    }
+
+    /**
+     * Executes the given arguments with a new command line, writing to the output streams of the hosting command.
+     */
+    static int execute(Instance<CommandLine> commandLines, CommandSpec host, List<String> args) {
+        CommandLine commandLine = commandLines.get()
+                .setOut(host.commandLine().getOut())
+                .setErr(host.commandLine().getErr());
+
+        try {
+            return commandLine.execute(args.toArray(new String[0]));
+        }
+        finally {
+            commandLine.getOut().flush();
+            commandLine.getErr().flush();
+            commandLines.destroy(commandLine);
+        }
+    }
+}
@@ -9,8 +9,9 @@ package org.kcctl.command;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.kcctl.service.CapabilityRegistry;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
 import org.kcctl.service.KafkaConnectInfo;
 import org.kcctl.util.ConfigurationContext;
 
@@ -42,11 +43,10 @@ public class InfoCommand implements Runnable {
 
     @Override
     public void run() {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
-        KafkaConnectInfo workerInfo = kafkaConnectApi.getWorkerInfo();
+        // Always contact the cluster, also updating the capability registry with what was found
+        KafkaConnectInfo workerInfo = CapabilityRegistry.refresh(context, kafkaConnectApi).workerInfo();
         spec.commandLine().getOut().println("URL:               " + context.getCurrentContext().getCluster());
         spec.commandLine().getOut().println("Version:           " + workerInfo.version());
         spec.commandLine().getOut().println("Commit:            " + workerInfo.commit());
@@ -7,12 +7,20 @@
  */
 package org.kcctl.command;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
 import jakarta.enterprise.inject.Produces;
 import jakarta.inject.Inject;
 
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.kcctl.service.ExecutionExceptionHandler;
+import org.kcctl.service.RequestCache;
 import org.kcctl.util.ConfigurationContext;
+import org.kcctl.util.FlightRecording;
+import org.kcctl.util.Timings;
 
 import io.quarkus.picocli.runtime.PicocliCommandLineFactory;
 import io.quarkus.picocli.runtime.annotations.TopCommand;
@@ -38,18 +46,105 @@ import picocli.CommandLine.IVersionProvider;
         LoggerNamesCompletionCandidateCommand.class,
         ContextNamesCompletionCandidateCommand.class,
         PluginNamesCompletionCandidateCommand.class,
+        CachedCompletionsCommand.class,
+        DaemonCommand.class,
+        ExecCommand.class,
+        ShellCommand.class,
 }, description = "A command-line interface for Kafka Connect"
 
 )
 
 public class KcCtlCommand {
 
+    static final String TIMINGS = "--timings";
+    static final String TIMINGS_JSON = "--timings-json";
+    static final String JFR = "--jfr";
+
     @Inject
     ConfigurationContext context;
 
+    @CommandLine.Option(names = TIMINGS, scope = CommandLine.ScopeType.INHERIT, description = "Print the time spent in each phase of the command and the latencies per REST endpoint to stderr")
+    boolean timings = false;
+
+    @CommandLine.Option(names = TIMINGS_JSON, scope = CommandLine.ScopeType.INHERIT, paramLabel = "FILE", description = "Write the phases of the command and all REST requests as JSON to the given file")
+    Path timingsJson = null;
+
+    @CommandLine.Option(names = JFR, scope = CommandLine.ScopeType.INHERIT, paramLabel = "FILE", description = "Record JDK Flight Recorder events of the command (REST calls, cache accesses, GC, allocations, etc.) into the given file")
+    Path jfr = null;
+
     @Produces
     CommandLine getCommandLineInstance(PicocliCommandLineFactory factory) {
-        return factory.create().setExecutionExceptionHandler(new ExecutionExceptionHandler(context.getCurrentContext()));
+        return factory.create()
+                .setExecutionExceptionHandler(new ExecutionExceptionHandler(context.getCurrentContext()))
+                .setExecutionStrategy(KcCtlCommand::execute);
+    }
+
+    private static int execute(CommandLine.ParseResult parseResult) {
+        boolean printTimings = false;
+        Path timingsJson = null;
+        Path jfr = null;
+        CommandLine.ParseResult executed = parseResult;
+        for (CommandLine.ParseResult command = parseResult; command != null; command = command.subcommand()) {
+            printTimings |= command.hasMatchedOption(TIMINGS);
+            timingsJson = command.matchedOptionValue(TIMINGS_JSON, timingsJson);
+            jfr = command.matchedOptionValue(JFR, jfr);
+            executed = command;
+        }
+
+        String commandName = executed.commandSpec().qualifiedName(" ");
+        PrintWriter err = parseResult.commandSpec().commandLine().getErr();
+
+        // Each execution gets its own scope of memoized responses, also when running several commands in one process
+        Supplier<Integer> execution = () -> RequestCache.withinInvocation(() -> recordCommand(commandName, () -> new CommandLine.RunLast().execute(parseResult)));
+
+        if (jfr != null) {
+            Path recordingFile = jfr;
+            Supplier<Integer> unrecorded = execution;
+            execution = () -> FlightRecording.record(recordingFile, err, unrecorded);
+        }
+
+        if (!printTimings && timingsJson == null) {
+            return execution.get();
+        }
+
+        Timings timings = Timings.start();
+        try (Timings.Span span = Timings.span(Timings.COMMAND)) {
+            return execution.get();
+        }
+        finally {
+            timings.stop();
+
+            if (printTimings) {
+                timings.print(err);
+            }
+            if (timingsJson != null) {
+                try {
+                    timings.writeJson(timingsJson);
+                }
+                catch (IOException e) {
+                    err.println("Couldn't write timings to " + timingsJson + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static int recordCommand(String commandName, Supplier<Integer> execution) {
+        FlightRecording.CommandEvent event = new FlightRecording.CommandEvent();
+        event.begin();
+        int exitCode = CommandLine.ExitCode.SOFTWARE;
+
+        try {
+            exitCode = execution.get();
+            return exitCode;
+        }
+        finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.command = commandName;
+                event.exitCode = exitCode;
+                event.commit();
+            }
+        }
     }
 }
 
@@ -0,0 +1,50 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.util.OptionalInt;
+
+import jakarta.inject.Inject;
+
+import org.kcctl.util.Daemon;
+
+import io.quarkus.runtime.Quarkus;
+import io.quarkus.runtime.QuarkusApplication;
+import io.quarkus.runtime.annotations.QuarkusMain;
+import picocli.CommandLine;
+
+/**
+ * Entry point of kcctl. If a {@link DaemonCommand daemon} is running, the command is forwarded to it before the
+ * application gets bootstrapped; otherwise, it is executed by this process.
+ */
+@QuarkusMain
+public class KcCtlMain implements QuarkusApplication {
+
+    @Inject
+    CommandLine commandLine;
+
+    public static void main(String... args) {
+        OptionalInt exitCode = Daemon.forward(args);
+        if (exitCode.isPresent()) {
+            System.exit(exitCode.getAsInt());
+        }
+
+        Quarkus.run(KcCtlMain.class, args);
+    }
+
+    @Override
+    public int run(String... args) {
+        try {
+            return commandLine.execute(args);
+        }
+        finally {
+            commandLine.getOut().flush();
+            commandLine.getErr().flush();
+        }
+    }
+}
@@ -11,8 +11,9 @@ import java.util.Set;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.util.CompletionCache;
 import org.kcctl.util.ConfigurationContext;
 
 import picocli.CommandLine.Command;
@@ -40,11 +41,9 @@ public class LoggerNamesCompletionCandidateCommand implements Runnable {
 
     @Override
     public void run() {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
         Set<String> loggers = kafkaConnectApi.getLoggers().keySet();
-        spec.commandLine().getOut().println(String.join(" ", loggers));
+        spec.commandLine().getOut().println(CompletionCache.put(context, CompletionCache.Kind.LOGGERS, loggers));
     }
 }
@@ -15,9 +15,9 @@ import java.util.concurrent.ExecutionException;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.completion.ConnectorNameCompletions;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
 import org.kcctl.util.ConfigurationContext;
 import org.kcctl.util.Connectors;
 
@@ -68,9 +68,7 @@ public class PatchConnectorCommand implements Callable<Integer> {
     @Override
     public Integer call() throws JsonProcessingException, InterruptedException, ExecutionException {
 
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
         Set<String> selectedConnector = Connectors.getSelectedConnectors(kafkaConnectApi, names, regexpMode);
         for (String connectorToPatch : selectedConnector) {
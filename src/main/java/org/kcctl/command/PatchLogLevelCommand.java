@@ -13,11 +13,13 @@ import java.util.concurrent.Callable;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.completion.LoggerNameCompletions;
+import org.kcctl.service.Capability;
+import org.kcctl.service.CapabilityRegistry;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.service.WorkerCapabilities;
 import org.kcctl.util.ConfigurationContext;
-import org.kcctl.util.Version;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -41,8 +43,6 @@ public class PatchLogLevelCommand implements Callable<Object> {
     @CommandLine.Mixin
     HelpMixin help;
 
-    private final Version requiredVersionForClusterScope = new Version(3, 7);
-
     @Inject
     ConfigurationContext context;
 
@@ -70,9 +70,7 @@ public class PatchLogLevelCommand implements Callable<Object> {
 
     @Override
     public Object call() throws Exception {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
         ObjectMapper mapper = new ObjectMapper();
         ObjectNode data = mapper.createObjectNode();
@@ -92,11 +90,11 @@ public class PatchLogLevelCommand implements Callable<Object> {
             }
         }
         else if ("cluster".equals(scope)) {
-            Version currentVersion = new Version(kafkaConnectApi.getWorkerInfo().version());
+            WorkerCapabilities capabilities = CapabilityRegistry.getCapabilities(context, kafkaConnectApi);
 
-            if (!currentVersion.greaterOrEquals(requiredVersionForClusterScope)) {
+            if (!capabilities.supports(Capability.CLUSTER_LOG_SCOPE)) {
                 spec.commandLine().getErr().printf("Cluster-wide logging adjustments requires at least Kafka Connect %s. Current version: %s",
-                        requiredVersionForClusterScope, currentVersion);
+                        Capability.CLUSTER_LOG_SCOPE.requiredVersion(), capabilities.version());
                 return 1;
             }
 
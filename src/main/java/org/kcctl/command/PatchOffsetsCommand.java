@@ -12,14 +12,16 @@ import java.util.Map;
 import java.util.concurrent.Callable;
 
 import jakarta.inject.Inject;
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.completion.ConnectorNameCompletions;
 import org.kcctl.service.AlterResetOffsetsResponse;
+import org.kcctl.service.Capability;
+import org.kcctl.service.CapabilityRegistry;
 import org.kcctl.service.ConnectorOffset;
 import org.kcctl.service.ConnectorOffsets;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.service.WorkerCapabilities;
 import org.kcctl.util.ConfigurationContext;
-import org.kcctl.util.Version;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -38,7 +40,6 @@ public class PatchOffsetsCommand implements Callable<Integer> {
     @CommandLine.Mixin
     HelpMixin help;
 
-    private final Version requiredVersionForPatchingOffsets = new Version(3, 6);
     private final ConfigurationContext context;
 
     @CommandLine.Spec
@@ -137,15 +138,13 @@ public class PatchOffsetsCommand implements Callable<Integer> {
 
     @Override
     public Integer call() throws JsonProcessingException {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
-        Version currentVersion = new Version(kafkaConnectApi.getWorkerInfo().version());
+        WorkerCapabilities capabilities = CapabilityRegistry.getCapabilities(context, kafkaConnectApi);
 
-        if (!currentVersion.greaterOrEquals(requiredVersionForPatchingOffsets)) {
+        if (!capabilities.supports(Capability.ALTER_OFFSETS)) {
             spec.commandLine().getErr().println(String.format("Patching connector offsets requires at least Kafka Connect %s. Current version: %s",
-                    requiredVersionForPatchingOffsets, currentVersion));
+                    Capability.ALTER_OFFSETS.requiredVersion(), capabilities.version()));
             return 1;
         }
 
@@ -7,13 +7,17 @@
  */
 package org.kcctl.command;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.completion.ConnectorNameCompletions;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectAsyncApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.util.BulkExecutor;
 import org.kcctl.util.ConfigurationContext;
 import org.kcctl.util.Connectors;
 
@@ -22,11 +26,17 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Parameters;
 
 @Command(name = "connector", aliases = "connectors", description = "Pauses the specified connector(s)")
-public class PauseConnectorCommand implements Runnable {
+public class PauseConnectorCommand implements Callable<Integer> {
 
     @CommandLine.Mixin
     HelpMixin help;
 
+    @CommandLine.Mixin
+    BulkMixin bulk;
+
+    @CommandLine.Mixin
+    WaitMixin waitMixin;
+
     @CommandLine.Option(names = { "-e", "--reg-exp" }, description = "use NAME(s) as regexp pattern(s) to use on all connectors")
     boolean regexpMode = false;
 
@@ -49,15 +59,15 @@ public class PauseConnectorCommand implements Runnable {
     }
 
     @Override
-    public void run() {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+    public Integer call() {
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
         Set<String> selectedConnectors = Connectors.getSelectedConnectors(kafkaConnectApi, names, regexpMode);
-        for (String connectorToPause : selectedConnectors) {
-            kafkaConnectApi.pauseConnector(connectorToPause);
-            spec.commandLine().getOut().println("Paused connector " + connectorToPause);
-        }
+
+        KafkaConnectAsyncApi asyncApi = KafkaConnectClientFactory.getAsyncClient(context.getCurrentContext());
+        List<BulkExecutor.Result> results = bulk.executor().execute("Paused", selectedConnectors,
+                connector -> asyncApi.pauseConnector(connector).thenApply(v -> "Paused connector " + connector));
+
+        return Math.max(BulkExecutor.exitCode(results), waitMixin.awaitState(context, results, "PAUSED"));
     }
 }
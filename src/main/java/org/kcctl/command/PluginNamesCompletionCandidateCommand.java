@@ -8,13 +8,13 @@
 package org.kcctl.command;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.service.ConnectorPlugin;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.util.CompletionCache;
 import org.kcctl.util.ConfigurationContext;
 
 import picocli.CommandLine.Command;
@@ -41,15 +41,13 @@ public class PluginNamesCompletionCandidateCommand implements Runnable {
 
     @Override
     public void run() {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
         List<ConnectorPlugin> plugins = kafkaConnectApi.getConnectorPlugins(false);
-        String classNames = plugins.stream()
+        List<String> classNames = plugins.stream()
                 .map(ConnectorPlugin::clazz)
-                .collect(Collectors.joining(" "));
+                .toList();
 
-        spec.commandLine().getOut().println(classNames);
+        spec.commandLine().getOut().println(CompletionCache.put(context, CompletionCache.Kind.PLUGINS, classNames));
     }
 }
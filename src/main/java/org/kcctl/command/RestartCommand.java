@@ -10,7 +10,8 @@ package org.kcctl.command;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 
-@Command(name = "restart", subcommands = { RestartConnectorCommand.class, RestartTaskCommand.class }, description = "Restarts some connectors or a task")
+@Command(name = "restart", subcommands = { RestartConnectorCommand.class, RestartTaskCommand.class,
+        RestartFailedCommand.class }, description = "Restarts some connectors or a task, or all failed connectors and tasks")
 public class RestartCommand {
 
     @CommandLine.Mixin
@@ -7,18 +7,32 @@
  */
 package org.kcctl.command;
 
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.completion.ConnectorNameCompletions;
+import org.kcctl.service.Capability;
+import org.kcctl.service.CapabilityRegistry;
 import org.kcctl.service.ConnectorStatusInfo;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectAsyncApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.service.TaskState;
+import org.kcctl.service.WorkerCapabilities;
+import org.kcctl.util.BulkExecutor;
 import org.kcctl.util.ConfigurationContext;
 import org.kcctl.util.Connectors;
-import org.kcctl.util.Version;
+import org.kcctl.util.RollingRestart;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -30,14 +44,27 @@ public class RestartConnectorCommand implements Callable<Integer> {
     @CommandLine.Mixin
     HelpMixin help;
 
-    private final Version requiredVersionForIncludingTasks = new Version(3, 0);
+    @CommandLine.Mixin
+    BulkMixin bulk;
+
+    @CommandLine.Mixin
+    WaitMixin waitMixin;
+
     @CommandLine.Option(names = { "-e", "--reg-exp" }, description = "use NAME(s) as regexp pattern(s) to use on all connectors")
     boolean regexpMode = false;
 
     @CommandLine.Option(names = { "-t", "--tasks" }, description = "also restart tasks for the connector(s); valid values: ${COMPLETION-CANDIDATES}")
     Tasks tasks = null;
 
-    @Parameters(paramLabel = "NAME", description = "Name of the connector (e.g. 'my-connector')", completionCandidates = ConnectorNameCompletions.class)
+    @CommandLine.Option(names = {
+            "--rolling" }, arity = "0..1", paramLabel = "WAVE", fallbackValue = RollingRestart.PER_WORKER, description = "Restart the connectors (and tasks) in waves, either one wave per worker ('worker', the default), or waves of the given percentage of all instances (e.g. '25%'), waiting for each wave to be RUNNING again")
+    String rolling = null;
+
+    @CommandLine.Option(names = {
+            "--max-failure-rate" }, defaultValue = "10", description = "Abort a rolling restart once more than the given percentage of the restarted instances failed to restart or didn't get RUNNING again (default: ${DEFAULT-VALUE})")
+    int maxFailureRate = 10;
+
+    @Parameters(paramLabel = "NAME", arity = "1..*", description = "Name(s) of the connector(s) (e.g. 'my-connector'); use --reg-exp '.*' for restarting all connectors", completionCandidates = ConnectorNameCompletions.class)
     Set<String> names = Set.of();
 
     @CommandLine.Spec
@@ -60,34 +87,137 @@ public class RestartConnectorCommand implements Callable<Integer> {
         boolean includeTasks = tasks != null;
         boolean onlyFailed = includeTasks && tasks == Tasks.FAILED;
 
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
-        Version currentVersion = new Version(kafkaConnectApi.getWorkerInfo().version());
+        if (rolling != null) {
+            if (maxFailureRate < 0 || maxFailureRate > 100) {
+                throw new CommandLine.ParameterException(spec.commandLine(), "--max-failure-rate must be between 0 and 100");
+            }
+            return rollingRestart(kafkaConnectApi);
+        }
 
-        if (includeTasks && !currentVersion.greaterOrEquals(requiredVersionForIncludingTasks)) {
-            spec.commandLine().getErr().println("Restarting tasks en masse requires at least Kafka Connect 3.0. Current version: " + currentVersion);
-            spec.commandLine().getErr().println("Individual tasks may be still be restarted using the 'restart task' command");
-            return CommandLine.ExitCode.SOFTWARE;
+        if (includeTasks) {
+            WorkerCapabilities capabilities = CapabilityRegistry.getCapabilities(context, kafkaConnectApi);
+
+            if (!capabilities.supports(Capability.RESTART_CONNECTOR_AND_TASKS)) {
+                spec.commandLine().getErr().println("Restarting tasks en masse requires at least Kafka Connect 3.0. Current version: " + capabilities.version());
+                spec.commandLine().getErr().println("Individual tasks may be still be restarted using the 'restart task' command");
+                return CommandLine.ExitCode.SOFTWARE;
+            }
         }
 
         Set<String> selectedConnectors = Connectors.getSelectedConnectors(kafkaConnectApi, names, regexpMode);
-        for (String connectorToRestart : selectedConnectors) {
+        KafkaConnectAsyncApi asyncApi = KafkaConnectClientFactory.getAsyncClient(context.getCurrentContext());
+        List<BulkExecutor.Result> results = bulk.executor().execute("Restarted", selectedConnectors, connector -> {
             if (includeTasks) {
-                ConnectorStatusInfo statusInfo = kafkaConnectApi.restartConnectorAndTasks(connectorToRestart, true, onlyFailed);
-                long numRestartedTasks = statusInfo.tasks().stream()
-                        .filter(t -> "RESTARTING".equals(t.state()))
-                        .count();
-                spec.commandLine().getOut().println("Restarted connector " + connectorToRestart + " and " + numRestartedTasks + " task(s)");
+                return asyncApi.restartConnectorAndTasks(connector, true, onlyFailed).thenApply(statusInfo -> {
+                    long numRestartedTasks = statusInfo.tasks().stream()
+                            .filter(t -> "RESTARTING".equals(t.state()))
+                            .count();
+                    return "Restarted connector " + connector + " and " + numRestartedTasks + " task(s)";
+                });
             }
             else {
-                kafkaConnectApi.restartConnector(connectorToRestart);
-                spec.commandLine().getOut().println("Restarted connector " + connectorToRestart);
+                return asyncApi.restartConnector(connector).thenApply(v -> "Restarted connector " + connector);
             }
+        });
+
+        return Math.max(BulkExecutor.exitCode(results), waitMixin.awaitState(context, results, "RUNNING"));
+    }
+
+    /**
+     * Restarts the connector and task instances wave by wave, restarting each task individually, so that only the
+     * instances of a wave get restarted.
+     */
+    private int rollingRestart(KafkaConnectApi kafkaConnectApi) {
+        boolean expandApi = CapabilityRegistry.getCapabilities(context, kafkaConnectApi).supports(Capability.EXPAND_API);
+        List<ConnectorStatusInfo> statuses = Connectors.getSelectedStatuses(kafkaConnectApi, expandApi, bulk.parallelism, names, regexpMode);
+        List<String> skipped = statuses.stream()
+                .filter(status -> !RollingRestart.isRestartable(status))
+                .map(ConnectorStatusInfo::name)
+                .sorted()
+                .toList();
+        Predicate<TaskState> taskFilter = tasks == null ? null : task -> tasks == Tasks.ALL || "FAILED".equals(task.state());
+
+        List<RollingRestart.Wave> waves;
+        try {
+            waves = RollingRestart.plan(statuses, taskFilter, rolling);
+        }
+        catch (IllegalArgumentException e) {
+            throw new CommandLine.ParameterException(spec.commandLine(), e.getMessage());
         }
 
-        return CommandLine.ExitCode.OK;
+        PrintWriter out = spec.commandLine().getOut();
+        if (!skipped.isEmpty()) {
+            out.println("Skipping %d paused or stopped connector(s): %s".formatted(skipped.size(), String.join(", ", skipped)));
+        }
+
+        KafkaConnectAsyncApi asyncApi = KafkaConnectClientFactory.getAsyncClient(context.getCurrentContext());
+        BulkExecutor executor = bulk.executor();
+        Duration waveTimeout = waitMixin.getTimeout(WaitMixin.DEFAULT_TIMEOUT);
+        Function<Set<String>, Map<String, ConnectorStatusInfo>> statusPoller = WaitMixin.statusPoller(context);
+        long start = System.nanoTime();
+        int restarted = 0;
+        int failed = 0;
+
+        for (int i = 0; i < waves.size(); i++) {
+            RollingRestart.Wave wave = waves.get(i);
+            Map<String, RollingRestart.Unit> units = new LinkedHashMap<>();
+            wave.units().forEach(unit -> units.put(unit.name(), unit));
+
+            out.println();
+            out.println("Wave %d/%d: %s".formatted(i + 1, waves.size(), wave.description()));
+            out.flush();
+
+            List<BulkExecutor.Result> results = executor.execute("Restarted", units.keySet(), name -> restart(asyncApi, units.get(name)), false);
+
+            List<RollingRestart.Unit> succeeded = results.stream()
+                    .filter(result -> result.outcome() == BulkExecutor.Outcome.SUCCEEDED)
+                    .map(result -> units.get(result.connector()))
+                    .toList();
+            Set<RollingRestart.Unit> running = awaitRunning(statusPoller, succeeded, waveTimeout);
+
+            for (BulkExecutor.Result result : results) {
+                if (result.outcome() == BulkExecutor.Outcome.SKIPPED) {
+                    continue;
+                }
+                restarted++;
+                if (result.outcome() == BulkExecutor.Outcome.FAILED || !running.contains(units.get(result.connector()))) {
+                    failed++;
+                }
+            }
+
+            if (failed * 100 > maxFailureRate * restarted || results.stream().anyMatch(r -> r.outcome() == BulkExecutor.Outcome.SKIPPED)) {
+                spec.commandLine().getErr().println("Aborting rolling restart after wave %d/%d: %d of %d restarted instance(s) failed".formatted(
+                        i + 1, waves.size(), failed, restarted));
+                return 1;
+            }
+        }
+
+        out.println();
+        out.println("Restarted %d instance(s) in %d wave(s) in %.2f s, %d failed".formatted(restarted, waves.size(),
+                (System.nanoTime() - start) / 1_000_000_000.0, failed));
+
+        return failed > 0 ? 1 : 0;
+    }
+
+    private Set<RollingRestart.Unit> awaitRunning(Function<Set<String>, Map<String, ConnectorStatusInfo>> statusPoller, List<RollingRestart.Unit> units,
+                                                  Duration timeout) {
+        try {
+            return RollingRestart.awaitRunning(units, statusPoller, RollingRestart.SETTLE_PERIOD, timeout, spec.commandLine().getOut(),
+                    spec.commandLine().getErr());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Set.of();
+        }
+    }
+
+    private static CompletionStage<String> restart(KafkaConnectAsyncApi asyncApi, RollingRestart.Unit unit) {
+        if (unit.task() == null) {
+            return asyncApi.restartConnector(unit.connector()).thenApply(v -> "Restarted connector " + unit.connector());
+        }
+        return asyncApi.restartTask(unit.connector(), String.valueOf(unit.task())).thenApply(v -> "Restarted task " + unit.name());
     }
 
     public enum Tasks {
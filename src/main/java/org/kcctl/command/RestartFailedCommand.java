@@ -0,0 +1,213 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+import jakarta.inject.Inject;
+
+import org.kcctl.completion.ConnectorNameCompletions;
+import org.kcctl.service.Capability;
+import org.kcctl.service.CapabilityRegistry;
+import org.kcctl.service.ConnectorStatusInfo;
+import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectAsyncApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.service.TaskState;
+import org.kcctl.service.WorkerCapabilities;
+import org.kcctl.util.BulkExecutor;
+import org.kcctl.util.ConfigurationContext;
+import org.kcctl.util.Connectors;
+import org.kcctl.util.TableRenderer;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Parameters;
+
+@Command(name = "failed", description = "Restarts the failed connectors and tasks, leaving all the others untouched")
+public class RestartFailedCommand implements Callable<Integer> {
+
+    private static final String FAILED = "FAILED";
+
+    @CommandLine.Mixin
+    HelpMixin help;
+
+    @CommandLine.Mixin
+    BulkMixin bulk;
+
+    @CommandLine.Mixin
+    WaitMixin waitMixin;
+
+    @CommandLine.Option(names = { "-e", "--reg-exp" }, description = "use NAME(s) as regexp pattern(s) to use on all connectors")
+    boolean regexpMode = false;
+
+    @CommandLine.Option(names = { "--dry-run" }, description = "Only list the failed connectors and tasks, without restarting them")
+    boolean dryRun = false;
+
+    @Parameters(paramLabel = "NAME", description = "Name(s) of the connector(s) to consider; all connectors if none are given", completionCandidates = ConnectorNameCompletions.class)
+    Set<String> names = Set.of();
+
+    @CommandLine.Spec
+    CommandLine.Model.CommandSpec spec;
+
+    private final ConfigurationContext context;
+
+    /**
+     * The failed parts of a connector and how they get restarted.
+     */
+    record Restart(String connector, String connectorState, List<Integer> failedTasks, Action action) {
+    }
+
+    enum Action {
+        /**
+         * Restarts the connector and its failed tasks with one request; requires Kafka Connect 3.0
+         */
+        CONNECTOR_AND_FAILED_TASKS("failed connector/tasks, with one request"),
+        /**
+         * Restarts the connector and then each failed task
+         */
+        CONNECTOR_AND_EACH_FAILED_TASK("connector, then each failed task"),
+        /**
+         * Restarts each failed task
+         */
+        EACH_FAILED_TASK("each failed task");
+
+        private final String description;
+
+        Action(String description) {
+            this.description = description;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    @Inject
+    public RestartFailedCommand(ConfigurationContext context) {
+        this.context = context;
+    }
+
+    // Hack : Picocli currently require an empty constructor to generate the completion file
+    public RestartFailedCommand() {
+        context = new ConfigurationContext();
+    }
+
+    @Override
+    public Integer call() {
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
+        WorkerCapabilities capabilities = CapabilityRegistry.getCapabilities(context, kafkaConnectApi);
+
+        Map<String, Restart> restarts = new LinkedHashMap<>();
+        for (ConnectorStatusInfo status : Connectors.getSelectedStatuses(kafkaConnectApi,
+                capabilities.supports(Capability.EXPAND_API), bulk.parallelism, names, regexpMode)) {
+            Restart restart = plan(status, capabilities.supports(Capability.RESTART_CONNECTOR_AND_TASKS));
+            if (restart != null) {
+                restarts.put(restart.connector(), restart);
+            }
+        }
+
+        if (restarts.isEmpty()) {
+            spec.commandLine().getOut().println("No failed connectors or tasks found");
+            return CommandLine.ExitCode.OK;
+        }
+
+        if (dryRun) {
+            printPlan(restarts.values());
+            return CommandLine.ExitCode.OK;
+        }
+
+        KafkaConnectAsyncApi asyncApi = KafkaConnectClientFactory.getAsyncClient(context.getCurrentContext());
+        List<BulkExecutor.Result> results = bulk.executor().execute("Restarted", restarts.keySet(),
+                connector -> restart(asyncApi, restarts.get(connector)));
+
+        return Math.max(BulkExecutor.exitCode(results), waitMixin.awaitState(context, results, "RUNNING"));
+    }
+
+    /**
+     * Determines how the failed parts of the given connector are restarted with as few requests as possible, or
+     * returns {@code null} if nothing has failed.
+     */
+    static Restart plan(ConnectorStatusInfo status, boolean restartConnectorAndTasksSupported) {
+        boolean connectorFailed = status.connector() != null && FAILED.equals(status.connector().state());
+        List<Integer> failedTasks = status.tasks() == null ? List.of()
+                : status.tasks().stream()
+                        .filter(task -> FAILED.equals(task.state()))
+                        .map(TaskState::id)
+                        .sorted()
+                        .toList();
+
+        if (!connectorFailed && failedTasks.isEmpty()) {
+            return null;
+        }
+
+        Action action;
+        if (connectorFailed || failedTasks.size() > 1) {
+            // Only restarts the failed instances, i.e. also not the connector itself if it is running
+            action = restartConnectorAndTasksSupported ? Action.CONNECTOR_AND_FAILED_TASKS
+                    : connectorFailed ? Action.CONNECTOR_AND_EACH_FAILED_TASK : Action.EACH_FAILED_TASK;
+        }
+        else {
+            action = Action.EACH_FAILED_TASK;
+        }
+
+        return new Restart(status.name(), status.connector() == null ? "UNKNOWN" : status.connector().state(), failedTasks, action);
+    }
+
+    private static CompletionStage<String> restart(KafkaConnectAsyncApi asyncApi, Restart restart) {
+        String tasks = tasksToString(restart.failedTasks());
+        String message = restart.connectorState().equals(FAILED)
+                ? "Restarted connector " + restart.connector() + (tasks.isEmpty() ? "" : " and task(s) " + tasks)
+                : "Restarted task(s) " + tasks + " of connector " + restart.connector();
+
+        CompletionStage<?> request = switch (restart.action()) {
+            case CONNECTOR_AND_FAILED_TASKS -> asyncApi.restartConnectorAndTasks(restart.connector(), true, true);
+            case CONNECTOR_AND_EACH_FAILED_TASK -> asyncApi.restartConnector(restart.connector())
+                    .thenCompose(v -> restartTasks(asyncApi, restart));
+            case EACH_FAILED_TASK -> restartTasks(asyncApi, restart);
+        };
+
+        return request.thenApply(r -> message);
+    }
+
+    private static CompletableFuture<Void> restartTasks(KafkaConnectAsyncApi asyncApi, Restart restart) {
+        return CompletableFuture.allOf(restart.failedTasks().stream()
+                .map(task -> asyncApi.restartTask(restart.connector(), String.valueOf(task)).toCompletableFuture())
+                .toArray(CompletableFuture[]::new));
+    }
+
+    private void printPlan(Iterable<Restart> restarts) {
+        List<Restart> sorted = new ArrayList<>();
+        restarts.forEach(sorted::add);
+        sorted.sort(Comparator.comparing(Restart::connector));
+
+        spec.commandLine().getOut().println();
+        new TableRenderer<Restart>()
+                .column("NAME", Restart::connector)
+                .column(" STATE", restart -> " " + restart.connectorState())
+                .column(" FAILED TASKS", restart -> " " + (restart.failedTasks().isEmpty() ? "-" : tasksToString(restart.failedTasks())))
+                .column(" RESTARTS", restart -> " " + restart.action())
+                .render(sorted, spec.commandLine().getOut());
+        spec.commandLine().getOut().println();
+        spec.commandLine().getOut().println();
+    }
+
+    private static String tasksToString(List<Integer> tasks) {
+        return tasks.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.kcctl.completion.ShellCompleter;
+import org.kcctl.util.CompletionCache;
+import org.kcctl.util.ConfigurationContext;
+import org.kcctl.util.Strings;
+import org.kcctl.util.Timings;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+
+@Command(name = "shell", description = "Starts an interactive shell for running kcctl commands within a single process, with completion of connector names etc.")
+public class ShellCommand implements Callable<Integer> {
+
+    @CommandLine.Mixin
+    HelpMixin help;
+
+    @CommandLine.Spec
+    CommandLine.Model.CommandSpec spec;
+
+    @Inject
+    ConfigurationContext context;
+
+    @Inject
+    Instance<CommandLine> commandLines;
+
+    /**
+     * Completion candidates by context and kind. Discarded when the cached candidates are invalidated (e.g. after a
+     * connector got created) or have expired.
+     */
+    private final Map<String, Candidates> candidates = new ConcurrentHashMap<>();
+
+    private record Candidates(List<String> values, long generation, Instant loadedAt) {
+    }
+
+    @Override
+    public Integer call() throws IOException {
+        Timings.hostingCommands();
+
+        // Lines are read as-is when piping commands into the shell
+        if (System.console() == null) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+            while (true) {
+                String line = in.readLine();
+                if (line == null || !execute(line, args -> HostedCommands.execute(commandLines, spec, args))) {
+                    return CommandLine.ExitCode.OK;
+                }
+            }
+        }
+
+        ShellCompleter completer = new ShellCompleter(commandLines.get().getCommandSpec(), this::getCandidates);
+        try (ShellConsole console = new ShellConsole(completer)) {
+            spec.commandLine().getOut().println("Type 'help' for the available commands, TAB for completion, 'exit' or Ctrl+D for leaving the shell");
+
+            while (true) {
+                spec.commandLine().getOut().flush();
+                String line = console.readLine(prompt());
+                if (line == null || !execute(line, args -> console.execute(() -> HostedCommands.execute(commandLines, spec, args)))) {
+                    return CommandLine.ExitCode.OK;
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes the command of the given line, if any; returns {@code false} if the shell should be left.
+     */
+    private boolean execute(String line, Consumer<List<String>> executor) {
+        List<String> args;
+        try {
+            args = HostedCommands.parse(line);
+        }
+        catch (IllegalArgumentException e) {
+            spec.commandLine().getErr().println(e.getMessage());
+            return true;
+        }
+
+        if (args.isEmpty()) {
+            return true;
+        }
+        if (args.get(0).equals("exit") || args.get(0).equals("quit")) {
+            return false;
+        }
+        if (!HostedCommands.isSupported(args.get(0))) {
+            spec.commandLine().getErr().println("'" + args.get(0) + "' can't be used within the shell");
+            return true;
+        }
+
+        executor.accept(args);
+        return true;
+    }
+
+    private String prompt() {
+        String contextName = context.getCurrentContextName();
+        return "kcctl" + (Strings.isBlank(contextName) ? "" : ":" + contextName) + "> ";
+    }
+
+    /**
+     * Returns the candidates of the given kind (e.g. the connector names), running the completion command producing
+     * them only if they aren't held in memory yet.
+     */
+    private List<String> getCandidates(CompletionCache.Kind kind) {
+        String key = context.getCurrentContextName() + "/" + kind;
+        Candidates cached = candidates.get(key);
+
+        if (cached != null && cached.generation() == CompletionCache.getGeneration()
+                && cached.loadedAt().plus(CompletionCache.getTtl()).isAfter(Instant.now())) {
+            return cached.values();
+        }
+
+        long generation = CompletionCache.getGeneration();
+        StringWriter output = new StringWriter();
+        CommandLine commandLine = commandLines.get()
+                .setOut(new PrintWriter(output))
+                .setErr(new PrintWriter(new StringWriter()));
+        try {
+            if (commandLine.execute(kind.command) != CommandLine.ExitCode.OK) {
+                return List.of();
+            }
+        }
+        finally {
+            commandLine.getOut().flush();
+            commandLines.destroy(commandLine);
+        }
+
+        String joined = output.toString().trim();
+        List<String> values = joined.isEmpty() ? List.of() : List.of(joined.split("\\s+"));
+        candidates.put(key, new Candidates(values, generation, Instant.now()));
+        return values;
+    }
+}
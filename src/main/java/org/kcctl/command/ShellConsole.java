@@ -0,0 +1,96 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.aesh.readline.Readline;
+import org.aesh.readline.ReadlineBuilder;
+import org.aesh.readline.completion.CompleteOperation;
+import org.aesh.readline.completion.Completion;
+import org.aesh.readline.tty.terminal.TerminalConnection;
+import org.aesh.terminal.tty.Signal;
+import org.kcctl.completion.ShellCompleter;
+
+/**
+ * The terminal of the interactive shell: reads lines with TAB completion and history, and runs each command such
+ * that Ctrl+C stops that command rather than the shell. The terminal is only switched to raw mode while a line is
+ * read.
+ */
+final class ShellConsole implements AutoCloseable {
+
+    private final TerminalConnection connection;
+    private final Readline readline;
+    private final List<Completion> completions;
+
+    ShellConsole(ShellCompleter completer) throws IOException {
+        connection = new TerminalConnection();
+        readline = ReadlineBuilder.builder().enableHistory(true).build();
+        completions = List.of(new Completion<CompleteOperation>() {
+            @Override
+            public void complete(CompleteOperation operation) {
+                String line = operation.getBuffer().substring(0, operation.getCursor());
+                operation.addCompletionCandidates(completer.complete(line));
+                operation.setOffset(ShellCompleter.wordStart(line));
+            }
+        });
+
+        // Reads from the terminal in a separate thread, passing input and signals to the current handlers
+        connection.openNonBlocking();
+    }
+
+    /**
+     * Returns the next line entered by the user, or {@code null} upon Ctrl+D.
+     */
+    String readLine(String prompt) {
+        CompletableFuture<String> line = new CompletableFuture<>();
+        connection.setCloseHandler(closed -> line.complete(null));
+        readline.readline(connection, prompt, line::complete, completions);
+        return line.join();
+    }
+
+    /**
+     * Runs the given command in a separate thread, which gets interrupted upon Ctrl+C (e.g. for ending a watch).
+     */
+    void execute(Runnable command) {
+        Thread worker = Thread.ofVirtual().name("kcctl-shell-command").unstarted(command);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        connection.setSignalHandler(signal -> {
+            if (signal == Signal.INT) {
+                interrupted.set(true);
+                worker.interrupt();
+            }
+        });
+
+        try {
+            worker.start();
+            worker.join();
+
+            // The prompt should start on a new line after the echoed ^C
+            if (interrupted.get()) {
+                connection.write(System.lineSeparator());
+            }
+        }
+        catch (InterruptedException e) {
+            worker.interrupt();
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            connection.setSignalHandler(null);
+        }
+    }
+
+    @Override
+    public void close() {
+        connection.setCloseHandler(null);
+        connection.close();
+    }
+}
@@ -7,17 +7,22 @@
  */
 package org.kcctl.command;
 
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.kcctl.completion.ConnectorNameCompletions;
+import org.kcctl.service.Capability;
+import org.kcctl.service.CapabilityRegistry;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectAsyncApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.service.WorkerCapabilities;
+import org.kcctl.util.BulkExecutor;
 import org.kcctl.util.ConfigurationContext;
 import org.kcctl.util.Connectors;
-import org.kcctl.util.Version;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -29,7 +34,11 @@ public class StopConnectorCommand implements Callable<Integer> {
     @CommandLine.Mixin
     HelpMixin help;
 
-    private final Version requiredVersionForStoppingConnectors = new Version(3, 5);
+    @CommandLine.Mixin
+    BulkMixin bulk;
+
+    @CommandLine.Mixin
+    WaitMixin waitMixin;
 
     @CommandLine.Option(names = { "-e", "--reg-exp" }, description = "use NAME(s) as regexp pattern(s) to use on all connectors")
     boolean regexpMode = false;
@@ -54,24 +63,21 @@ public class StopConnectorCommand implements Callable<Integer> {
 
     @Override
     public Integer call() {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
-        Version currentVersion = new Version(kafkaConnectApi.getWorkerInfo().version());
+        WorkerCapabilities capabilities = CapabilityRegistry.getCapabilities(context, kafkaConnectApi);
 
-        if (!currentVersion.greaterOrEquals(requiredVersionForStoppingConnectors)) {
-            spec.commandLine().getErr().println("Stopping connectors requires at least Kafka Connect 3.5. Current version: " + currentVersion);
+        if (!capabilities.supports(Capability.STOP_CONNECTOR)) {
+            spec.commandLine().getErr().println("Stopping connectors requires at least Kafka Connect 3.5. Current version: " + capabilities.version());
             return 1;
         }
 
         Set<String> selectedConnectors = Connectors.getSelectedConnectors(kafkaConnectApi, names, regexpMode);
 
-        for (String connectorToStop : selectedConnectors) {
-            kafkaConnectApi.stopConnector(connectorToStop);
-            spec.commandLine().getOut().println("Stopped connector " + connectorToStop);
-        }
+        KafkaConnectAsyncApi asyncApi = KafkaConnectClientFactory.getAsyncClient(context.getCurrentContext());
+        List<BulkExecutor.Result> results = bulk.executor().execute("Stopped", selectedConnectors,
+                connector -> asyncApi.stopConnector(connector).thenApply(v -> "Stopped connector " + connector));
 
-        return 0;
+        return Math.max(BulkExecutor.exitCode(results), waitMixin.awaitState(context, results, "STOPPED"));
     }
 }
@@ -7,41 +7,75 @@
  */
 package org.kcctl.command;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.kcctl.service.Capability;
+import org.kcctl.service.CapabilityRegistry;
 import org.kcctl.service.ConnectorStatusInfo;
+import org.kcctl.service.ConnectorStatusReader;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.service.KafkaConnectNotFoundException;
 import org.kcctl.service.TaskState;
+import org.kcctl.util.CompletionCache;
 import org.kcctl.util.ConfigurationContext;
+import org.kcctl.util.FanOut;
 
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Spec;
 
 @Command(name = "task-name-completions", hidden = true)
 public class TaskNamesCompletionCandidateCommand implements Runnable {
 
+    private static final int PARALLELISM = 8;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
     @Inject
     ConfigurationContext context;
 
+    @Spec
+    CommandSpec spec;
+
     @Override
     public void run() {
-        KafkaConnectApi kafkaConnectApi = RestClientBuilder.newBuilder()
-                .baseUri(context.getCurrentContext().getCluster())
-                .build(KafkaConnectApi.class);
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
 
-        List<String> connectors = kafkaConnectApi.getConnectors();
-        List<String> completions = new ArrayList<>();
+        Stream<ConnectorStatusInfo> statuses;
+        if (CapabilityRegistry.getCapabilities(context, kafkaConnectApi).supports(Capability.EXPAND_API)) {
+            statuses = ConnectorStatusReader.stream(kafkaConnectApi);
+        }
+        else {
+            statuses = FanOut.map(kafkaConnectApi.getConnectors(), PARALLELISM, REQUEST_TIMEOUT, connector -> getConnectorStatus(kafkaConnectApi, connector))
+                    .stream()
+                    .filter(Objects::nonNull);
+        }
 
-        for (String connector : connectors) {
-            ConnectorStatusInfo status = kafkaConnectApi.getConnectorStatus(connector);
-            for (TaskState task : status.tasks()) {
-                completions.add(connector + "/" + task.id());
-            }
+        List<String> completions = new ArrayList<>();
+        try (statuses) {
+            statuses.forEach(status -> {
+                for (TaskState task : status.tasks()) {
+                    completions.add(status.name() + "/" + task.id());
+                }
+            });
         }
 
-        System.out.println(String.join(" ", completions));
+        spec.commandLine().getOut().println(CompletionCache.put(context, CompletionCache.Kind.TASKS, completions));
+    }
+
+    private ConnectorStatusInfo getConnectorStatus(KafkaConnectApi kafkaConnectApi, String connector) {
+        try {
+            return kafkaConnectApi.getConnectorStatus(connector);
+        }
+        catch (KafkaConnectNotFoundException e) {
+            // The connector has been deleted after the list of connectors had been retrieved
+            return null;
+        }
     }
 }
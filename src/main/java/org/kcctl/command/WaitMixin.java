@@ -0,0 +1,165 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.kcctl.service.Capability;
+import org.kcctl.service.CapabilityRegistry;
+import org.kcctl.service.ConnectorStatusInfo;
+import org.kcctl.service.ConnectorStatusReader;
+import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectAsyncApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.service.KafkaConnectNotFoundException;
+import org.kcctl.service.RequestCache;
+import org.kcctl.util.BulkExecutor;
+import org.kcctl.util.ConfigurationContext;
+import org.kcctl.util.ConnectorStateWaiter;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+
+/**
+ * Option of the lifecycle commands for waiting until the connectors have reached their target state.
+ */
+public class WaitMixin {
+
+    static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(300);
+
+    @CommandLine.Spec(CommandLine.Spec.Target.MIXEE)
+    CommandSpec spec;
+
+    @CommandLine.Option(names = {
+            "--wait" }, arity = "0..1", paramLabel = "TIMEOUT", fallbackValue = "300", description = "Wait until the connector(s) and their tasks have reached the target state, at most for the given number of seconds, e.g. --wait=60 (default: 300)")
+    Long timeout = null;
+
+    /**
+     * Waits for the connectors successfully processed by the bulk executor to reach the given state, if waiting has
+     * been requested.
+     *
+     * @return 0 if all connectors reached the state or waiting hasn't been requested, 1 otherwise
+     */
+    public int awaitState(ConfigurationContext context, List<BulkExecutor.Result> results, String state) {
+        if (timeout == null) {
+            return 0;
+        }
+
+        List<String> connectors = results.stream()
+                .filter(r -> r.outcome() == BulkExecutor.Outcome.SUCCEEDED)
+                .map(BulkExecutor.Result::connector)
+                .toList();
+
+        List<ConnectorStateWaiter.Convergence> converged = awaitState(context, connectors, state, getTimeout(DEFAULT_TIMEOUT));
+        return converged.size() == connectors.size() ? 0 : 1;
+    }
+
+    /**
+     * Returns the requested timeout, or the given default if waiting hasn't been requested.
+     */
+    public Duration getTimeout(Duration defaultTimeout) {
+        return timeout == null ? defaultTimeout : Duration.ofSeconds(Math.max(timeout, 0));
+    }
+
+    /**
+     * Waits for the given connectors to reach the given state, regardless of whether waiting has been requested.
+     *
+     * @return the connectors which reached the state; none of the remaining ones if interrupted
+     */
+    public List<ConnectorStateWaiter.Convergence> awaitState(ConfigurationContext context, Collection<String> connectors, String state, Duration timeout) {
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
+        ConnectorStateWaiter waiter = new ConnectorStateWaiter(statusPoller(context), connector -> getConfiguredTasks(kafkaConnectApi, connector),
+                spec.commandLine().getOut(), spec.commandLine().getErr());
+
+        try {
+            return waiter.await(connectors, state, timeout);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        }
+    }
+
+    /**
+     * Returns a function retrieving the current status of the given connectors, missing the ones which don't exist
+     * (any longer); each invocation observes the current status, bypassing the request cache.
+     */
+    static Function<Set<String>, Map<String, ConnectorStatusInfo>> statusPoller(ConfigurationContext context) {
+        KafkaConnectApi kafkaConnectApi = KafkaConnectClientFactory.getClient(context.getCurrentContext());
+        boolean expandApi = CapabilityRegistry.getCapabilities(context, kafkaConnectApi).supports(Capability.EXPAND_API);
+        KafkaConnectAsyncApi asyncApi = KafkaConnectClientFactory.getAsyncClient(context.getCurrentContext());
+
+        return connectors -> {
+            RequestCache.clear();
+            return expandApi ? getStatuses(kafkaConnectApi, connectors) : getStatuses(asyncApi, connectors);
+        };
+    }
+
+    /**
+     * Returns the number of tasks configured for the given connector; -1 if it doesn't exist (any longer).
+     */
+    private static int getConfiguredTasks(KafkaConnectApi kafkaConnectApi, String connector) {
+        try {
+            return kafkaConnectApi.getConnectorTasks(connector).size();
+        }
+        catch (KafkaConnectNotFoundException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Retrieves the status of all connectors with one request.
+     */
+    private static Map<String, ConnectorStatusInfo> getStatuses(KafkaConnectApi kafkaConnectApi, Set<String> connectors) {
+        Map<String, ConnectorStatusInfo> statuses = new HashMap<>();
+
+        try (Stream<ConnectorStatusInfo> all = ConnectorStatusReader.stream(kafkaConnectApi)) {
+            all.filter(status -> connectors.contains(status.name()))
+                    .forEach(status -> statuses.put(status.name(), status));
+        }
+
+        return statuses;
+    }
+
+    /**
+     * Retrieves the status of the given connectors with one concurrent request per connector.
+     */
+    private static Map<String, ConnectorStatusInfo> getStatuses(KafkaConnectAsyncApi asyncApi, Set<String> connectors) {
+        Map<String, CompletableFuture<ConnectorStatusInfo>> requests = new HashMap<>();
+        for (String connector : connectors) {
+            requests.put(connector, asyncApi.getConnectorStatus(connector).toCompletableFuture()
+                    // e.g. a connector deleted in the meantime; it is reported as not having reached the state
+                    .exceptionally(e -> {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof KafkaConnectNotFoundException) {
+                            return null;
+                        }
+                        throw e instanceof CompletionException completionException ? completionException : new CompletionException(e);
+                    }));
+        }
+
+        Map<String, ConnectorStatusInfo> statuses = new HashMap<>();
+        requests.forEach((connector, request) -> {
+            ConnectorStatusInfo status = request.join();
+            if (status != null) {
+                statuses.put(connector, status);
+            }
+        });
+
+        return statuses;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.completion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.kcctl.util.CompletionCache;
+import org.kcctl.util.Strings;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Model.OptionSpec;
+import picocli.CommandLine.Model.PositionalParamSpec;
+
+/**
+ * Determines the completion candidates for the last word of a command line entered in the shell, based on the
+ * picocli model of the commands.
+ * <p>
+ * The candidates of parameters referring to one of the completion commands (see e.g.
+ * {@link ConnectorNameCompletions}) are obtained from the given function, which is passed the kind of candidates;
+ * all other candidates are taken from the model as-is.
+ */
+public class ShellCompleter {
+
+    private final CommandSpec root;
+    private final Function<CompletionCache.Kind, List<String>> dynamicCandidates;
+
+    public ShellCompleter(CommandSpec root, Function<CompletionCache.Kind, List<String>> dynamicCandidates) {
+        this.root = root;
+        this.dynamicCandidates = dynamicCandidates;
+    }
+
+    /**
+     * Returns the candidates for the last word of the given line which start with what has been entered of that
+     * word so far.
+     */
+    public List<String> complete(String line) {
+        List<String> words;
+        try {
+            words = Strings.splitArguments(line);
+        }
+        catch (IllegalArgumentException e) {
+            // Within a quoted value
+            return List.of();
+        }
+
+        boolean newWord = line.isEmpty() || Character.isWhitespace(line.charAt(line.length() - 1));
+        List<String> completed = newWord || words.isEmpty() ? words : words.subList(0, words.size() - 1);
+        String current = newWord || words.isEmpty() ? "" : words.get(words.size() - 1);
+
+        return candidates(completed, current).stream()
+                .filter(candidate -> candidate.startsWith(current))
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Returns the position within the given line at which the word to be completed starts.
+     */
+    public static int wordStart(String line) {
+        int start = line.length();
+        while (start > 0 && !Character.isWhitespace(line.charAt(start - 1))) {
+            start--;
+        }
+        return start;
+    }
+
+    private List<String> candidates(List<String> completed, String current) {
+        if (!completed.isEmpty() && completed.get(0).equals("kcctl")) {
+            completed = completed.subList(1, completed.size());
+        }
+
+        CommandSpec spec = root;
+        OptionSpec pendingOption = null;
+
+        for (String word : completed) {
+            if (pendingOption != null) {
+                pendingOption = null;
+            }
+            else if (spec.subcommands().containsKey(word)) {
+                spec = spec.subcommands().get(word).getCommandSpec();
+            }
+            else if (word.startsWith("-") && !word.contains("=")) {
+                OptionSpec option = spec.findOption(word);
+                if (option != null && option.arity().min() > 0) {
+                    pendingOption = option;
+                }
+            }
+        }
+
+        if (pendingOption != null) {
+            return candidates(pendingOption.completionCandidates());
+        }
+
+        List<String> result = new ArrayList<>();
+        if (current.startsWith("-")) {
+            for (OptionSpec option : spec.options()) {
+                if (!option.hidden()) {
+                    result.addAll(List.of(option.names()));
+                }
+            }
+            return result;
+        }
+
+        for (Map.Entry<String, CommandLine> subcommand : spec.subcommands().entrySet()) {
+            if (!subcommand.getValue().getCommandSpec().usageMessage().hidden()) {
+                result.add(subcommand.getKey());
+            }
+        }
+        for (PositionalParamSpec parameter : spec.positionalParameters()) {
+            if (!parameter.hidden()) {
+                result.addAll(candidates(parameter.completionCandidates()));
+            }
+        }
+
+        return result;
+    }
+
+    private List<String> candidates(Iterable<String> completionCandidates) {
+        if (completionCandidates == null) {
+            return List.of();
+        }
+
+        List<String> candidates = new ArrayList<>();
+        completionCandidates.forEach(candidates::add);
+
+        // E.g. "kcctl connector-name-completions", invoked by the completion script
+        if (candidates.size() == 2 && candidates.get(0).equals("kcctl")) {
+            Optional<CompletionCache.Kind> kind = CompletionCache.Kind.forCommand(candidates.get(1));
+            if (kind.isPresent()) {
+                return dynamicCandidates.apply(kind.get());
+            }
+        }
+
+        return candidates;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import org.kcctl.util.Version;
+
+/**
+ * Features of the Kafka Connect REST API which are only available as of a given Kafka version.
+ */
+public enum Capability {
+
+    /**
+     * {@code GET /connectors?expand=status&expand=info}
+     */
+    EXPAND_API(new Version(2, 3)),
+
+    /**
+     * {@code GET /connectors/{name}/topics}
+     */
+    TOPICS_API(new Version(2, 5)),
+
+    /**
+     * {@code POST /connectors/{name}/restart?includeTasks=...&onlyFailed=...}
+     */
+    RESTART_CONNECTOR_AND_TASKS(new Version(3, 0)),
+
+    /**
+     * Listing plug-ins other than connectors, and retrieving their configuration definition
+     */
+    ALL_PLUGINS(new Version(3, 2)),
+
+    /**
+     * {@code PUT /connectors/{name}/stop}
+     */
+    STOP_CONNECTOR(new Version(3, 5)),
+
+    /**
+     * {@code GET /connectors/{name}/offsets}
+     */
+    READ_OFFSETS(new Version(3, 5)),
+
+    /**
+     * {@code PATCH/DELETE /connectors/{name}/offsets}
+     */
+    ALTER_OFFSETS(new Version(3, 6)),
+
+    /**
+     * {@code PUT /admin/loggers/{name}?scope=cluster}
+     */
+    CLUSTER_LOG_SCOPE(new Version(3, 7));
+
+    private final Version requiredVersion;
+
+    Capability(Version requiredVersion) {
+        this.requiredVersion = requiredVersion;
+    }
+
+    public Version requiredVersion() {
+        return requiredVersion;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.kcctl.util.AtomicFiles;
+import org.kcctl.util.ConfigurationContext;
+import org.kcctl.util.FlightRecording;
+import org.kcctl.util.Timings;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Keeps track of the worker information (version, commit, Kafka cluster id) of the Kafka Connect clusters
+ * in use, so that commands can check for the {@link Capability capabilities} they require without issuing
+ * a {@code GET /} request on each invocation. Entries are kept in memory and in a file within the
+ * {@link ConfigurationContext#getCacheDirectory() cache directory}, keyed by cluster URI, and expire after
+ * the duration configured via {@code kcctl.capabilities.ttl}.
+ */
+public class CapabilityRegistry {
+
+    static final String TTL = "kcctl.capabilities.ttl";
+    private static final String CACHE_FILE = "capabilities.json";
+    private static final Duration DEFAULT_TTL = Duration.ofHours(1);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final ConcurrentMap<String, WorkerCapabilities> capabilities = new ConcurrentHashMap<>();
+
+    private CapabilityRegistry() {
+    }
+
+    /**
+     * Returns the capabilities of the current context's cluster, retrieving them from the cluster
+     * if they are unknown or expired.
+     */
+    public static WorkerCapabilities getCapabilities(ConfigurationContext context, KafkaConnectApi kafkaConnectApi) {
+        String cluster = context.getCurrentContext().getCluster().toString();
+        long now = System.currentTimeMillis();
+
+        WorkerCapabilities cached = capabilities.get(cluster);
+        if (cached == null || isExpired(cached, now)) {
+            cached = readCacheFile(context).get(cluster);
+        }
+
+        if (cached != null && !isExpired(cached, now)) {
+            FlightRecording.cacheAccess("capabilities", cluster, true);
+            capabilities.put(cluster, cached);
+            return cached;
+        }
+
+        FlightRecording.cacheAccess("capabilities", cluster, false);
+        return refresh(context, kafkaConnectApi);
+    }
+
+    /**
+     * Retrieves the capabilities of the current context's cluster and stores them in the registry.
+     */
+    public static WorkerCapabilities refresh(ConfigurationContext context, KafkaConnectApi kafkaConnectApi) {
+        String cluster = context.getCurrentContext().getCluster().toString();
+        WorkerCapabilities detected;
+        try (Timings.Span span = Timings.span("detect version")) {
+            detected = new WorkerCapabilities(kafkaConnectApi.getWorkerInfo(), System.currentTimeMillis());
+        }
+
+        capabilities.put(cluster, detected);
+
+        Map<String, WorkerCapabilities> cacheFileContents = new HashMap<>(readCacheFile(context));
+        cacheFileContents.put(cluster, detected);
+        writeCacheFile(context, cacheFileContents);
+
+        return detected;
+    }
+
+    private static boolean isExpired(WorkerCapabilities capabilities, long now) {
+        Duration ttl = ConfigProvider.getConfig().getOptionalValue(TTL, Duration.class).orElse(DEFAULT_TTL);
+        return now - capabilities.detectedAt() >= ttl.toMillis();
+    }
+
+    private static Map<String, WorkerCapabilities> readCacheFile(ConfigurationContext context) {
+        File cacheFile = new File(context.getCacheDirectory(), CACHE_FILE);
+        if (!cacheFile.exists()) {
+            return Map.of();
+        }
+
+        try {
+            return mapper.readValue(cacheFile, new TypeReference<Map<String, WorkerCapabilities>>() {
+            });
+        }
+        catch (IOException e) {
+            // The cache is only an optimization; it will be re-created after the next detection
+            return Map.of();
+        }
+    }
+
+    private static void writeCacheFile(ConfigurationContext context, Map<String, WorkerCapabilities> contents) {
+        try {
+            AtomicFiles.write(new File(context.getCacheDirectory(), CACHE_FILE).toPath(), file -> mapper.writeValue(file, contents));
+        }
+        catch (IOException e) {
+            // Not being able to persist the capabilities only means they'll be detected again next time
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Decodes the response of {@code GET /connectors?expand=status} incrementally, yielding the status of one
+ * connector at a time. Unlike {@link KafkaConnectApi#getConnectorExpandInfo(List)}, the complete response never
+ * is materialized, so that memory usage doesn't depend on the number of connectors, unless the caller collects
+ * the statuses.
+ */
+public class ConnectorStatusReader implements Iterator<ConnectorStatusInfo>, Closeable {
+
+    private static final ObjectMapper mapper = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final JsonParser parser;
+    private ConnectorStatusInfo next;
+    private boolean done;
+
+    public ConnectorStatusReader(InputStream response) {
+        JsonParser parser = null;
+        try {
+            parser = mapper.createParser(response);
+
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object with the connector statuses, but got " + parser.currentToken());
+            }
+        }
+        catch (IOException e) {
+            // The caller only gets to close the reader, so the response must not be left open when failing here
+            close(parser, response, e);
+            throw new UncheckedIOException("Couldn't read the connector statuses", e);
+        }
+
+        this.parser = parser;
+    }
+
+    private static void close(JsonParser parser, InputStream response, IOException failure) {
+        try (response) {
+            if (parser != null) {
+                parser.close();
+            }
+        }
+        catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Requests the statuses of all connectors. The returned stream must be closed by the caller.
+     */
+    public static Stream<ConnectorStatusInfo> stream(KafkaConnectApi kafkaConnectApi) {
+        ConnectorStatusReader reader = new ConnectorStatusReader(kafkaConnectApi.getConnectorExpandInfoStream(List.of("status")));
+        return reader.stream();
+    }
+
+    public Stream<ConnectorStatusInfo> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            next = readNext();
+        }
+
+        return next != null;
+    }
+
+    @Override
+    public ConnectorStatusInfo next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        ConnectorStatusInfo current = next;
+        next = null;
+        return current;
+    }
+
+    private ConnectorStatusInfo readNext() {
+        try {
+            // { "<connector>": { "status": { ... }, "info": { ... } }, ... }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IOException("Expected a JSON object for connector " + parser.currentName() + ", but got " + parser.currentToken());
+                }
+
+                ConnectorStatusInfo status = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String expand = parser.currentName();
+                    parser.nextToken();
+
+                    if (expand.equals("status")) {
+                        status = parser.readValueAs(ConnectorStatusInfo.class);
+                    }
+                    else {
+                        parser.skipChildren();
+                    }
+                }
+
+                if (status != null) {
+                    return status;
+                }
+            }
+
+            done = true;
+            return null;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Couldn't read the connector statuses", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        done = true;
+
+        try {
+            parser.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
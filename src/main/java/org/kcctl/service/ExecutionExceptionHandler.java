@@ -8,6 +8,8 @@
 package org.kcctl.service;
 
 import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeoutException;
 
 import org.kcctl.util.Colors;
 
@@ -47,6 +49,12 @@ public class ExecutionExceptionHandler implements IExecutionExceptionHandler {
                     "Couldn't connect to Kafka Connect API at %s.".formatted(context.getCluster()));
         }
 
+        if (rootCause instanceof SocketTimeoutException || rootCause instanceof TimeoutException) {
+            return new ExitCodeErrorMessagePair(
+                    CommandLine.ExitCode.SOFTWARE,
+                    "Timed out waiting for Kafka Connect API at %s: %s".formatted(context.getCluster(), rootCause.getMessage()));
+        }
+
         if (ex instanceof KafkaConnectException) {
             var kafkaConnectException = (KafkaConnectException) ex;
             switch (kafkaConnectException.getHttpStatus()) {
@@ -7,6 +7,7 @@
  */
 package org.kcctl.service;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -94,6 +95,14 @@ public interface KafkaConnectApi {
     @Path("/connectors")
     Map<String, ConnectorExpandInfo> getConnectorExpandInfo(@QueryParam("expand") List<String> expands);
 
+    /**
+     * Returns the raw response of {@link #getConnectorExpandInfo(List)}, for decoding it incrementally via
+     * {@link ConnectorStatusReader}. The stream must be closed by the caller.
+     */
+    @GET
+    @Path("/connectors")
+    InputStream getConnectorExpandInfoStream(@QueryParam("expand") List<String> expands);
+
     @GET
     @Path("/connectors/{name}/status")
     ConnectorStatusInfo getConnectorStatus(@PathParam("name") String name);
@@ -0,0 +1,156 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.PATCH;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.rest.client.annotation.RegisterClientHeaders;
+import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+
+/**
+ * Variant of {@link KafkaConnectApi} returning {@link CompletionStage}s, for issuing many requests concurrently,
+ * e.g. when operating on all the connectors of a large cluster. This is not a reactive client: each request is a
+ * blocking call of the classic REST client, running on a virtual thread of its own, so that in-flight requests
+ * don't tie up any platform threads.
+ */
+@Path("/")
+@RegisterRestClient
+@RegisterClientHeaders(value = KafkaConnectClientHeadersFactory.class)
+@RegisterProvider(value = KafkaConnectResponseExceptionMapper.class, priority = 50)
+@RegisterProvider(VoidMessageBodyReader.class)
+@Retry(delay = 100L, maxDuration = 30_000L, retryOn = KafkaConnectConflictException.class)
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public interface KafkaConnectAsyncApi {
+
+    @GET
+    CompletionStage<KafkaConnectInfo> getWorkerInfo();
+
+    @GET
+    @Path("/connector-plugins")
+    CompletionStage<List<ConnectorPlugin>> getConnectorPlugins(@QueryParam("connectorsOnly") Boolean connectorsOnly);
+
+    @GET
+    @Path("/connector-plugins/{name}/config")
+    CompletionStage<List<ConfigInfos.ConfigKeyInfo>> getConnectorPluginConfig(@PathParam("name") String name);
+
+    @PUT
+    @Path("/connector-plugins/{name}/config/validate")
+    CompletionStage<ConfigInfos> validateConfig(@PathParam("name") String name, String config);
+
+    @GET
+    @Path("/connectors/")
+    CompletionStage<List<String>> getConnectors();
+
+    @POST
+    @Path("/connectors/")
+    CompletionStage<ConnectorStatusInfo> createConnector(String config);
+
+    @GET
+    @Path("/connectors/{name}")
+    CompletionStage<ConnectorInfo> getConnector(@PathParam("name") String name);
+
+    @POST
+    @Path("/connectors/{name}/restart")
+    CompletionStage<Void> restartConnector(@PathParam("name") String name);
+
+    @POST
+    @Path("/connectors/{name}/restart")
+    CompletionStage<ConnectorStatusInfo> restartConnectorAndTasks(
+                                                                  @PathParam("name") String name,
+                                                                  @QueryParam("includeTasks") boolean includeTasks,
+                                                                  @QueryParam("onlyFailed") boolean onlyFailed);
+
+    @PUT
+    @Path("/connectors/{name}/pause")
+    CompletionStage<Void> pauseConnector(@PathParam("name") String name);
+
+    @PUT
+    @Path("/connectors/{name}/resume")
+    CompletionStage<Void> resumeConnector(@PathParam("name") String name);
+
+    @PUT
+    @Path("/connectors/{name}/stop")
+    CompletionStage<Void> stopConnector(@PathParam("name") String name);
+
+    @DELETE
+    @Path("/connectors/{name}")
+    CompletionStage<Void> deleteConnector(@PathParam("name") String name);
+
+    @GET
+    @Path("/connectors")
+    CompletionStage<Map<String, ConnectorExpandInfo>> getConnectorExpandInfo(@QueryParam("expand") List<String> expands);
+
+    @GET
+    @Path("/connectors/{name}/status")
+    CompletionStage<ConnectorStatusInfo> getConnectorStatus(@PathParam("name") String name);
+
+    @GET
+    @Path("/connectors/{name}/topics")
+    CompletionStage<Map<String, TopicsInfo>> getConnectorTopics(@PathParam("name") String name);
+
+    @GET
+    @Path("/connectors/{name}/config")
+    CompletionStage<Map<String, String>> getConnectorConfig(@PathParam("name") String name);
+
+    @PUT
+    @Path("/connectors/{name}/config")
+    CompletionStage<ConnectorStatusInfo> updateConnector(@PathParam("name") String name, String config);
+
+    @GET
+    @Path("/connectors/{name}/offsets")
+    CompletionStage<ConnectorOffsets> getConnectorOffsets(@PathParam("name") String name);
+
+    @DELETE
+    @Path("/connectors/{name}/offsets")
+    CompletionStage<AlterResetOffsetsResponse> deleteConnectorOffsets(@PathParam("name") String name);
+
+    @PATCH
+    @Path("/connectors/{name}/offsets")
+    CompletionStage<AlterResetOffsetsResponse> patchConnectorOffsets(@PathParam("name") String name, ConnectorOffsets offsets);
+
+    @POST
+    @Path("/connectors/{name}/tasks/{id}/restart")
+    CompletionStage<ConnectorInfo> restartTask(@PathParam("name") String name, @PathParam("id") String id);
+
+    @GET
+    @Path("/connectors/{name}/tasks")
+    CompletionStage<List<TaskConfig>> getConnectorTasks(@PathParam("name") String name);
+
+    @PUT
+    @Path("/admin/loggers/{classPath}")
+    CompletionStage<List<String>> updateLogLevel(@PathParam("classPath") String classPath, String content);
+
+    @PUT
+    @Path("/admin/loggers/{classPath}")
+    CompletionStage<String> updateLogLevelWithScope(@PathParam("classPath") String classPath, @QueryParam("scope") String scope, String content);
+
+    @GET
+    @Path("/admin/loggers/{path}")
+    CompletionStage<LoggerLevel> getLogger(@PathParam("path") String path);
+
+    @GET
+    @Path("/admin/loggers")
+    CompletionStage<Map<String, LoggerLevel>> getLoggers();
+}
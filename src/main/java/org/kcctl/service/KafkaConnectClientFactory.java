@@ -0,0 +1,101 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.rest.client.RestClientBuilder;
+
+/**
+ * Hands out {@link KafkaConnectApi} clients, one per Kafka Connect cluster URI. Each client is backed by a
+ * keep-alive connection pool, so that TCP connections and TLS sessions are reused by all the requests of an
+ * invocation, including those issued by nested commands (e.g. {@code patch} running {@code describe}).
+ * <p>
+ * Commands are instantiated by the CDI container, but also directly by other commands and by the tests,
+ * always with just a {@link org.kcctl.util.ConfigurationContext}; the registry of clients therefore is
+ * process-wide instead of being held by a bean instance.
+ * <p>
+ * The clients memoize the responses of GET requests within the {@link RequestCache scope} of an invocation.
+ * Next to the blocking clients, there are {@link KafkaConnectAsyncApi asynchronous clients}, which run blocking
+ * requests on virtual threads, with a connection pool of their own.
+ */
+public class KafkaConnectClientFactory {
+
+    static final String CONNECTION_POOL_SIZE = "kcctl.client.connection-pool-size";
+    static final String CONNECTION_TTL = "kcctl.client.connection-ttl";
+    static final String CONNECT_TIMEOUT = "kcctl.client.connect-timeout";
+    static final String READ_TIMEOUT = "kcctl.client.read-timeout";
+
+    private static final int DEFAULT_CONNECTION_POOL_SIZE = 20;
+    private static final Duration DEFAULT_CONNECTION_TTL = Duration.ofMinutes(5);
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final ConcurrentMap<URI, KafkaConnectApi> clients = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<URI, KafkaConnectAsyncApi> asyncClients = new ConcurrentHashMap<>();
+
+    private KafkaConnectClientFactory() {
+    }
+
+    public static KafkaConnectApi getClient(Context context) {
+        return getClient(context.getCluster());
+    }
+
+    public static KafkaConnectApi getClient(URI cluster) {
+        return clients.computeIfAbsent(cluster, KafkaConnectClientFactory::createClient);
+    }
+
+    public static KafkaConnectAsyncApi getAsyncClient(Context context) {
+        return getAsyncClient(context.getCluster());
+    }
+
+    public static KafkaConnectAsyncApi getAsyncClient(URI cluster) {
+        return asyncClients.computeIfAbsent(cluster, KafkaConnectClientFactory::createAsyncClient);
+    }
+
+    private static KafkaConnectApi createClient(URI cluster) {
+        return RequestCache.wrap(clientBuilder(cluster).build(KafkaConnectApi.class));
+    }
+
+    private static KafkaConnectAsyncApi createAsyncClient(URI cluster) {
+        KafkaConnectAsyncApi client = clientBuilder(cluster)
+                // Requests block while waiting for the response; running them on virtual threads
+                // allows for many concurrent requests without a platform thread for each
+                .executorService(Executors.newVirtualThreadPerTaskExecutor())
+                .build(KafkaConnectAsyncApi.class);
+
+        return RequestCache.wrap(client);
+    }
+
+    private static RestClientBuilder clientBuilder(URI cluster) {
+        Config config = ConfigProvider.getConfig();
+        int poolSize = config.getOptionalValue(CONNECTION_POOL_SIZE, Integer.class).orElse(DEFAULT_CONNECTION_POOL_SIZE);
+        Duration connectionTtl = config.getOptionalValue(CONNECTION_TTL, Duration.class).orElse(DEFAULT_CONNECTION_TTL);
+        Duration connectTimeout = config.getOptionalValue(CONNECT_TIMEOUT, Duration.class).orElse(DEFAULT_CONNECT_TIMEOUT);
+        Duration readTimeout = config.getOptionalValue(READ_TIMEOUT, Duration.class).orElse(DEFAULT_READ_TIMEOUT);
+
+        return RestClientBuilder.newBuilder()
+                .baseUri(cluster)
+                .connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .register(new TimingsFilter())
+                // Passed through to the underlying RESTEasy client builder; without a pool size,
+                // a single, non-shareable connection would be used
+                .property("resteasy.connectionPoolSize", poolSize)
+                .property("resteasy.maxPooledPerRoute", poolSize)
+                .property("resteasy.connectionTTL", List.of(connectionTtl.toMillis(), TimeUnit.MILLISECONDS));
+    }
+}
@@ -21,6 +21,10 @@ public class KafkaConnectClientHeadersFactory implements ClientHeadersFactory {
     @Inject
     ConfigurationContext context;
 
+    // The context instance only changes when the configuration file got re-read, so the
+    // header value derived from it can be reused for all the requests until then
+    private volatile AuthorizationHeader authorizationHeader;
+
     public KafkaConnectClientHeadersFactory(ConfigurationContext context) {
         super();
 
@@ -34,18 +38,32 @@ public class KafkaConnectClientHeadersFactory implements ClientHeadersFactory {
         Context currentContext = context.getCurrentContext();
 
         if (currentContext.isUsingBasicAuthentication()) {
-            result.add("Authorization",
+            result.add("Authorization", getAuthorizationHeaderValue(currentContext));
+            return result;
+        }
+
+        return result;
+    }
+
+    private String getAuthorizationHeaderValue(Context currentContext) {
+        AuthorizationHeader header = authorizationHeader;
+
+        if (header == null || header.context() != currentContext) {
+            header = new AuthorizationHeader(currentContext,
                     generateBasicAuthHeaderValue(
                             currentContext.getUsername(),
                             currentContext.getPassword()));
-            return result;
+            authorizationHeader = header;
         }
 
-        return result;
+        return header.value();
     }
 
     private static String generateBasicAuthHeaderValue(String username, String password) {
         return String.format("Basic %s",
                 Base64.getEncoder().encodeToString(String.format("%s:%s", username, password).getBytes()));
     }
+
+    private record AuthorizationHeader(Context context, String value) {
+    }
 }
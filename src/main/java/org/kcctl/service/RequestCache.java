@@ -0,0 +1,241 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+
+import org.kcctl.util.FlightRecording;
+
+/**
+ * Memoizes the responses of the idempotent (GET) requests of {@link KafkaConnectApi} for the duration of a
+ * command invocation, e.g. so that the list of connectors or the worker info are retrieved only once, also if
+ * they are needed by nested commands. Concurrent identical requests are merged into one. Any other request (e.g.
+ * pausing a connector) discards the memoized responses of the resource it modifies, as well as the collection
+ * containing that resource (e.g. the list of connectors). The same applies to the requests of
+ * {@link KafkaConnectAsyncApi}, with a request being considered complete when its response stage is.
+ * <p>
+ * Responses are only memoized within the scope {@link #withinInvocation(Supplier) of an invocation}; as clients are
+ * shared across invocations (e.g. by the shell), there is no memoization outside of such scope. Commands polling
+ * the cluster for changes must {@link #clear()} the scope before each poll.
+ */
+public class RequestCache {
+
+    /**
+     * The scope of the command executed by the current thread; inherited by the threads the command starts.
+     */
+    private static final InheritableThreadLocal<Scope> currentScope = new InheritableThreadLocal<>();
+
+    private record Key(Method method, List<Object> args) {
+    }
+
+    private record Entry(String path, CompletableFuture<Object> response) {
+    }
+
+    private static class Scope {
+        final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    }
+
+    private RequestCache() {
+    }
+
+    /**
+     * Returns a client which memoizes the responses of the given client within invocation scopes.
+     */
+    public static KafkaConnectApi wrap(KafkaConnectApi api) {
+        return wrap(KafkaConnectApi.class, api);
+    }
+
+    /**
+     * Returns a client which memoizes the responses of the given asynchronous client within invocation scopes.
+     */
+    public static KafkaConnectAsyncApi wrap(KafkaConnectAsyncApi api) {
+        return wrap(KafkaConnectAsyncApi.class, api);
+    }
+
+    private static <T> T wrap(Class<T> type, T api) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type },
+                (proxy, method, args) -> invoke(api, method, args)));
+    }
+
+    /**
+     * Runs the given action with a new, empty scope for memoized responses.
+     */
+    public static <T> T withinInvocation(Supplier<T> action) {
+        Scope previous = currentScope.get();
+        currentScope.set(new Scope());
+
+        try {
+            return action.get();
+        }
+        finally {
+            if (previous != null) {
+                currentScope.set(previous);
+            }
+            else {
+                currentScope.remove();
+            }
+        }
+    }
+
+    /**
+     * Discards all responses memoized within the current scope.
+     */
+    public static void clear() {
+        Scope scope = currentScope.get();
+        if (scope != null) {
+            scope.entries.clear();
+        }
+    }
+
+    private static Object invoke(Object api, Method method, Object[] args) throws Throwable {
+        Scope scope = currentScope.get();
+
+        // Streams can be consumed only once
+        if (scope == null || method.getDeclaringClass() == Object.class || InputStream.class.isAssignableFrom(method.getReturnType())) {
+            return call(api, method, args);
+        }
+
+        boolean async = CompletionStage.class.isAssignableFrom(method.getReturnType());
+
+        if (!method.isAnnotationPresent(GET.class)) {
+            String path = path(method, args);
+            Object response;
+            try {
+                response = call(api, method, args);
+            }
+            catch (Throwable e) {
+                invalidate(scope, path);
+                throw e;
+            }
+
+            if (async) {
+                return ((CompletionStage<?>) response).whenComplete((r, e) -> invalidate(scope, path));
+            }
+
+            invalidate(scope, path);
+            return response;
+        }
+
+        Key key = new Key(method, args == null ? List.of() : Arrays.asList(args));
+        Entry entry = new Entry(path(method, args), new CompletableFuture<>());
+        Entry existing = scope.entries.putIfAbsent(key, entry);
+        FlightRecording.cacheAccess("requests", entry.path(), existing != null);
+
+        if (existing != null) {
+            if (async) {
+                // Callers must not be able to complete the shared response
+                return existing.response().copy();
+            }
+
+            try {
+                return existing.response().join();
+            }
+            catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+
+        try {
+            Object response = call(api, method, args);
+
+            if (async) {
+                ((CompletionStage<?>) response).whenComplete((r, e) -> {
+                    if (e != null) {
+                        fail(scope, key, entry, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                    }
+                    else {
+                        entry.response().complete(r);
+                    }
+                });
+                return entry.response().copy();
+            }
+
+            entry.response().complete(response);
+            return response;
+        }
+        catch (Throwable e) {
+            fail(scope, key, entry, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Reports the given failure to the requests waiting for the given one; failures are not memoized.
+     */
+    private static void fail(Scope scope, Key key, Entry entry, Throwable failure) {
+        scope.entries.remove(key, entry);
+        entry.response().completeExceptionally(failure);
+    }
+
+    private static Object call(Object api, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(api, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Discards the entries for the resource with the given path and everything below it (e.g.
+     * "/connectors/my-connector" for a write to "/connectors/my-connector/pause"), as well as the collection the
+     * resource is part of (e.g. "/connectors").
+     */
+    private static void invalidate(Scope scope, String writePath) {
+        String[] segments = writePath.substring(1).split("/");
+        String collection = "/" + segments[0];
+        String resource = segments.length > 1 ? collection + "/" + segments[1] : collection;
+
+        scope.entries.values().removeIf(entry -> entry.path().equals(collection)
+                || entry.path().equals(resource)
+                || entry.path().startsWith(resource + "/"));
+    }
+
+    /**
+     * Returns the request path of the given method, with all path parameters replaced by the given arguments, and
+     * without trailing slash.
+     */
+    static String path(Method method, Object[] args) {
+        Path path = method.getAnnotation(Path.class);
+        String result = path != null ? path.value() : "/";
+
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof PathParam pathParam) {
+                    result = result.replace("{" + pathParam.value() + "}", String.valueOf(args[i]));
+                }
+            }
+        }
+
+        if (!result.startsWith("/")) {
+            result = "/" + result;
+        }
+        while (result.length() > 1 && result.endsWith("/")) {
+            result = result.substring(0, result.length() - 1);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.client.ClientResponseFilter;
+
+import org.kcctl.util.FlightRecording;
+import org.kcctl.util.Timings;
+
+/**
+ * Records the method, path, status, latency (until the response headers have been received) and response size of
+ * each request in the {@link Timings} of the current command, if timings are recorded, and emits a
+ * {@link FlightRecording.RestCallEvent} for it, if enabled. The event is committed once the response has been read.
+ */
+public class TimingsFilter implements ClientRequestFilter, ClientResponseFilter {
+
+    private static final String START = TimingsFilter.class.getName() + ".start";
+    private static final String EVENT = TimingsFilter.class.getName() + ".event";
+    private static final String INVOKED_METHOD = "org.eclipse.microprofile.rest.client.invokedMethod";
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        if (Timings.current() != null) {
+            requestContext.setProperty(START, System.nanoTime());
+        }
+
+        FlightRecording.RestCallEvent event = new FlightRecording.RestCallEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            requestContext.setProperty(EVENT, event);
+        }
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+        Timings timings = Timings.current();
+        Timings.Request request = null;
+        if (timings != null && requestContext.getProperty(START) instanceof Long startNanos) {
+            request = timings.addRequest(requestContext.getMethod(), requestContext.getUri().getRawPath(), endpoint(requestContext),
+                    responseContext.getStatus(), startNanos, System.nanoTime() - startNanos);
+        }
+
+        FlightRecording.RestCallEvent event = null;
+        if (requestContext.getProperty(EVENT) instanceof FlightRecording.RestCallEvent begun) {
+            event = begun;
+            event.end();
+            event.method = requestContext.getMethod();
+            event.path = requestContext.getUri().getRawPath();
+            event.endpoint = endpoint(requestContext);
+            event.status = responseContext.getStatus();
+        }
+
+        if (request == null && event == null) {
+            return;
+        }
+
+        if (responseContext.hasEntity()) {
+            responseContext.setEntityStream(new CountingInputStream(responseContext.getEntityStream(), request, event));
+        }
+        else if (event != null) {
+            event.commit();
+        }
+    }
+
+    /**
+     * Counts the bytes of a response while it is read, committing the event of the request once it is closed.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private final Timings.Request request;
+        private final FlightRecording.RestCallEvent event;
+        private boolean closed;
+
+        CountingInputStream(InputStream in, Timings.Request request, FlightRecording.RestCallEvent event) {
+            super(in);
+            this.request = request;
+            this.event = event;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            }
+            finally {
+                if (!closed && event != null && event.shouldCommit()) {
+                    event.commit();
+                }
+                closed = true;
+            }
+        }
+
+        private void count(int bytes) {
+            if (request != null) {
+                request.bytes().add(bytes);
+            }
+            if (event != null) {
+                event.bytes += bytes;
+            }
+        }
+    }
+
+    /**
+     * Returns the path template of the invoked client method, e.g. "/connectors/{name}/status", or the actual path
+     * if unknown.
+     */
+    private static String endpoint(ClientRequestContext requestContext) {
+        if (requestContext.getProperty(INVOKED_METHOD) instanceof Method method) {
+            Path path = method.getAnnotation(Path.class);
+            if (path == null) {
+                return "/";
+            }
+
+            String template = path.value().startsWith("/") ? path.value() : "/" + path.value();
+            return template.length() > 1 && template.endsWith("/") ? template.substring(0, template.length() - 1) : template;
+        }
+
+        return requestContext.getUri().getRawPath();
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+
+/**
+ * Discards the body of responses to requests returning {@code CompletionStage<Void>}. Kafka Connect responds to
+ * requests such as pausing a connector with "202 Accepted" and an empty body without content type, for which there
+ * otherwise is no reader.
+ */
+@Consumes(MediaType.WILDCARD)
+public class VoidMessageBodyReader implements MessageBodyReader<Void> {
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == Void.class;
+    }
+
+    @Override
+    public Void readFrom(Class<Void> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                         MultivaluedMap<String, String> httpHeaders, InputStream entityStream) {
+        return null;
+    }
+}
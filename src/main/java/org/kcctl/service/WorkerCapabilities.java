@@ -0,0 +1,30 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import org.kcctl.util.Version;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * The worker information of a Kafka Connect cluster, as detected at the given point in time.
+ *
+ * @param workerInfo the information returned by {@code GET /}
+ * @param detectedAt when the information was retrieved, in milliseconds since the epoch
+ */
+public record WorkerCapabilities(KafkaConnectInfo workerInfo, long detectedAt) {
+
+    @JsonIgnore
+    public Version version() {
+        return new Version(workerInfo.version());
+    }
+
+    public boolean supports(Capability capability) {
+        return version().greaterOrEquals(capability.requiredVersion());
+    }
+}
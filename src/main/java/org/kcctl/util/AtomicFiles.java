@@ -0,0 +1,54 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public class AtomicFiles {
+
+    @FunctionalInterface
+    public interface ContentWriter {
+        void write(File file) throws IOException;
+    }
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * Writes a file by writing to a temporary file in the same directory first, which then is moved into place,
+     * so that readers never observe a partially written file.
+     *
+     * @param target the file to write; its parent directory is created if needed
+     * @param writer writes the contents to the given (temporary) file
+     */
+    public static void write(Path target, ContentWriter writer) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+
+        Path tempFile = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+
+        try {
+            writer.write(tempFile.toFile());
+
+            try {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Applies a lifecycle operation (e.g. pausing) to a set of connectors, issuing the requests concurrently, optionally
+ * limited to a maximum rate, so that operations on hundreds of connectors complete quickly without overloading the
+ * Kafka Connect cluster. The outcome of each operation is printed as soon as it completes; on a terminal, the
+ * progress is shown while the operations are running.
+ * <p>
+ * After the first failed operation, no further operations are started, unless continuing on errors has been
+ * requested; operations in flight at that time are still completed.
+ */
+public class BulkExecutor {
+
+    // ANSI escape sequence
+    private static final String CLEAR_LINE = "\r\u001B[2K";
+
+    public enum Outcome {
+        SUCCEEDED,
+        FAILED,
+        SKIPPED;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public record Result(String connector, Outcome outcome, String message) {
+    }
+
+    private record OutcomeCount(Outcome outcome, long count) {
+    }
+
+    private final int parallelism;
+    private final double maxRate;
+    private final boolean continueOnError;
+    private final PrintWriter out;
+    private final PrintWriter err;
+    private final boolean showProgress;
+
+    private long start;
+    private int completed;
+    private int failed;
+    private boolean progressShown;
+
+    /**
+     * @param parallelism the maximum number of concurrent operations
+     * @param maxRate the maximum number of operations started per second; 0 for no limit
+     * @param continueOnError whether to start further operations after an operation failed
+     * @param showProgress whether to show the progress on {@code err}, which must be a terminal in this case
+     */
+    public BulkExecutor(int parallelism, double maxRate, boolean continueOnError, PrintWriter out, PrintWriter err, boolean showProgress) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, but was " + parallelism);
+        }
+        if (maxRate < 0) {
+            throw new IllegalArgumentException("Maximum rate must not be negative, but was " + maxRate);
+        }
+
+        this.parallelism = parallelism;
+        this.maxRate = maxRate;
+        this.continueOnError = continueOnError;
+        this.out = out;
+        this.err = err;
+        this.showProgress = showProgress;
+    }
+
+    /**
+     * Applies the given operation to all the given connectors. A summary is printed at the end if there is more
+     * than one connector.
+     *
+     * @param verb the past tense of the operation for the summary, e.g. "Paused"
+     * @param operation returns the message to print once the operation for the given connector succeeded
+     * @return the results, in the order of the given connectors
+     */
+    public List<Result> execute(String verb, Collection<String> connectors, Function<String, CompletionStage<String>> operation) {
+        return execute(verb, connectors, operation, connectors.size() > 1);
+    }
+
+    /**
+     * Applies the given operation to all the given connectors, printing a summary at the end if requested.
+     */
+    public List<Result> execute(String verb, Collection<String> connectors, Function<String, CompletionStage<String>> operation, boolean summary) {
+        List<String> names = List.copyOf(connectors);
+        List<CompletableFuture<Result>> results = new ArrayList<>(names.size());
+        Semaphore permits = new Semaphore(parallelism);
+        TokenBucket rateLimit = new TokenBucket(maxRate);
+        AtomicBoolean stop = new AtomicBoolean();
+        start = System.nanoTime();
+
+        for (String name : names) {
+            // Once stopped, the remaining connectors are reported as skipped right away, without waiting for permits
+            try {
+                if (!stop.get()) {
+                    permits.acquire();
+                }
+                if (!stop.get()) {
+                    rateLimit.acquire();
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stop.set(true);
+            }
+
+            if (stop.get()) {
+                results.add(CompletableFuture.completedFuture(new Result(name, Outcome.SKIPPED, null)));
+                continue;
+            }
+
+            CompletableFuture<Result> result = new CompletableFuture<>();
+            results.add(result);
+
+            invoke(operation, name).whenComplete((message, e) -> {
+                if (e != null && !continueOnError) {
+                    stop.set(true);
+                }
+                permits.release();
+
+                Result completedResult = e != null ? new Result(name, Outcome.FAILED, describe(e)) : new Result(name, Outcome.SUCCEEDED, message);
+                report(completedResult, names.size());
+                result.complete(completedResult);
+            });
+        }
+
+        List<Result> completedResults = results.stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        clearProgress();
+
+        if (summary) {
+            printSummary(verb, completedResults, Duration.ofNanos(System.nanoTime() - start));
+        }
+
+        return completedResults;
+    }
+
+    /**
+     * Returns 0 if all operations succeeded, 1 otherwise.
+     */
+    public static int exitCode(List<Result> results) {
+        return results.stream().allMatch(r -> r.outcome() == Outcome.SUCCEEDED) ? 0 : 1;
+    }
+
+    private static CompletionStage<String> invoke(Function<String, CompletionStage<String>> operation, String name) {
+        try {
+            return operation.apply(name);
+        }
+        catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private synchronized void report(Result result, int total) {
+        completed++;
+        clearProgress();
+
+        if (result.outcome() == Outcome.SUCCEEDED) {
+            out.println(result.message());
+            out.flush();
+        }
+        else {
+            failed++;
+            err.println("Failed for connector " + result.connector() + ": " + result.message());
+            err.flush();
+        }
+
+        // Shown below the last result line, until the next result comes in
+        if (showProgress && completed < total) {
+            double seconds = Math.max(System.nanoTime() - start, 1) / 1_000_000_000.0;
+            err.print("%d/%d done (%.1f/s)%s".formatted(completed, total, completed / seconds, failed > 0 ? ", " + failed + " failed" : ""));
+            err.flush();
+            progressShown = true;
+        }
+    }
+
+    private synchronized void clearProgress() {
+        if (progressShown) {
+            err.print(CLEAR_LINE);
+            err.flush();
+            progressShown = false;
+        }
+    }
+
+    private void printSummary(String verb, List<Result> results, Duration duration) {
+        List<OutcomeCount> counts = new ArrayList<>();
+        for (Outcome outcome : Outcome.values()) {
+            long count = results.stream().filter(r -> r.outcome() == outcome).count();
+            if (count > 0) {
+                counts.add(new OutcomeCount(outcome, count));
+            }
+        }
+
+        long attempted = results.stream().filter(r -> r.outcome() != Outcome.SKIPPED).count();
+        double seconds = Math.max(duration.toNanos(), 1) / 1_000_000_000.0;
+
+        out.println();
+        new TableRenderer<OutcomeCount>()
+                .column("RESULT", c -> c.outcome().toString())
+                .column(" CONNECTORS", c -> " " + c.count())
+                .render(counts, out);
+        out.println();
+        out.println();
+        out.println("%s %d of %d connector(s) in %.2f s (%.1f requests/s)".formatted(
+                verb, counts.stream().filter(c -> c.outcome() == Outcome.SUCCEEDED).mapToLong(OutcomeCount::count).sum(),
+                results.size(), seconds, attempted / seconds));
+        out.flush();
+    }
+
+    static String describe(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+}
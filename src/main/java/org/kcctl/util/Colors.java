@@ -48,11 +48,49 @@ public class Colors {
         };
     }
 
+    /**
+     * Colorizes all the states (e.g. in "0: RUNNING, 1: FAILED") within the given text, in a single pass.
+     */
     public static String replaceColorState(String rawState) {
-        return rawState.replace("RUNNING", colorizeState("RUNNING"))
-                .replace("PAUSED", colorizeState("PAUSED"))
-                .replace("STOPPED", colorizeState("STOPPED"))
-                .replace("FAILED", colorizeState("FAILED"))
-                .replace("UNASSIGNED", colorizeState("UNASSIGNED"));
+        StringBuilder result = null;
+        int length = rawState.length();
+        int wordStart = 0;
+
+        for (int i = 0; i <= length; i++) {
+            if (i < length && Character.isUpperCase(rawState.charAt(i))) {
+                continue;
+            }
+
+            if (i > wordStart) {
+                String word = rawState.substring(wordStart, i);
+                String colorized = colorizeState(word);
+                if (!colorized.equals(word)) {
+                    if (result == null) {
+                        result = new StringBuilder(length + 32).append(rawState, 0, wordStart);
+                    }
+                    result.append(colorized);
+                }
+                else if (result != null) {
+                    result.append(word);
+                }
+            }
+
+            if (result != null && i < length) {
+                result.append(rawState.charAt(i));
+            }
+            wordStart = i + 1;
+        }
+
+        return result != null ? result.toString() : rawState;
+    }
+
+    public static String colorizeLogLevel(String level) {
+        return switch (level) {
+            case "ERROR", "WARN", "FATAL" -> ANSI_RED + level + ANSI_RESET;
+            case "DEBUG" -> ANSI_YELLOW + level + ANSI_RESET;
+            case "INFO" -> ANSI_GREEN + level + ANSI_RESET;
+            case "TRACE" -> ANSI_CYAN + level + ANSI_RESET;
+            default -> level;
+        };
     }
 }
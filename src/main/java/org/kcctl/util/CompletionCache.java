@@ -0,0 +1,179 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+
+/**
+ * Stores the candidates produced by the completion commands in the {@link ConfigurationContext#getCacheDirectory()
+ * cache directory}, in one file per context and kind of candidate (e.g. {@code completions/local/connectors}).
+ * <p>
+ * The files are read directly by the <i>kcctl_completion</i> script, so that pressing TAB doesn't require starting
+ * kcctl as long as the candidates haven't expired; otherwise the script invokes the {@code cached-completions}
+ * command, which looks up the file for the actual current context before running the completion command. Hence the
+ * format is kept trivial for shell scripts: the first line contains the expiry time in epoch seconds, the second line
+ * the space-separated candidates.
+ */
+public class CompletionCache {
+
+    static final String TTL = "kcctl.completion.ttl";
+    private static final String COMPLETIONS_DIRECTORY = "completions";
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    /**
+     * Incremented upon each invalidation, so that candidates held in memory (e.g. by the shell) can be discarded
+     * along with the cached files.
+     */
+    private static final AtomicLong generation = new AtomicLong();
+
+    public enum Kind {
+        CONNECTORS("connector-name-completions"),
+        TASKS("task-name-completions"),
+        LOGGERS("logger-name-completions"),
+        PLUGINS("plugin-name-completions"),
+        CONTEXTS("context-name-completions");
+
+        /**
+         * The hidden command producing the candidates of this kind.
+         */
+        public final String command;
+
+        Kind(String command) {
+            this.command = command;
+        }
+
+        public static Optional<Kind> forCommand(String command) {
+            return Arrays.stream(values())
+                    .filter(kind -> kind.command.equals(command))
+                    .findFirst();
+        }
+
+        String fileName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private CompletionCache() {
+    }
+
+    /**
+     * Stores the given candidates for the current context and returns them in the format expected by the
+     * completion script, i.e. separated by spaces.
+     */
+    public static String put(ConfigurationContext context, Kind kind, Collection<String> candidates) {
+        String joined = String.join(" ", candidates);
+        if (Strings.isBlank(context.getCurrentContextName())) {
+            return joined;
+        }
+
+        long expiresAt = System.currentTimeMillis() / 1000 + getTtl().toSeconds();
+
+        try {
+            AtomicFiles.write(getCacheFile(context, kind).toPath(), file -> Files.writeString(file.toPath(), expiresAt + "\n" + joined + "\n"));
+        }
+        catch (IOException e) {
+            // The completion script falls back to invoking kcctl if there are no cached candidates
+        }
+
+        return joined;
+    }
+
+    /**
+     * Returns the cached candidates of the given kind for the current context, in the format expected by the
+     * completion script; empty if there are none or they have expired.
+     */
+    public static Optional<String> get(ConfigurationContext context, Kind kind) {
+        if (Strings.isBlank(context.getCurrentContextName())) {
+            return Optional.empty();
+        }
+
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(getCacheFile(context, kind).toPath());
+        }
+        catch (IOException e) {
+            return Optional.empty();
+        }
+
+        if (lines.size() != 2 || !lines.get(0).matches("\\d{1,18}") || Long.parseLong(lines.get(0)) <= System.currentTimeMillis() / 1000) {
+            return Optional.empty();
+        }
+
+        return Optional.of(lines.get(1));
+    }
+
+    /**
+     * Removes the cached candidates of the given kinds for the current context, e.g. after connectors have been
+     * created or deleted.
+     */
+    public static void invalidate(ConfigurationContext context, Kind... kinds) {
+        generation.incrementAndGet();
+
+        for (Kind kind : kinds) {
+            try {
+                Files.deleteIfExists(getCacheFile(context, kind).toPath());
+            }
+            catch (IOException e) {
+                // Stale candidates will expire eventually
+            }
+        }
+    }
+
+    /**
+     * Removes all cached candidates, e.g. after contexts have been added or removed.
+     */
+    public static void invalidateAll(ConfigurationContext context) {
+        generation.incrementAndGet();
+
+        Path completionsDirectory = context.getCacheDirectory().toPath().resolve(COMPLETIONS_DIRECTORY);
+        if (!Files.exists(completionsDirectory)) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.walk(completionsDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        catch (IOException e) {
+            // Stale candidates will expire eventually
+        }
+    }
+
+    public static long getGeneration() {
+        return generation.get();
+    }
+
+    public static Duration getTtl() {
+        return ConfigProvider.getConfig().getOptionalValue(TTL, Duration.class).orElse(DEFAULT_TTL);
+    }
+
+    static File getCacheFile(ConfigurationContext context, Kind kind) {
+        // Must be kept in sync with the sanitization done in the kcctl_completion script
+        String contextDirectory = context.getCurrentContextName().replaceAll("[^A-Za-z0-9._-]", "_");
+        return context.getCacheDirectory().toPath()
+                .resolve(COMPLETIONS_DIRECTORY)
+                .resolve(contextDirectory)
+                .resolve(kind.fileName())
+                .toFile();
+    }
+}
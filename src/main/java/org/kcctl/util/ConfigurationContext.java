@@ -9,8 +9,16 @@ package org.kcctl.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
 
 import jakarta.enterprise.context.ApplicationScoped;
 
@@ -25,15 +33,28 @@ import com.fasterxml.jackson.databind.json.JsonMapper;
 @ApplicationScoped
 public class ConfigurationContext {
     private static final String CONFIG_FILE = ".kcctl";
+    private static final String LOCK_FILE = ".kcctl.lock";
+    static final String CACHE_DIRECTORY = ".kcctl-cache";
+    private final File configDirectory;
     private final File configFile;
+    private final File lockFile;
     private final ObjectMapper objectMapper;
 
+    /**
+     * The parsed configuration file, along with the file attributes it was read for. Commands consult the
+     * configuration many times (e.g. once per outgoing request for building the authentication header), so
+     * the file only is parsed again after it has been changed.
+     */
+    private volatile CachedConfiguration cachedConfiguration;
+
     public ConfigurationContext() {
         this(new File(System.getProperty("user.home")));
     }
 
     public ConfigurationContext(File configDirectory) {
+        this.configDirectory = configDirectory;
         this.configFile = new File(configDirectory, CONFIG_FILE);
+        this.lockFile = new File(configDirectory, LOCK_FILE);
         this.objectMapper = JsonMapper
                 .builder()
                 .serializationInclusion(JsonInclude.Include.NON_NULL)
@@ -41,16 +62,25 @@ public class ConfigurationContext {
                 .build();
     }
 
-    public void setContext(String contextName, Context context) {
-        if (!configFile.exists()) {
-            tryWriteConfiguration(new Configuration(contextName).addConfigurationContext(contextName, context));
+    /**
+     * Returns the directory for information derived from the Kafka Connect clusters (e.g. their versions),
+     * which may be discarded at any time.
+     */
+    public File getCacheDirectory() {
+        return new File(configDirectory, CACHE_DIRECTORY);
+    }
 
-            return;
-        }
+    public void setContext(String contextName, Context context) {
+        tryUpdateConfiguration(configuration -> {
+            if (configuration == null) {
+                return new Configuration(contextName).addConfigurationContext(contextName, context);
+            }
 
-        var configuration = tryReadConfiguration();
+            return configuration.addConfigurationContext(contextName, context);
+        });
 
-        tryWriteConfiguration(configuration.addConfigurationContext(contextName, context));
+        // The context may point to another cluster now, and the context names may have changed
+        CompletionCache.invalidateAll(this);
     }
 
     public Context getContext(String contextName) {
@@ -112,17 +142,16 @@ public class ConfigurationContext {
             return false;
         }
 
-        var configuration = tryReadConfiguration();
-
-        if (!configuration.configurationContexts().containsKey(contextName)) {
-            return false;
-        }
-
-        configuration.setCurrentContext(contextName);
+        var updated = tryUpdateConfiguration(configuration -> {
+            if (configuration == null || !configuration.configurationContexts().containsKey(contextName)) {
+                return null;
+            }
 
-        tryWriteConfiguration(configuration);
+            configuration.setCurrentContext(contextName);
+            return configuration;
+        });
 
-        return true;
+        return updated != null;
     }
 
     public boolean removeContext(String contextName) {
@@ -131,19 +160,39 @@ public class ConfigurationContext {
             return false;
         }
 
-        var configuration = tryReadConfiguration();
+        var updated = tryUpdateConfiguration(configuration -> {
+            if (configuration == null || configuration.removeContext(contextName) == null) {
+                return null;
+            }
 
-        if (configuration.removeContext(contextName) == null) {
-            return false;
+            return configuration;
+        });
+
+        if (updated != null) {
+            CompletionCache.invalidateAll(this);
         }
 
-        tryWriteConfiguration(configuration);
-        return true;
+        return updated != null;
     }
 
     private Configuration tryReadConfiguration() {
         try {
-            return objectMapper.readValue(configFile, Configuration.class);
+            BasicFileAttributes attributes = Files.readAttributes(configFile.toPath(), BasicFileAttributes.class);
+            CachedConfiguration cached = cachedConfiguration;
+
+            if (cached != null && cached.isCurrent(attributes)) {
+                FlightRecording.cacheAccess("configuration", configFile.getPath(), true);
+                return cached.configuration();
+            }
+            FlightRecording.cacheAccess("configuration", configFile.getPath(), false);
+
+            Configuration configuration;
+            try (Timings.Span span = Timings.span("read configuration")) {
+                configuration = readConfiguration();
+            }
+            cachedConfiguration = new CachedConfiguration(attributes.fileKey(), attributes.lastModifiedTime(), attributes.size(), configuration);
+
+            return configuration;
         }
         catch (IOException e) {
             throw new RuntimeException("Couldn't read configuration file ~/" + CONFIG_FILE + ". If you are using the legacy," +
@@ -153,9 +202,57 @@ public class ConfigurationContext {
         }
     }
 
+    private Configuration readConfiguration() throws IOException {
+        FlightRecording.ConfigurationReadEvent event = new FlightRecording.ConfigurationReadEvent();
+        event.begin();
+
+        try {
+            return objectMapper.readValue(configFile, Configuration.class);
+        }
+        finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.file = configFile.getPath();
+                event.bytes = configFile.length();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Reads the configuration file, applies the given update to it and writes it back, while holding an exclusive
+     * lock, so that concurrent kcctl invocations don't lose each other's changes. The configuration is read without
+     * going through the cache, as the update mutates it.
+     *
+     * @param update receives the current configuration, or {@code null} if there is no configuration file yet;
+     *        returns the configuration to write, or {@code null} if nothing should be written
+     * @return the configuration which was written, or {@code null} if nothing was written
+     */
+    private Configuration tryUpdateConfiguration(UnaryOperator<Configuration> update) {
+        try (FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = channel.lock()) {
+
+            Configuration configuration = configFile.exists() ? readConfiguration() : null;
+            Configuration updated = update.apply(configuration);
+
+            if (updated != null) {
+                tryWriteConfiguration(updated);
+            }
+
+            return updated;
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Couldn't update configuration file " + configFile + ". If you are using the legacy," +
+                    "property-based configuration format, please delete the old .kcctl file and create a new one by " +
+                    "running 'kcctl config set-context <context_name> --cluster=<cluster_url> [--bootstrap-servers=<broker_urls>] [--offset-topic=<offset_topic>] [--client-config=<config_string>]. ",
+                    e);
+        }
+    }
+
     private void tryWriteConfiguration(Configuration configuration) {
         try {
-            objectMapper.writeValue(configFile, configuration);
+            AtomicFiles.write(configFile.toPath(), file -> objectMapper.writeValue(file, configuration));
+            cachedConfiguration = null;
         }
         catch (IOException e) {
             throw new RuntimeException("Couldn't write configuration file " + configFile + ". If you are using the legacy," +
@@ -164,4 +261,15 @@ public class ConfigurationContext {
                     e);
         }
     }
+
+    private record CachedConfiguration(Object fileKey, FileTime lastModified, long size, Configuration configuration) {
+
+        boolean isCurrent(BasicFileAttributes attributes) {
+            // As the file is replaced on each write, the file key (inode) changes as well, which catches
+            // changes made within the resolution of the file system's modification timestamps
+            return Objects.equals(fileKey, attributes.fileKey()) &&
+                    lastModified.equals(attributes.lastModifiedTime()) &&
+                    size == attributes.size();
+        }
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import org.kcctl.service.ConnectorStatusInfo;
+import org.kcctl.service.TaskState;
+
+/**
+ * Waits for connectors and all their tasks to reach a given state (e.g. after pausing them), polling their status
+ * with exponential backoff. The time it took each connector to reach the state is reported as soon as it has been
+ * observed.
+ */
+public class ConnectorStateWaiter {
+
+    static final Duration INITIAL_DELAY = Duration.ofMillis(250);
+    static final Duration MAX_DELAY = Duration.ofSeconds(5);
+
+    /**
+     * The states in which a connector's tasks are expected to be listed in its status.
+     */
+    private static final Set<String> TASK_STATES = Set.of("RUNNING", "PAUSED");
+
+    public record Convergence(String connector, Duration duration) {
+    }
+
+    private final Function<Set<String>, Map<String, ConnectorStatusInfo>> statuses;
+    private final ToIntFunction<String> configuredTasks;
+    private final PrintWriter out;
+    private final PrintWriter err;
+
+    /**
+     * @param statuses returns the current status of the given connectors; connectors missing from the result are
+     *        considered as not yet having reached the state; if it fails, it is invoked again with the next backoff
+     *        step until the timeout has elapsed
+     * @param configuredTasks returns the number of tasks configured for the given connector; only invoked for
+     *        connectors whose status doesn't list any tasks
+     */
+    public ConnectorStateWaiter(Function<Set<String>, Map<String, ConnectorStatusInfo>> statuses, ToIntFunction<String> configuredTasks,
+                                PrintWriter out, PrintWriter err) {
+        this.statuses = statuses;
+        this.configuredTasks = configuredTasks;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Waits until all the given connectors and their tasks are in the given state, or the timeout has elapsed.
+     *
+     * @return the connectors which reached the state, in the order they did so
+     * @throws InterruptedException if interrupted while waiting; all connectors having reached the state until
+     *         then have been reported
+     */
+    public List<Convergence> await(Collection<String> connectors, String state, Duration timeout) throws InterruptedException {
+        Set<String> pending = new LinkedHashSet<>(connectors);
+        Map<String, ConnectorStatusInfo> lastSeen = new TreeMap<>();
+        List<Convergence> converged = new ArrayList<>();
+
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long delay = INITIAL_DELAY.toNanos();
+
+        while (!pending.isEmpty()) {
+            Map<String, ConnectorStatusInfo> current = poll(statuses, pending, err);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            for (String connector : current != null ? List.copyOf(pending) : List.<String> of()) {
+                ConnectorStatusInfo status = current.get(connector);
+                if (status == null) {
+                    continue;
+                }
+
+                lastSeen.put(connector, status);
+                if (isInState(status, state, () -> getConfiguredTasks(connector))) {
+                    pending.remove(connector);
+                    converged.add(new Convergence(connector, elapsed));
+                    out.println("Connector %s is %s after %.2f s".formatted(connector, state, elapsed.toMillis() / 1000.0));
+                    out.flush();
+                }
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (pending.isEmpty() || remaining <= 0) {
+                break;
+            }
+
+            TimeUnit.NANOSECONDS.sleep(Math.min(delay, remaining));
+            delay = Math.min(delay * 2, MAX_DELAY.toNanos());
+        }
+
+        for (String connector : pending) {
+            err.println("Connector %s didn't become %s within %d s (%s)".formatted(connector, state, timeout.toSeconds(),
+                    describe(lastSeen.get(connector))));
+        }
+        err.flush();
+
+        return converged;
+    }
+
+    /**
+     * Returns the current status of the given connectors; {@code null} if the poll failed, e.g. with a 5xx response
+     * while the workers rebalance, in which case the failure is reported and the caller polls again with the next
+     * backoff step.
+     */
+    static Map<String, ConnectorStatusInfo> poll(Function<Set<String>, Map<String, ConnectorStatusInfo>> statuses, Collection<String> connectors,
+                                                 PrintWriter err) {
+        try {
+            return statuses.apply(Set.copyOf(connectors));
+        }
+        catch (RuntimeException e) {
+            err.println("Couldn't retrieve the connector status, retrying: " + BulkExecutor.describe(e));
+            err.flush();
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of tasks configured for the given connector; -1, i.e. not converged yet, if that failed.
+     */
+    private int getConfiguredTasks(String connector) {
+        try {
+            return configuredTasks.applyAsInt(connector);
+        }
+        catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    static boolean isInState(ConnectorStatusInfo status, String state, IntSupplier configuredTasks) {
+        if (status.connector() == null || !state.equals(status.connector().state())) {
+            return false;
+        }
+
+        // Tasks are listed only once they have been created, e.g. not yet right after the connector has been
+        // (re-)started; so a status without tasks only is converged if the connector doesn't have any
+        if (status.tasks() == null || status.tasks().isEmpty()) {
+            return !TASK_STATES.contains(state) || configuredTasks.getAsInt() == 0;
+        }
+
+        return status.tasks().stream().allMatch(task -> state.equals(task.state()));
+    }
+
+    /**
+     * Describes the given status, e.g. "connector RUNNING, tasks: 2 RUNNING, 1 FAILED".
+     */
+    static String describe(ConnectorStatusInfo status) {
+        if (status == null || status.connector() == null) {
+            return "status unknown";
+        }
+
+        String description = "connector " + status.connector().state();
+        if (status.tasks() == null || status.tasks().isEmpty()) {
+            return description;
+        }
+
+        Map<String, Long> taskStates = status.tasks().stream()
+                .collect(Collectors.groupingBy(TaskState::state, LinkedHashMap::new, Collectors.counting()));
+
+        return description + ", tasks: " + taskStates.entrySet().stream()
+                .map(e -> e.getValue() + " " + e.getKey())
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -7,27 +7,90 @@
  */
 package org.kcctl.util;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.kcctl.service.ConnectorStatusInfo;
+import org.kcctl.service.ConnectorStatusReader;
 import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectNotFoundException;
 
 public class Connectors {
+
+    private static final Duration STATUS_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
     private Connectors() {
     }
 
     public static Set<String> getSelectedConnectors(KafkaConnectApi kafkaConnectApi, Collection<String> names, boolean regexpMode) {
+        if (regexpMode) {
+            return getSelectedConnectors(kafkaConnectApi.getConnectors(), names, true);
+        }
+        else {
+            return new HashSet<>(names);
+        }
+    }
+
+    /**
+     * Selects connectors from the given, already retrieved list of all connectors.
+     */
+    public static Set<String> getSelectedConnectors(Collection<String> connectors, Collection<String> names, boolean regexpMode) {
         if (regexpMode) {
             List<Pattern> namePatterns = names.stream().map(Pattern::compile).toList();
-            return kafkaConnectApi.getConnectors().stream().filter(c -> namePatterns.stream().anyMatch(p -> p.matcher(c).matches()))
+            return connectors.stream().filter(c -> namePatterns.stream().anyMatch(p -> p.matcher(c).matches()))
                     .collect(Collectors.toSet());
         }
         else {
             return new HashSet<>(names);
         }
     }
+
+    /**
+     * Returns the status of the selected connectors. All statuses are retrieved with one request if the cluster
+     * supports the expand API, otherwise with one request per connector, issuing at most the given number of
+     * requests concurrently.
+     */
+    public static List<ConnectorStatusInfo> getSelectedStatuses(KafkaConnectApi kafkaConnectApi, boolean expandApi, int parallelism,
+                                                                Collection<String> names, boolean regexpMode) {
+        List<ConnectorStatusInfo> statuses;
+
+        if (expandApi) {
+            try (Stream<ConnectorStatusInfo> all = ConnectorStatusReader.stream(kafkaConnectApi)) {
+                statuses = all.collect(Collectors.toList());
+            }
+        }
+        else {
+            Collection<String> connectors = names.isEmpty() || regexpMode ? kafkaConnectApi.getConnectors() : names;
+            statuses = FanOut.map(List.copyOf(connectors), parallelism, STATUS_REQUEST_TIMEOUT, connector -> getConnectorStatus(kafkaConnectApi, connector))
+                    .stream()
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+
+        if (names.isEmpty()) {
+            return statuses;
+        }
+
+        Set<String> selected = getSelectedConnectors(statuses.stream().map(ConnectorStatusInfo::name).toList(), names, regexpMode);
+        return statuses.stream()
+                .filter(status -> selected.contains(status.name()))
+                .toList();
+    }
+
+    private static ConnectorStatusInfo getConnectorStatus(KafkaConnectApi kafkaConnectApi, String connector) {
+        try {
+            return kafkaConnectApi.getConnectorStatus(connector);
+        }
+        catch (KafkaConnectNotFoundException e) {
+            // The connector has been deleted after the list of connectors had been retrieved
+            return null;
+        }
+    }
 }
@@ -0,0 +1,499 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Model.OptionSpec;
+
+/**
+ * Executes commands on behalf of other kcctl invocations in a resident process, so that these don't need to
+ * bootstrap the application, read the configuration, detect the capabilities of the cluster and open new
+ * connections each time.
+ * <p>
+ * The daemon listens on a Unix domain socket in the cache directory. A client sends its working directory, whether
+ * it is attached to a terminal, and its arguments; the daemon sends back the stdout and stderr output of the command as it is produced, followed by its
+ * exit code. A client disconnecting interrupts the command (e.g. {@code get connectors --watch}). Commands which
+ * read from stdin or refer to relative files while the client has another working directory than the daemon are not
+ * executed by the daemon, but by the client itself.
+ * <p>
+ * The client part of this class is used before the application is bootstrapped and therefore must not use CDI or
+ * configuration.
+ */
+public class Daemon {
+
+    /**
+     * The directory of the socket within the cache directory, accessible by the owner only, so that no other user can
+     * connect to the socket, not even before its own permissions have been set.
+     */
+    private static final String SOCKET_DIRECTORY = "daemon";
+    private static final String SOCKET_FILE = "daemon.sock";
+
+    /**
+     * Commands which read from stdin or would recurse, which are always executed by the invoking process. Whether a
+     * command is one of them is determined by the daemon, so that it is recognized also after global options.
+     */
+    private static final Set<String> LOCAL_COMMANDS = Set.of("daemon", "exec", "shell");
+
+    /**
+     * Options which are about the executing process itself and therefore are always executed by the invoking process,
+     * e.g. a flight recording of the daemon would contain the concurrent commands of other clients.
+     */
+    private static final Set<String> LOCAL_OPTIONS = Set.of("--jfr");
+
+    private static final byte STDOUT = 'O';
+    private static final byte STDERR = 'E';
+    private static final byte EXIT = 'X';
+    private static final byte FALLBACK = 'F';
+
+    /**
+     * The streams of the command executed by the current thread; inherited by the threads the command starts.
+     */
+    private static final InheritableThreadLocal<PrintStream[]> streams = new InheritableThreadLocal<>();
+
+    /**
+     * Whether the client of the command executed by the current thread is attached to a terminal; inherited by the
+     * threads the command starts.
+     */
+    private static final InheritableThreadLocal<Boolean> clientTerminal = new InheritableThreadLocal<>();
+
+    /**
+     * Executes a single command with the given streams, returning its exit code.
+     */
+    public interface Executor {
+        int execute(String[] args, PrintStream out, PrintStream err);
+    }
+
+    private Daemon() {
+    }
+
+    public static Path getSocketPath(Path cacheDirectory) {
+        return cacheDirectory.resolve(SOCKET_DIRECTORY).resolve(SOCKET_FILE);
+    }
+
+    /**
+     * Whether the current command is executed by the daemon on behalf of a client.
+     */
+    public static boolean isHosted() {
+        return clientTerminal.get() != null;
+    }
+
+    /**
+     * Whether the output of the current command goes to a terminal, i.e. the terminal of the client when executed
+     * by the daemon, and the terminal of this process otherwise.
+     */
+    public static boolean isTerminal() {
+        Boolean terminal = clientTerminal.get();
+        return terminal != null ? terminal : System.console() != null;
+    }
+
+    /**
+     * Executes the given command via the daemon, if one is running.
+     *
+     * @return the exit code of the command, or an empty result if there is no daemon running or the command must
+     *         be executed by the calling process
+     */
+    public static OptionalInt forward(String[] args) {
+        Path socket = getSocketPath(Path.of(System.getProperty("user.home"), ConfigurationContext.CACHE_DIRECTORY));
+        if (!Files.exists(socket)) {
+            return OptionalInt.empty();
+        }
+
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream(channel)));
+            out.writeUTF(System.getProperty("user.dir"));
+            out.writeBoolean(System.console() != null);
+            out.writeInt(args.length);
+            for (String arg : args) {
+                out.writeUTF(arg);
+            }
+            out.flush();
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream(channel)));
+            try {
+                return receive(in);
+            }
+            catch (IOException e) {
+                // The command may have been executed partially, so it mustn't be retried
+                System.err.println(Colors.ANSI_RED + "Lost connection to kcctl daemon: " + e.getMessage() + Colors.ANSI_RESET);
+                return OptionalInt.of(1);
+            }
+        }
+        catch (IOException e) {
+            // Stale socket file of a daemon which isn't running any longer
+            return OptionalInt.empty();
+        }
+    }
+
+    private static OptionalInt receive(DataInputStream in) throws IOException {
+        while (true) {
+            byte type = in.readByte();
+            switch (type) {
+                case STDOUT, STDERR -> {
+                    byte[] bytes = in.readNBytes(in.readInt());
+                    PrintStream target = type == STDOUT ? System.out : System.err;
+                    target.write(bytes);
+                    target.flush();
+                }
+                case EXIT -> {
+                    return OptionalInt.of(in.readInt());
+                }
+                case FALLBACK -> {
+                    return OptionalInt.empty();
+                }
+                default -> throw new IOException("Unexpected message type: " + type);
+            }
+        }
+    }
+
+    /**
+     * Accepts connections on the given socket and executes the received commands with the given executor,
+     * concurrently, until the process is stopped. Whether a command can be executed by the daemon is determined
+     * based on the given model of the command line.
+     *
+     * @throws IllegalStateException if another daemon is listening on the socket already
+     */
+    public static void serve(Path socket, CommandSpec commandSpec, Executor executor) throws IOException {
+        if (Files.exists(socket)) {
+            try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+                throw new IllegalStateException("There already is a kcctl daemon listening on " + socket);
+            }
+            catch (IOException e) {
+                Files.delete(socket);
+            }
+        }
+
+        createPrivateDirectory(socket.getParent());
+
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            // Anyone who can connect can run commands with this user's contexts
+            Files.setPosixFilePermissions(socket, PosixFilePermissions.fromString("rw-------"));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    Files.deleteIfExists(socket);
+                }
+                catch (IOException e) {
+                    // A stale socket file is detected and replaced upon the next start
+                }
+            }));
+
+            // Many commands write to System.out/err directly; route that output to the client of the current thread
+            PrintStream systemOut = System.out;
+            PrintStream systemErr = System.err;
+            System.setOut(new PrintStream(new DispatchingOutputStream(systemOut, s -> s[0]), true, StandardCharsets.UTF_8));
+            System.setErr(new PrintStream(new DispatchingOutputStream(systemErr, s -> s[1]), true, StandardCharsets.UTF_8));
+
+            while (true) {
+                SocketChannel channel = server.accept();
+                Thread.ofVirtual().name("kcctl-daemon-client").start(() -> handle(channel, commandSpec, executor));
+            }
+        }
+    }
+
+    /**
+     * Creates the given directory with permissions for the owner only, restricting the permissions of an existing one.
+     * Fails if the directory exists and belongs to another user.
+     */
+    static void createPrivateDirectory(Path directory) throws IOException {
+        Set<PosixFilePermission> ownerOnly = PosixFilePermissions.fromString("rwx------");
+
+        Files.createDirectories(directory.getParent());
+        try {
+            Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(ownerOnly));
+        }
+        catch (FileAlreadyExistsException e) {
+            // E.g. created by a previous daemon; the permissions are enforced below
+        }
+
+        Files.setPosixFilePermissions(directory, ownerOnly);
+    }
+
+    private static void handle(SocketChannel channel, CommandSpec commandSpec, Executor executor) {
+        AtomicBoolean done = new AtomicBoolean();
+
+        try (channel) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream(channel)));
+            String workingDirectory = in.readUTF();
+            boolean terminal = in.readBoolean();
+            String[] args = new String[in.readInt()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = in.readUTF();
+            }
+
+            DataOutputStream out = new DataOutputStream(outputStream(channel));
+            if (!canExecute(workingDirectory, commandSpec, args)) {
+                out.writeByte(FALLBACK);
+                out.flush();
+                return;
+            }
+
+            Thread worker = Thread.currentThread();
+            Thread.ofVirtual().start(() -> {
+                try {
+                    in.read();
+                }
+                catch (IOException e) {
+                    // Closed, either by the client or after the command has completed
+                }
+                if (!done.get()) {
+                    worker.interrupt();
+                }
+            });
+
+            PrintStream stdout = new PrintStream(new BufferedOutputStream(new FrameOutputStream(out, STDOUT)), true, StandardCharsets.UTF_8);
+            PrintStream stderr = new PrintStream(new BufferedOutputStream(new FrameOutputStream(out, STDERR)), true, StandardCharsets.UTF_8);
+            int exitCode;
+
+            streams.set(new PrintStream[]{ stdout, stderr });
+            clientTerminal.set(terminal);
+            try {
+                exitCode = executor.execute(args, stdout, stderr);
+            }
+            catch (RuntimeException e) {
+                stderr.println(Colors.ANSI_RED + "Command failed: " + e + Colors.ANSI_RESET);
+                exitCode = 1;
+            }
+            finally {
+                streams.remove();
+                clientTerminal.remove();
+                done.set(true);
+            }
+
+            stdout.flush();
+            stderr.flush();
+            synchronized (out) {
+                out.writeByte(EXIT);
+                out.writeInt(exitCode);
+                out.flush();
+            }
+        }
+        catch (IOException e) {
+            // Client disconnected; nothing to report to
+        }
+        finally {
+            done.set(true);
+        }
+    }
+
+    /**
+     * Whether the given command can be executed by the daemon. This is not the case for commands which read from
+     * stdin or would recurse, nor for commands with options about the process itself ({@code --jfr}), nor for
+     * commands with file options (e.g. {@code apply -f}, {@code --timings-json}) referring to relative paths, if the
+     * client's working directory is another one than the daemon's.
+     * <p>
+     * The arguments are matched against the given command model instead of being parsed, as parsing may already
+     * access the given files (e.g. {@code apply} reads the connector files, or stdin, while converting its options).
+     */
+    static boolean canExecute(String workingDirectory, CommandSpec commandSpec, String[] args) {
+        boolean sameDirectory = workingDirectory.equals(System.getProperty("user.dir"));
+        CommandSpec command = commandSpec;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+
+            if (arg.equals("-")) {
+                return false;
+            }
+            if (arg.equals("--")) {
+                break;
+            }
+
+            if (!arg.startsWith("-")) {
+                CommandLine subcommand = command.subcommands().get(arg);
+                if (subcommand != null) {
+                    command = subcommand.getCommandSpec();
+                    if (LOCAL_COMMANDS.contains(command.name())) {
+                        return false;
+                    }
+                }
+                continue;
+            }
+
+            int separator = arg.indexOf('=');
+            OptionSpec option = command.findOption(separator > 0 ? arg.substring(0, separator) : arg);
+            if (option == null) {
+                continue;
+            }
+            if (LOCAL_OPTIONS.contains(option.longestName())) {
+                return false;
+            }
+
+            List<String> values = new ArrayList<>();
+            if (separator > 0) {
+                values.add(arg.substring(separator + 1));
+            }
+            else {
+                while (values.size() < option.arity().max() && i + 1 < args.length && (!args[i + 1].startsWith("-") || args[i + 1].equals("-"))) {
+                    values.add(args[++i]);
+                }
+            }
+
+            if (isFileOption(option)) {
+                for (String value : values) {
+                    if (value.equals("-") || (!sameDirectory && !isAbsolute(value))) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isFileOption(OptionSpec option) {
+        if (Path.class.isAssignableFrom(option.type()) || File.class.isAssignableFrom(option.type())) {
+            return true;
+        }
+        return Arrays.stream(option.names()).anyMatch(name -> name.toLowerCase(Locale.ROOT).contains("file"));
+    }
+
+    private static boolean isAbsolute(String value) {
+        try {
+            return Path.of(value).isAbsolute();
+        }
+        catch (InvalidPathException e) {
+            return false;
+        }
+    }
+
+    // Channels.newInputStream()/newOutputStream() serialize reads and writes on the same channel, whereas the
+    // daemon reads from (for detecting disconnects) and writes to a connection at the same time
+
+    private static InputStream inputStream(SocketChannel channel) {
+        return new InputStream() {
+
+            @Override
+            public int read() throws IOException {
+                byte[] b = new byte[1];
+                return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return len == 0 ? 0 : channel.read(ByteBuffer.wrap(b, off, len));
+            }
+        };
+    }
+
+    private static OutputStream outputStream(SocketChannel channel) {
+        return new OutputStream() {
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{ (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        };
+    }
+
+    /**
+     * Sends everything written to it as a message of the given type.
+     */
+    private static class FrameOutputStream extends OutputStream {
+
+        private final DataOutputStream out;
+        private final byte type;
+
+        FrameOutputStream(DataOutputStream out, byte type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{ (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+
+            synchronized (out) {
+                out.writeByte(type);
+                out.writeInt(len);
+                out.write(b, off, len);
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * Writes to the stream of the command executed by the current thread, or to the daemon's own stream, if there is
+     * none.
+     */
+    private static class DispatchingOutputStream extends OutputStream {
+
+        private final PrintStream fallback;
+        private final Function<PrintStream[], PrintStream> selector;
+
+        DispatchingOutputStream(PrintStream fallback, Function<PrintStream[], PrintStream> selector) {
+            this.fallback = fallback;
+            this.selector = selector;
+        }
+
+        @Override
+        public void write(int b) {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            target().flush();
+        }
+
+        private PrintStream target() {
+            PrintStream[] current = streams.get();
+            return current != null ? selector.apply(current) : fallback;
+        }
+    }
+}
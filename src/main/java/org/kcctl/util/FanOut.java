@@ -0,0 +1,127 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Applies a (typically blocking, I/O-bound) function to a list of inputs concurrently, using one virtual thread
+ * per input. At most {@code parallelism} invocations are in flight at any time, so that a cluster isn't flooded
+ * with requests. Results are returned in the order of the inputs.
+ */
+public class FanOut {
+
+    private FanOut() {
+    }
+
+    /**
+     * Returns the results of applying the given function to all inputs, in the order of the inputs.
+     *
+     * @param parallelism the maximum number of concurrent invocations of the function
+     * @param timeout the maximum time a single invocation may take, once it has been started
+     * @throws CompletionException with a {@link TimeoutException} as cause, if an invocation timed out;
+     *         other runtime exceptions raised by the function are propagated as-is. In both cases, all
+     *         invocations still in flight are cancelled.
+     */
+    public static <T, R> List<R> map(List<T> inputs, int parallelism, Duration timeout, Function<? super T, ? extends R> function) {
+        return map(inputs, parallelism, timeout, function, null);
+    }
+
+    /**
+     * Returns the results of applying the given function to all inputs, in the order of the inputs. Unlike
+     * {@link #map(List, int, Duration, Function)}, a failed or timed out invocation doesn't affect the others; its
+     * result is obtained from the given recovery function instead, which receives the input and the exception.
+     *
+     * @param parallelism the maximum number of concurrent invocations of the function
+     * @param timeout the maximum time a single invocation may take, once it has been started
+     * @param recovery provides the result of a failed invocation; if {@code null}, failures are propagated as
+     *        described for {@link #map(List, int, Duration, Function)}
+     */
+    public static <T, R> List<R> map(List<T> inputs, int parallelism, Duration timeout, Function<? super T, ? extends R> function,
+                                     BiFunction<? super T, Throwable, ? extends R> recovery) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, but was " + parallelism);
+        }
+
+        Semaphore permits = new Semaphore(parallelism);
+        CompletableFuture<Void> failure = new CompletableFuture<>();
+        List<CompletableFuture<R>> results = new ArrayList<>(inputs.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                for (T input : inputs) {
+                    permits.acquire();
+
+                    // Stop submitting if an invocation failed already
+                    if (failure.isDone()) {
+                        break;
+                    }
+
+                    CompletableFuture<R> result = new CompletableFuture<>();
+                    CompletableFuture<R> outcome = recovery == null ? result : result.handle((r, e) -> e == null ? r : recovery.apply(input, e));
+                    outcome.whenComplete((r, e) -> {
+                        permits.release();
+                        if (e != null) {
+                            failure.completeExceptionally(e);
+                        }
+                    });
+                    results.add(outcome);
+
+                    Future<?> invocation = executor.submit(() -> {
+                        try {
+                            result.complete(function.apply(input));
+                        }
+                        catch (Throwable e) {
+                            result.completeExceptionally(e);
+                        }
+                    });
+                    CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+                        if (result.completeExceptionally(new TimeoutException("Processing '%s' didn't complete within %s ms".formatted(input, timeout.toMillis())))) {
+                            invocation.cancel(true);
+                        }
+                    });
+                }
+
+                CompletableFuture.anyOf(CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)), failure).join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for concurrent invocations");
+            }
+            catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+            finally {
+                // Don't leave anything running if one of the invocations failed
+                executor.shutdownNow();
+            }
+        }
+
+        List<R> values = new ArrayList<>(results.size());
+        for (CompletableFuture<R> result : results) {
+            values.add(result.join());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.function.Supplier;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JDK Flight Recorder events emitted by kcctl, and the means for recording them, along with the JVM's own
+ * events (GC, allocations, etc.), into a file. The events are emitted regardless of how the recording has been
+ * started, e.g. also when running with {@code -XX:StartFlightRecording}; they are cheap while no recording is active.
+ */
+public class FlightRecording {
+
+    private static final String CATEGORY = "kcctl";
+
+    /**
+     * The JFR configuration used for recordings started via {@link #record(Path, PrintWriter, Supplier)}; unlike
+     * "default", it includes allocation samples.
+     */
+    private static final String CONFIGURATION = "profile";
+
+    private FlightRecording() {
+    }
+
+    @Name("org.kcctl.Command")
+    @Label("Command Execution")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class CommandEvent extends Event {
+
+        @Label("Command")
+        @Description("The executed (sub-)command, e.g. \"get connectors\"")
+        public String command;
+
+        @Label("Exit Code")
+        @Description("The exit code of the command; 1 if it failed with an exception")
+        public int exitCode;
+    }
+
+    @Name("org.kcctl.RestCall")
+    @Label("REST Call")
+    @Description("A request to the Kafka Connect REST API; the duration is the time until the response headers have been received")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class RestCallEvent extends Event {
+
+        @Label("Method")
+        public String method;
+
+        @Label("Path")
+        public String path;
+
+        @Label("Endpoint")
+        @Description("The path template of the invoked client method, e.g. \"/connectors/{name}/status\"")
+        public String endpoint;
+
+        @Label("Status")
+        public int status;
+
+        @Label("Response Size")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("org.kcctl.ConfigurationRead")
+    @Label("Configuration File Read")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class ConfigurationReadEvent extends Event {
+
+        @Label("File")
+        public String file;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("org.kcctl.CacheAccess")
+    @Label("Cache Access")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class CacheAccessEvent extends Event {
+
+        @Label("Cache")
+        @Description("The accessed cache, e.g. \"requests\" or \"capabilities\"")
+        public String cache;
+
+        @Label("Key")
+        public String key;
+
+        @Label("Hit")
+        public boolean hit;
+    }
+
+    /**
+     * Emits an event for a lookup in one of kcctl's caches.
+     */
+    public static void cacheAccess(String cache, String key, boolean hit) {
+        CacheAccessEvent event = new CacheAccessEvent();
+        if (event.shouldCommit()) {
+            event.cache = cache;
+            event.key = key;
+            event.hit = hit;
+            event.commit();
+        }
+    }
+
+    /**
+     * Runs the given action while recording the events of kcctl and the JVM, writing them to the given file
+     * afterwards. Problems with the recording are reported to the given writer, without affecting the action.
+     */
+    public static <T> T record(Path file, PrintWriter err, Supplier<T> action) {
+        if (!FlightRecorder.isAvailable()) {
+            err.println("Flight recording isn't available in this build of kcctl, ignoring --jfr");
+            return action.get();
+        }
+
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(CONFIGURATION));
+        }
+        catch (IOException | ParseException e) {
+            err.println("Couldn't load JFR configuration '" + CONFIGURATION + "': " + e.getMessage());
+            recording = new Recording();
+        }
+
+        try (Recording active = recording) {
+            active.setName(CATEGORY);
+            active.start();
+
+            try {
+                return action.get();
+            }
+            finally {
+                active.stop();
+                try {
+                    active.dump(file);
+                }
+                catch (IOException e) {
+                    err.println("Couldn't write flight recording to " + file + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A block of lines on the terminal which is updated in place, e.g. for watching the state of connectors. Upon each
+ * update, only the lines which differ from the ones currently shown are rewritten, using ANSI cursor movements;
+ * all other lines are skipped, so that the terminal doesn't flicker and little output is produced for large tables.
+ * <p>
+ * Lines scrolled out of the terminal can't be reached by cursor movements, and wrapped lines would take up more rows
+ * than accounted for, so views taller than the terminal are cut off and lines wider than it are truncated. If the
+ * size of the terminal is unknown, the screen is cleared and the view is redrawn entirely upon each update instead.
+ * If the output doesn't go to a terminal at all, each update is appended without any ANSI control sequences.
+ */
+public class LiveView {
+
+    // ANSI escape sequence
+    private static final String E = "\u001B[";
+    private static final String CLEAR_LINE = E + "2K";
+    private static final String CLEAR_TO_END_OF_SCREEN = E + "J";
+    private static final String CLEAR_SCREEN = E + "H" + E + "2J";
+
+    private final PrintWriter out;
+    private final boolean terminal;
+    private final int height;
+    private final int width;
+    private List<String> shown;
+
+    /**
+     * @param terminal whether the output goes to a terminal
+     * @param height the number of rows of the terminal; 0 if unknown
+     * @param width the number of columns of the terminal; 0 if unknown
+     */
+    public LiveView(PrintWriter out, boolean terminal, int height, int width) {
+        this.out = out;
+        this.terminal = terminal;
+        this.height = height;
+        this.width = width;
+    }
+
+    /**
+     * Returns a view for the output of the current command. The terminal size is taken from the {@code LINES} and
+     * {@code COLUMNS} environment variables, if exported by the shell; it is unknown when executed by the daemon, as
+     * its environment isn't the one of the client.
+     */
+    public static LiveView forCommand(PrintWriter out) {
+        if (!Daemon.isTerminal()) {
+            return new LiveView(out, false, 0, 0);
+        }
+        if (Daemon.isHosted()) {
+            return new LiveView(out, true, 0, 0);
+        }
+        return new LiveView(out, true, environmentSize("LINES"), environmentSize("COLUMNS"));
+    }
+
+    /**
+     * Replaces the currently shown lines with the given ones. Expects the cursor to be located at the start of the
+     * line following the view, which also is where it is located after this method returns.
+     */
+    public void update(List<String> lines) {
+        if (!terminal) {
+            append(lines);
+            return;
+        }
+        if (height <= 0 || width <= 0) {
+            redraw(lines);
+            return;
+        }
+
+        lines = fit(lines);
+        StringBuilder sb = new StringBuilder();
+
+        if (shown != null && !shown.isEmpty()) {
+            sb.append(E).append(shown.size()).append('A');
+        }
+
+        int unchanged = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+
+            if (shown != null && i < shown.size() && shown.get(i).equals(line)) {
+                unchanged++;
+                continue;
+            }
+
+            if (unchanged > 0) {
+                sb.append(E).append(unchanged).append('B');
+                unchanged = 0;
+            }
+            sb.append('\r').append(CLEAR_LINE).append(line).append('\n');
+        }
+
+        if (unchanged > 0) {
+            sb.append(E).append(unchanged).append('B');
+        }
+
+        // Removes the remainder of a previously shown, longer view
+        if (shown != null && shown.size() > lines.size()) {
+            sb.append(CLEAR_TO_END_OF_SCREEN);
+        }
+
+        out.print(sb);
+        out.flush();
+        shown = List.copyOf(lines);
+    }
+
+    /**
+     * Cuts off the given lines, so that they and the line with the cursor below them fit into the terminal, and
+     * truncates them to its width.
+     */
+    private List<String> fit(List<String> lines) {
+        int maxLines = Math.max(height - 1, 1);
+
+        List<String> fitting = new ArrayList<>();
+        for (String line : lines.size() <= maxLines ? lines : lines.subList(0, maxLines - 1)) {
+            fitting.add(truncate(line, width));
+        }
+        if (lines.size() > maxLines) {
+            fitting.add(truncate("... %d more line(s), enlarge the terminal for seeing them".formatted(lines.size() - fitting.size()), width));
+        }
+
+        return fitting;
+    }
+
+    /**
+     * Truncates the given line to less than the given number of columns, so that the terminal never wraps it, not
+     * even when it wraps as soon as the last column has been written. ANSI escape sequences don't take up any
+     * columns; if the line is truncated after one, the attributes are reset.
+     */
+    static String truncate(String line, int width) {
+        int maxColumns = Math.max(width - 1, 1);
+        StringBuilder sb = new StringBuilder();
+        boolean escaped = false;
+        int columns = 0;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (c == '\u001B' && i + 1 < line.length() && line.charAt(i + 1) == '[') {
+                // Control sequence: ESC [, parameters, final byte in the range @ to ~
+                int end = i + 2;
+                while (end < line.length() && (line.charAt(end) < '@' || line.charAt(end) > '~')) {
+                    end++;
+                }
+                end = Math.min(end, line.length() - 1);
+                sb.append(line, i, end + 1);
+                escaped = true;
+                i = end;
+                continue;
+            }
+
+            if (columns == maxColumns) {
+                return escaped ? sb.append(Colors.ANSI_RESET).toString() : sb.toString();
+            }
+            sb.append(c);
+            columns++;
+        }
+
+        return line;
+    }
+
+    private void redraw(List<String> lines) {
+        StringBuilder sb = new StringBuilder(CLEAR_SCREEN);
+        for (String line : lines) {
+            sb.append(line).append('\n');
+        }
+
+        out.print(sb);
+        out.flush();
+        shown = List.copyOf(lines);
+    }
+
+    private void append(List<String> lines) {
+        for (String line : lines) {
+            out.println(line);
+        }
+        out.flush();
+        shown = List.copyOf(lines);
+    }
+
+    private static int environmentSize(String variable) {
+        try {
+            String value = System.getenv(variable);
+            return value != null ? Math.max(Integer.parseInt(value.trim()), 0) : 0;
+        }
+        catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Writes rows as newline-delimited JSON (one JSON object per line), e.g. for processing them with {@code jq}.
+ * Each row is written and flushed as soon as it has been obtained from the given iterator, so that consumers can
+ * start processing right away, and no row is held in memory after it has been written.
+ */
+public class NdjsonRenderer {
+
+    private static final ObjectMapper mapper = JsonMapper.builder().build();
+
+    private NdjsonRenderer() {
+    }
+
+    public static void render(Iterator<?> rows, PrintWriter out) {
+        ObjectWriter writer = mapper.writer();
+        try {
+            while (rows.hasNext()) {
+                out.println(writer.writeValueAsString(rows.next()));
+                out.flush();
+            }
+        }
+        catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Couldn't write JSON output", e);
+        }
+    }
+
+    public static void render(Iterable<?> rows, PrintWriter out) {
+        render(rows.iterator(), out);
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * Collects the output of one of several concurrently running operations and writes it to the shared target at once
+ * when closed, so that the output of the operations isn't interleaved.
+ */
+public class OutputBuffer implements AutoCloseable {
+
+    private final PrintWriter target;
+    private final StringWriter buffer = new StringWriter();
+    private final PrintWriter writer = new PrintWriter(buffer);
+
+    public OutputBuffer(PrintWriter target) {
+        this.target = target;
+    }
+
+    /**
+     * Returns the writer for the output of the operation.
+     */
+    public PrintWriter writer() {
+        return writer;
+    }
+
+    @Override
+    public void close() {
+        writer.flush();
+        synchronized (target) {
+            target.print(buffer);
+            target.flush();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.kcctl.service.ConnectorStatusInfo;
+import org.kcctl.service.TaskState;
+
+/**
+ * Splits the restart of connectors and tasks into waves, either one wave per Kafka Connect worker (restarting the
+ * connector and task instances located on that worker), or waves comprising a given percentage of all instances, so
+ * that only a part of the cluster's capacity is affected at any time, and awaiting the restart of each wave.
+ */
+public class RollingRestart {
+
+    public static final String PER_WORKER = "worker";
+
+    /**
+     * How long the waiting for a wave trusts a RUNNING state without having seen the unit leave that state after
+     * the restart; the status of a restarted instance may be updated only after the restart request has returned.
+     */
+    public static final Duration SETTLE_PERIOD = Duration.ofSeconds(2);
+
+    private static final String RUNNING = "RUNNING";
+
+    /**
+     * The target states other than RUNNING; connectors in these states, and their tasks, stay in them when being
+     * restarted, so they'd never get RUNNING again.
+     */
+    private static final Set<String> INACTIVE_STATES = Set.of("PAUSED", "STOPPED");
+    private static final String UNASSIGNED = "unassigned";
+
+    /**
+     * A connector instance ({@code task} is {@code null}) or task to be restarted.
+     */
+    public record Unit(String connector, Integer task, String workerId) {
+
+        /**
+         * Returns the name of the connector, or of the task in the form used by the {@code restart task} command.
+         */
+        public String name() {
+            return task == null ? connector : connector + "/" + task;
+        }
+
+        /**
+         * Returns the state of this unit in the given status of its connector; {@code null} if the connector or
+         * task isn't listed.
+         */
+        String state(ConnectorStatusInfo status) {
+            if (status == null) {
+                return null;
+            }
+            if (task == null) {
+                return status.connector() != null ? status.connector().state() : null;
+            }
+            if (status.tasks() == null) {
+                return null;
+            }
+            return status.tasks().stream()
+                    .filter(t -> t.id() == task)
+                    .map(TaskState::state)
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        private String describe() {
+            return task == null ? "Connector " + connector : "Task " + name();
+        }
+    }
+
+    public record Wave(String description, List<Unit> units) {
+    }
+
+    private RollingRestart() {
+    }
+
+    /**
+     * Whether the given connector is restarted by a rolling restart, i.e. it isn't paused or stopped.
+     */
+    public static boolean isRestartable(ConnectorStatusInfo status) {
+        return status.connector() == null || !INACTIVE_STATES.contains(status.connector().state());
+    }
+
+    /**
+     * Returns the waves for restarting the given connectors; paused and stopped connectors and tasks are left out.
+     *
+     * @param tasks selects the tasks to restart, besides the connectors themselves; {@code null} for restarting no tasks
+     * @param waveSize {@link #PER_WORKER} or a percentage of all units, e.g. "25%"
+     * @throws IllegalArgumentException if the wave size is invalid
+     */
+    public static List<Wave> plan(Collection<ConnectorStatusInfo> statuses, Predicate<TaskState> tasks, String waveSize) {
+        List<Unit> units = new ArrayList<>();
+        for (ConnectorStatusInfo status : statuses) {
+            if (!isRestartable(status)) {
+                continue;
+            }
+
+            units.add(new Unit(status.name(), null, status.connector() != null ? workerId(status.connector().worker_id()) : UNASSIGNED));
+
+            if (tasks != null && status.tasks() != null) {
+                for (TaskState task : status.tasks()) {
+                    if (tasks.test(task) && !INACTIVE_STATES.contains(task.state())) {
+                        units.add(new Unit(status.name(), task.id(), workerId(task.worker_id())));
+                    }
+                }
+            }
+        }
+
+        // Units of the same worker are adjacent, so that percentage-based waves affect as few workers as possible
+        units.sort(Comparator.comparing(Unit::workerId)
+                .thenComparing(Unit::connector)
+                .thenComparing(unit -> unit.task() == null ? -1 : unit.task()));
+
+        if (PER_WORKER.equals(waveSize)) {
+            Map<String, List<Unit>> byWorker = new TreeMap<>();
+            for (Unit unit : units) {
+                byWorker.computeIfAbsent(unit.workerId(), w -> new ArrayList<>()).add(unit);
+            }
+
+            return byWorker.entrySet().stream()
+                    .map(e -> new Wave("worker " + e.getKey(), List.copyOf(e.getValue())))
+                    .toList();
+        }
+
+        int percentage = parsePercentage(waveSize);
+        int size = Math.max(1, (int) Math.ceil(units.size() * percentage / 100.0));
+
+        List<Wave> waves = new ArrayList<>();
+        for (int i = 0; i < units.size(); i += size) {
+            List<Unit> wave = units.subList(i, Math.min(i + size, units.size()));
+            waves.add(new Wave(wave.size() + " instance(s)", List.copyOf(wave)));
+        }
+
+        return waves;
+    }
+
+    /**
+     * Waits until the given restarted units are RUNNING again, or the timeout has elapsed. Only the given units are
+     * considered, e.g. not the tasks of a connector whose connector instance has been restarted. As the status of a
+     * unit may still be the one from before the restart, a unit only counts as restarted once it has been seen in
+     * another state than RUNNING (e.g. RESTARTING, UNASSIGNED, or not being listed), or at the latest after the
+     * given settle period.
+     *
+     * @param statuses returns the current status of the given connectors; a failed poll is retried with the next
+     *        backoff step
+     * @return the units which are RUNNING again
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static Set<Unit> awaitRunning(Collection<Unit> units, Function<Set<String>, Map<String, ConnectorStatusInfo>> statuses, Duration settlePeriod,
+                                         Duration timeout, PrintWriter out, PrintWriter err)
+            throws InterruptedException {
+        Set<Unit> pending = new LinkedHashSet<>(units);
+        Set<Unit> left = new HashSet<>();
+        Set<Unit> running = new LinkedHashSet<>();
+        Map<Unit, String> lastSeen = new HashMap<>();
+
+        long start = System.nanoTime();
+        long settled = start + settlePeriod.toNanos();
+        long deadline = start + timeout.toNanos();
+        long delay = ConnectorStateWaiter.INITIAL_DELAY.toNanos();
+
+        while (!pending.isEmpty()) {
+            Set<String> connectors = pending.stream().map(Unit::connector).collect(Collectors.toSet());
+            Map<String, ConnectorStatusInfo> current = ConnectorStateWaiter.poll(statuses, connectors, err);
+            long now = System.nanoTime();
+
+            for (Unit unit : current != null ? List.copyOf(pending) : List.<Unit> of()) {
+                String state = unit.state(current.get(unit.connector()));
+                lastSeen.put(unit, state);
+
+                if (!RUNNING.equals(state)) {
+                    left.add(unit);
+                }
+                else if (left.contains(unit) || now >= settled) {
+                    pending.remove(unit);
+                    running.add(unit);
+                    out.println("%s is RUNNING again after %.2f s".formatted(unit.describe(), (now - start) / 1_000_000_000.0));
+                    out.flush();
+                }
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (pending.isEmpty() || remaining <= 0) {
+                break;
+            }
+
+            // Poll again right when the settle period is over, rather than only after the next backoff step
+            long sleep = Math.min(delay, remaining);
+            long untilSettled = settled - System.nanoTime();
+            if (untilSettled > 0) {
+                sleep = Math.min(sleep, untilSettled);
+            }
+            TimeUnit.NANOSECONDS.sleep(sleep);
+            delay = Math.min(delay * 2, ConnectorStateWaiter.MAX_DELAY.toNanos());
+        }
+
+        for (Unit unit : pending) {
+            String state = lastSeen.get(unit);
+            err.println("%s didn't get RUNNING again within %d s (%s)".formatted(unit.describe(), timeout.toSeconds(),
+                    state == null ? "status unknown" : state));
+        }
+        err.flush();
+
+        return running;
+    }
+
+    private static int parsePercentage(String waveSize) {
+        if (waveSize == null || !waveSize.matches("\\d{1,3}%")) {
+            throw new IllegalArgumentException("Invalid wave size '" + waveSize + "', expecting '" + PER_WORKER + "' or a percentage such as '25%'");
+        }
+
+        int percentage = Integer.parseInt(waveSize.substring(0, waveSize.length() - 1));
+        if (percentage < 1 || percentage > 100) {
+            throw new IllegalArgumentException("Invalid wave size '" + waveSize + "', the percentage must be between 1 and 100");
+        }
+
+        return percentage;
+    }
+
+    private static String workerId(String workerId) {
+        return Strings.isBlank(workerId) ? UNASSIGNED : workerId;
+    }
+}
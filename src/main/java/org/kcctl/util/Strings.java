@@ -9,6 +9,8 @@ package org.kcctl.util;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 public class Strings {
@@ -34,4 +36,66 @@ public class Strings {
             return properties;
         }
     }
+
+    /**
+     * Splits a command line into its arguments like a POSIX shell would do it, honoring single quotes, double quotes
+     * and backslash escapes, but without any expansions.
+     *
+     * @throws IllegalArgumentException if a quote isn't closed
+     */
+    public static List<String> splitArguments(String line) {
+        List<String> arguments = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inArgument = false;
+        char quote = 0;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quote == '\'') {
+                if (c == '\'') {
+                    quote = 0;
+                }
+                else {
+                    current.append(c);
+                }
+            }
+            else if (c == '\\' && i + 1 < line.length() && (quote == 0 || "\"\\$`".indexOf(line.charAt(i + 1)) >= 0)) {
+                current.append(line.charAt(++i));
+                inArgument = true;
+            }
+            else if (quote == '"') {
+                if (c == '"') {
+                    quote = 0;
+                }
+                else {
+                    current.append(c);
+                }
+            }
+            else if (c == '\'' || c == '"') {
+                quote = c;
+                inArgument = true;
+            }
+            else if (Character.isWhitespace(c)) {
+                if (inArgument) {
+                    arguments.add(current.toString());
+                    current.setLength(0);
+                    inArgument = false;
+                }
+            }
+            else {
+                current.append(c);
+                inArgument = true;
+            }
+        }
+
+        if (quote != 0) {
+            throw new IllegalArgumentException("Unclosed quote (" + quote + ") in: " + line);
+        }
+        if (inArgument) {
+            arguments.add(current.toString());
+        }
+
+        return arguments;
+    }
 }
@@ -0,0 +1,33 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.util.Locale;
+
+/**
+ * The output formats of the commands listing resources, such as {@code get connectors}.
+ */
+public enum TableFormat {
+    TEXT("text"),
+    NDJSON("ndjson");
+
+    public final String name;
+
+    TableFormat(String name) {
+        this.name = name;
+    }
+
+    public static TableFormat forName(String name) {
+        return TableFormat.valueOf(name.toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
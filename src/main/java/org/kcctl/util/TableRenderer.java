@@ -0,0 +1,167 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Renders rows as a table without borders, in the same layout as {@code AsciiTable} with
+ * {@code AsciiTable.NO_BORDERS} and left-aligned columns. Unlike the latter, the table isn't assembled as one
+ * string: once the column widths have been determined, each line is written to the output directly. Cells are
+ * colored while being written, by means of a per-column style function, which is applied to the plain cell text
+ * (without leading spaces) only, so that escape sequences don't affect the alignment.
+ */
+public class TableRenderer<T> {
+
+    private static final int PADDING = 1;
+
+    private final List<RenderedColumn<T>> columns = new ArrayList<>();
+
+    private record RenderedColumn<T>(String header, Function<T,String>value,
+    UnaryOperator<String> style,
+    int maxWidth)
+    {
+    }
+
+    public TableRenderer<T> column(String header, Function<T, String> value) {
+        return column(header, value, UnaryOperator.identity());
+    }
+
+    public TableRenderer<T> column(String header, Function<T, String> value, UnaryOperator<String> style) {
+        return column(header, value, style, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Adds a column.
+     *
+     * @param maxWidth the maximum width of the column, including the padding; longer values are wrapped
+     */
+    public TableRenderer<T> column(String header, Function<T, String> value, UnaryOperator<String> style, int maxWidth) {
+        columns.add(new RenderedColumn<>(header, value, style, maxWidth));
+        return this;
+    }
+
+    /**
+     * Writes the table for the given rows. The values of each row are obtained twice (for determining the column
+     * widths and for writing), so that no copy of the table data needs to be held in memory.
+     */
+    public void render(Iterable<T> rows, PrintWriter out) {
+        int[] widths = new int[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            widths[i] = Math.min(columns.get(i).header().length(), columns.get(i).maxWidth() - 2 * PADDING);
+        }
+
+        for (T row : rows) {
+            for (int i = 0; i < columns.size(); i++) {
+                RenderedColumn<T> column = columns.get(i);
+                for (String line : lines(column.value().apply(row))) {
+                    widths[i] = Math.max(widths[i], Math.min(line.length(), column.maxWidth() - 2 * PADDING));
+                }
+            }
+        }
+
+        List<List<String>> header = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            header.add(wrap(columns.get(i).header(), widths[i]));
+        }
+        writeRow(header, widths, false, out);
+
+        for (T row : rows) {
+            List<List<String>> cells = new ArrayList<>(columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                cells.add(wrap(columns.get(i).value().apply(row), widths[i]));
+            }
+
+            out.println();
+            writeRow(cells, widths, true, out);
+        }
+
+        // Same as AsciiTable, which ends an empty table with a line break
+        if (!rows.iterator().hasNext()) {
+            out.println();
+        }
+    }
+
+    private void writeRow(List<List<String>> cells, int[] widths, boolean styled, PrintWriter out) {
+        int height = cells.stream().mapToInt(List::size).max().orElse(1);
+
+        for (int line = 0; line < height; line++) {
+            if (line > 0) {
+                out.println();
+            }
+
+            for (int i = 0; i < cells.size(); i++) {
+                String text = line < cells.get(i).size() ? cells.get(i).get(line) : "";
+
+                out.print(' ');
+                if (styled) {
+                    // Leading spaces are used for separating columns, they are not part of the value to style
+                    int valueStart = 0;
+                    while (valueStart < text.length() && text.charAt(valueStart) == ' ') {
+                        out.print(' ');
+                        valueStart++;
+                    }
+                    if (valueStart < text.length()) {
+                        out.print(columns.get(i).style().apply(text.substring(valueStart)));
+                    }
+                }
+                else {
+                    out.print(text);
+                }
+                for (int pad = text.length(); pad < widths[i] + PADDING; pad++) {
+                    out.print(' ');
+                }
+            }
+        }
+    }
+
+    private static String[] lines(String value) {
+        return value == null ? new String[]{ "" } : value.split("\n", -1);
+    }
+
+    /**
+     * Splits the given value into lines of at most the given width, breaking at spaces where possible.
+     */
+    static List<String> wrap(String value, int width) {
+        List<String> result = new ArrayList<>();
+        width = Math.max(width, 1);
+
+        for (String line : lines(value)) {
+            if (line.length() <= width) {
+                result.add(line);
+                continue;
+            }
+
+            StringBuilder current = null;
+            for (String word : line.split(" ", -1)) {
+                if (current == null) {
+                    current = new StringBuilder(word);
+                }
+                else if (current.length() + 1 + word.length() <= width) {
+                    current.append(' ').append(word);
+                }
+                else {
+                    result.add(current.toString());
+                    current = new StringBuilder(word);
+                }
+
+                while (current.length() > width) {
+                    result.add(current.substring(0, width));
+                    current.delete(0, width);
+                }
+            }
+            result.add(current.toString());
+        }
+
+        return result;
+    }
+}
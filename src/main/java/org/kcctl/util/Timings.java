@@ -0,0 +1,334 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Records where the time of a command execution goes: the phases of the execution (e.g. reading the configuration
+ * file or detecting the Kafka Connect version) as well as each REST request, for reporting them as a timeline and
+ * per-endpoint latency percentiles, or as JSON.
+ * <p>
+ * Recording only takes place while a recorder has been {@link #start() started} for the current thread (and the
+ * threads it starts); otherwise, {@link #span(String)} and {@link #current()} are no-ops. Phases of the first
+ * execution in a process which take place before the recorder is started (e.g. the configuration file being read
+ * while setting up the command line) are attributed to that execution, unless the process
+ * {@link #hostingCommands() hosts multiple executions}.
+ */
+public class Timings {
+
+    public static final String STARTUP = "startup";
+    public static final String COMMAND = "command";
+
+    private static final InheritableThreadLocal<Timings> current = new InheritableThreadLocal<>();
+
+    /**
+     * The start of derived phases, e.g. the total time spent in requests.
+     */
+    private static final long NO_START = Long.MIN_VALUE;
+
+    private static final int MAX_EARLY_PHASES = 32;
+    private static final List<Phase> earlyPhases = new ArrayList<>();
+    private static final AtomicBoolean started = new AtomicBoolean();
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final List<Phase> phases = new ArrayList<>();
+    private final List<Request> requests = new ArrayList<>();
+    private final Timings previous;
+    private final long origin;
+
+    public record Phase(String name, long startNanos, long durationNanos) {
+
+        long endNanos() {
+            return startNanos + durationNanos;
+        }
+    }
+
+    /**
+     * A REST request; the number of response bytes is updated while the response is read.
+     */
+    public record Request(String method, String path, String endpoint, int status, long startNanos, long durationNanos, LongAdder bytes) {
+    }
+
+    /**
+     * Measures a phase until closed.
+     */
+    public interface Span extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    private Timings(Timings previous, long origin) {
+        this.previous = previous;
+        this.origin = origin;
+    }
+
+    /**
+     * Disables attributing the JVM startup and the phases before the first recording to that recording, for
+     * processes hosting multiple command executions (the daemon, the shell, scripts); there, the first execution
+     * recording its timings may take place long after the process has been started.
+     */
+    public static void hostingCommands() {
+        if (started.compareAndSet(false, true)) {
+            synchronized (earlyPhases) {
+                earlyPhases.clear();
+            }
+        }
+    }
+
+    /**
+     * Starts recording for the current thread; must be followed by {@link #stop()}.
+     */
+    public static Timings start() {
+        long now = System.nanoTime();
+        Timings timings;
+
+        if (started.compareAndSet(false, true)) {
+            // The first execution in this process also accounts for the JVM startup
+            long jvmStart = now - ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000;
+            timings = new Timings(current.get(), jvmStart);
+
+            synchronized (earlyPhases) {
+                long startupEnd = earlyPhases.stream().mapToLong(Phase::startNanos).min().orElse(now);
+                timings.phases.add(new Phase(STARTUP, jvmStart, startupEnd - jvmStart));
+                timings.phases.addAll(earlyPhases);
+                earlyPhases.clear();
+            }
+        }
+        else {
+            timings = new Timings(current.get(), now);
+        }
+
+        current.set(timings);
+        return timings;
+    }
+
+    /**
+     * Stops recording for the current thread, resuming the recorder of an enclosing execution, if any.
+     */
+    public void stop() {
+        current.set(previous);
+    }
+
+    /**
+     * Returns the recorder of the current thread, or {@code null} if there is none.
+     */
+    public static Timings current() {
+        return current.get();
+    }
+
+    /**
+     * Starts measuring the given phase, e.g. {@code try (Span span = Timings.span("read configuration")) { ... }}.
+     */
+    public static Span span(String name) {
+        Timings timings = current.get();
+        if (timings == null && started.get()) {
+            return () -> {
+            };
+        }
+
+        long start = System.nanoTime();
+        return () -> {
+            Phase phase = new Phase(name, start, System.nanoTime() - start);
+            if (timings != null) {
+                timings.addPhase(phase);
+            }
+            else {
+                synchronized (earlyPhases) {
+                    if (!started.get() && earlyPhases.size() < MAX_EARLY_PHASES) {
+                        earlyPhases.add(phase);
+                    }
+                }
+            }
+        };
+    }
+
+    public synchronized void addPhase(Phase phase) {
+        phases.add(phase);
+    }
+
+    public synchronized Request addRequest(String method, String path, String endpoint, int status, long startNanos, long durationNanos) {
+        Request request = new Request(method, path, endpoint, status, startNanos, durationNanos, new LongAdder());
+        requests.add(request);
+        return request;
+    }
+
+    public synchronized List<Phase> phases() {
+        return List.copyOf(phases);
+    }
+
+    public synchronized List<Request> requests() {
+        return List.copyOf(requests);
+    }
+
+    /**
+     * Prints the timeline of the phases and the requests, followed by the latency percentiles per endpoint.
+     */
+    public void print(PrintWriter out) {
+        List<Phase> timeline = timeline();
+
+        out.println();
+        new TableRenderer<Phase>()
+                .column("PHASE", Phase::name)
+                .column(" START (ms)", phase -> phase.startNanos() == NO_START ? " -" : " " + millis(phase.startNanos() - origin))
+                .column(" DURATION (ms)", phase -> " " + millis(phase.durationNanos()))
+                .render(timeline, out);
+        out.println();
+
+        List<EndpointReport> endpoints = endpoints();
+        if (!endpoints.isEmpty()) {
+            out.println();
+            new TableRenderer<EndpointReport>()
+                    .column("ENDPOINT", EndpointReport::endpoint)
+                    .column(" REQUESTS", endpoint -> " " + endpoint.requests())
+                    .column(" P50 (ms)", endpoint -> " " + endpoint.p50Millis())
+                    .column(" P99 (ms)", endpoint -> " " + endpoint.p99Millis())
+                    .column(" MAX (ms)", endpoint -> " " + endpoint.maxMillis())
+                    .column(" BYTES", endpoint -> " " + endpoint.bytes())
+                    .render(endpoints, out);
+            out.println();
+        }
+
+        out.println();
+        out.flush();
+    }
+
+    /**
+     * Writes the phases, the endpoint statistics and all the requests as JSON to the given file.
+     */
+    public void writeJson(Path file) throws IOException {
+        List<PhaseReport> phaseReports = timeline().stream()
+                .map(phase -> new PhaseReport(phase.name(), phase.startNanos() == NO_START ? null : millis(phase.startNanos() - origin), millis(phase.durationNanos())))
+                .toList();
+        List<RequestReport> requestReports = requests().stream()
+                .map(request -> new RequestReport(request.method(), request.path(), request.endpoint(), request.status(),
+                        millis(request.startNanos() - origin), millis(request.durationNanos()), request.bytes().sum()))
+                .toList();
+
+        mapper.writeValue(file.toFile(), new Report(phaseReports, endpoints(), requestReports));
+    }
+
+    /**
+     * Returns the recorded phases ordered by their start, along with one phase for the time spent in requests (the
+     * wall time during which at least one request was in flight) and one for the remaining time of the command
+     * (e.g. processing and rendering), which have no start.
+     */
+    List<Phase> timeline() {
+        List<Phase> timeline = new ArrayList<>(phases());
+        timeline.sort(Comparator.comparingLong(Phase::startNanos));
+
+        List<Request> requests = requests();
+        if (!requests.isEmpty()) {
+            List<Phase> intervals = requests.stream()
+                    .map(request -> new Phase(request.endpoint(), request.startNanos(), request.durationNanos()))
+                    .toList();
+            timeline.add(new Phase("requests (" + requests.size() + ")", NO_START, covered(intervals, Long.MIN_VALUE, Long.MAX_VALUE)));
+        }
+
+        Phase command = timeline.stream().filter(phase -> phase.name().equals(COMMAND)).findFirst().orElse(null);
+        if (command != null) {
+            List<Phase> busy = new ArrayList<>();
+            phases().stream()
+                    .filter(phase -> !phase.name().equals(COMMAND) && !phase.name().equals(STARTUP))
+                    .forEach(busy::add);
+            requests.forEach(request -> busy.add(new Phase(request.endpoint(), request.startNanos(), request.durationNanos())));
+
+            long other = command.durationNanos() - covered(busy, command.startNanos(), command.endNanos());
+            timeline.add(new Phase("processing and rendering", NO_START, Math.max(other, 0)));
+        }
+
+        return timeline;
+    }
+
+    /**
+     * Returns the latency statistics per endpoint, ordered by endpoint.
+     */
+    List<EndpointReport> endpoints() {
+        Map<String, List<Request>> byEndpoint = new TreeMap<>();
+        for (Request request : requests()) {
+            byEndpoint.computeIfAbsent(request.method() + " " + request.endpoint(), e -> new ArrayList<>()).add(request);
+        }
+
+        List<EndpointReport> reports = new ArrayList<>();
+        byEndpoint.forEach((endpoint, requests) -> {
+            long[] durations = requests.stream().mapToLong(Request::durationNanos).sorted().toArray();
+            long bytes = requests.stream().mapToLong(request -> request.bytes().sum()).sum();
+
+            reports.add(new EndpointReport(endpoint, requests.size(), millis(percentile(durations, 50)), millis(percentile(durations, 99)),
+                    millis(durations[durations.length - 1]), bytes));
+        });
+
+        return reports;
+    }
+
+    /**
+     * Returns the given percentile of the given sorted values, using the nearest-rank method.
+     */
+    static long percentile(long[] sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * Returns the time within the given bounds covered by at least one of the given intervals.
+     */
+    private static long covered(List<Phase> intervals, long from, long to) {
+        List<Phase> sorted = new ArrayList<>(intervals);
+        sorted.sort(Comparator.comparingLong(Phase::startNanos));
+
+        long covered = 0;
+        long end = from;
+        for (Phase interval : sorted) {
+            long start = Math.max(interval.startNanos(), end);
+            long intervalEnd = Math.min(interval.endNanos(), to);
+            if (intervalEnd > start) {
+                covered += intervalEnd - start;
+                end = intervalEnd;
+            }
+        }
+
+        return covered;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    @RegisterForReflection
+    record EndpointReport(String endpoint, int requests, double p50Millis, double p99Millis, double maxMillis, long bytes) {
+    }
+
+    @RegisterForReflection
+    record PhaseReport(String name, Double startMillis, double durationMillis) {
+    }
+
+    @RegisterForReflection
+    record RequestReport(String method, String path, String endpoint, int status, double startMillis, double durationMillis, long bytes) {
+    }
+
+    @RegisterForReflection
+    record Report(List<PhaseReport> phases, List<EndpointReport> endpoints, List<RequestReport> requests) {
+    }
+}
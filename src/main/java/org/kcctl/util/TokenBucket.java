@@ -0,0 +1,57 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the rate of operations to a given number per second. Up to one second worth of operations may be
+ * started at once (e.g. after a pause), any further operations are spread evenly.
+ */
+class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double ratePerSecond;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param ratePerSecond the maximum number of operations per second; 0 or less for no limit
+     */
+    TokenBucket(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+        this.capacity = Math.max(1, ratePerSecond);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Blocks until an operation may be started.
+     */
+    synchronized void acquire() throws InterruptedException {
+        if (ratePerSecond <= 0) {
+            return;
+        }
+
+        while (true) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerSecond / NANOS_PER_SECOND);
+            lastRefill = now;
+
+            if (tokens >= 1) {
+                tokens--;
+                return;
+            }
+
+            long waitNanos = (long) Math.ceil((1 - tokens) * NANOS_PER_SECOND / ratePerSecond);
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
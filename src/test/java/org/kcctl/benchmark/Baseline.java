@@ -0,0 +1,135 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * The stored results of a previous benchmark run, for flagging regressions. Request and byte counts are
+ * deterministic for a given fleet and are compared (almost) strictly, so that additional requests per connector
+ * are caught; they are kept in the committed baseline. Wall time and memory depend on the machine, so they are only
+ * compared, with a tolerance, to a baseline recorded on the same machine. Metrics which aren't recorded in a baseline
+ * (0) aren't compared.
+ */
+class Baseline {
+
+    /**
+     * The result of running one scenario against a fleet of the given size.
+     */
+    record Measurement(String scenario, int connectors, long wallTimeMillis, long requests, long bytes, long peakRssKb) {
+
+        String key() {
+            return scenario + "@" + connectors;
+        }
+
+        /**
+         * Returns the metrics which don't depend on the machine, i.e. request and byte counts.
+         */
+        Measurement counts() {
+            return new Measurement(scenario, connectors, 0, requests, bytes, 0);
+        }
+
+        /**
+         * Returns the metrics which depend on the machine, i.e. wall time and peak RSS.
+         */
+        Measurement resources() {
+            return new Measurement(scenario, connectors, wallTimeMillis, 0, 0, peakRssKb);
+        }
+    }
+
+    /**
+     * Tolerances as share of the baseline value, e.g. 0.5 for accepting an increase by 50%.
+     */
+    record Tolerances(double wallTime, double bytes, double peakRss) {
+    }
+
+    /**
+     * Absolute increase of wall time which is always accepted, as short runs vary a lot relatively.
+     */
+    static final long WALL_TIME_SLACK_MILLIS = 250;
+
+    // Metrics which aren't recorded are left out
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .setSerializationInclusion(JsonInclude.Include.NON_DEFAULT);
+
+    private final Map<String, Measurement> measurements;
+
+    Baseline(List<Measurement> measurements) {
+        this.measurements = measurements.stream().collect(Collectors.toMap(Measurement::key, Function.identity(), (a, b) -> b));
+    }
+
+    static Baseline read(Path file) {
+        if (!Files.exists(file)) {
+            return new Baseline(List.of());
+        }
+
+        try {
+            return new Baseline(MAPPER.readValue(file.toFile(), new TypeReference<List<Measurement>>() {
+            }));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void write(Path file, List<Measurement> measurements) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            MAPPER.writeValue(file.toFile(), measurements);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Measurement get(Measurement current) {
+        return measurements.get(current.key());
+    }
+
+    /**
+     * Returns descriptions of all the regressions of the given measurement compared to the baseline; none if there
+     * is no baseline for its scenario and fleet size.
+     */
+    List<String> regressions(Measurement current, Tolerances tolerances) {
+        Measurement baseline = get(current);
+        List<String> regressions = new ArrayList<>();
+        if (baseline == null) {
+            return regressions;
+        }
+
+        if (baseline.requests() > 0 && current.requests() > baseline.requests()) {
+            regressions.add("%s: %d requests instead of %d".formatted(current.key(), current.requests(), baseline.requests()));
+        }
+        if (baseline.bytes() > 0 && current.bytes() > baseline.bytes() * (1 + tolerances.bytes())) {
+            regressions.add("%s: %d bytes instead of %d".formatted(current.key(), current.bytes(), baseline.bytes()));
+        }
+        if (baseline.wallTimeMillis() > 0
+                && current.wallTimeMillis() > Math.max(baseline.wallTimeMillis() * (1 + tolerances.wallTime()), baseline.wallTimeMillis() + WALL_TIME_SLACK_MILLIS)) {
+            regressions.add("%s: %d ms instead of %d ms".formatted(current.key(), current.wallTimeMillis(), baseline.wallTimeMillis()));
+        }
+        if (current.peakRssKb() > 0 && baseline.peakRssKb() > 0 && current.peakRssKb() > baseline.peakRssKb() * (1 + tolerances.peakRss())) {
+            regressions.add("%s: peak RSS of %d KB instead of %d KB".formatted(current.key(), current.peakRssKb(), baseline.peakRssKb()));
+        }
+
+        return regressions;
+    }
+}
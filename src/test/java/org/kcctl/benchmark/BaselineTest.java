@@ -0,0 +1,97 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class BaselineTest {
+
+    private static final Baseline.Tolerances TOLERANCES = new Baseline.Tolerances(0.5, 0.1, 0.25);
+
+    private final Baseline baseline = new Baseline(List.of(new Baseline.Measurement("get connectors", 1000, 1000, 3, 50_000, 200_000)));
+
+    @Test
+    void should_accept_measurements_within_tolerances() {
+        assertThat(baseline.regressions(new Baseline.Measurement("get connectors", 1000, 1400, 3, 54_000, 240_000), TOLERANCES)).isEmpty();
+        assertThat(baseline.regressions(new Baseline.Measurement("get connectors", 1000, 500, 2, 10_000, -1), TOLERANCES)).isEmpty();
+    }
+
+    @Test
+    void should_flag_any_additional_request() {
+        assertThat(baseline.regressions(new Baseline.Measurement("get connectors", 1000, 1000, 4, 50_000, 200_000), TOLERANCES))
+                .containsExactly("get connectors@1000: 4 requests instead of 3");
+    }
+
+    @Test
+    void should_flag_regressions_beyond_tolerances() {
+        assertThat(baseline.regressions(new Baseline.Measurement("get connectors", 1000, 1600, 3, 60_000, 300_000), TOLERANCES))
+                .containsExactly(
+                        "get connectors@1000: 60000 bytes instead of 50000",
+                        "get connectors@1000: 1600 ms instead of 1000 ms",
+                        "get connectors@1000: peak RSS of 300000 KB instead of 200000 KB");
+    }
+
+    @Test
+    void should_ignore_wall_time_increase_within_slack() {
+        Baseline fast = new Baseline(List.of(new Baseline.Measurement("get connectors", 10, 100, 3, 500, -1)));
+
+        assertThat(fast.regressions(new Baseline.Measurement("get connectors", 10, 100 + Baseline.WALL_TIME_SLACK_MILLIS, 3, 500, -1), TOLERANCES)).isEmpty();
+        assertThat(fast.regressions(new Baseline.Measurement("get connectors", 10, 101 + Baseline.WALL_TIME_SLACK_MILLIS, 3, 500, -1), TOLERANCES)).hasSize(1);
+    }
+
+    @Test
+    void should_only_compare_recorded_metrics() {
+        Baseline.Measurement recorded = new Baseline.Measurement("get connectors", 1000, 1000, 3, 50_000, 200_000);
+        Baseline counts = new Baseline(List.of(recorded.counts()));
+        Baseline resources = new Baseline(List.of(recorded.resources()));
+        Baseline.Measurement slower = new Baseline.Measurement("get connectors", 1000, 9000, 4, 50_000, 900_000);
+
+        assertThat(counts.regressions(slower, TOLERANCES)).containsExactly("get connectors@1000: 4 requests instead of 3");
+        assertThat(resources.regressions(slower, TOLERANCES)).containsExactly(
+                "get connectors@1000: 9000 ms instead of 1000 ms",
+                "get connectors@1000: peak RSS of 900000 KB instead of 200000 KB");
+    }
+
+    @Test
+    void should_ignore_measurements_without_baseline() {
+        assertThat(baseline.regressions(new Baseline.Measurement("get connectors", 10, 99_999, 99, 99_999, 99_999), TOLERANCES)).isEmpty();
+    }
+
+    @Test
+    void should_read_written_measurements(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("baseline.json");
+        Baseline.Measurement measurement = new Baseline.Measurement("apply", 10, 800, 12, 3000, 150_000);
+
+        Baseline.write(file, List.of(measurement));
+
+        assertThat(Baseline.read(file).get(measurement)).isEqualTo(measurement);
+        assertThat(Baseline.read(tempDir.resolve("missing.json")).get(measurement)).isNull();
+    }
+
+    @Test
+    void should_leave_out_metrics_not_recorded(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("baseline.json");
+        Baseline.Measurement measurement = new Baseline.Measurement("apply", 10, 800, 12, 3000, 150_000);
+
+        Baseline.write(file, List.of(measurement.counts()));
+
+        assertThat(Files.readString(file)).doesNotContain("wallTimeMillis", "peakRssKb");
+        assertThat(Baseline.read(file).get(measurement)).isEqualTo(measurement.counts());
+    }
+}
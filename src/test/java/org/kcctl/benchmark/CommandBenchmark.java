@@ -0,0 +1,267 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.benchmark;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.kcctl.support.FakeKafkaConnect;
+import org.kcctl.util.TableRenderer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs representative commands of the packaged application against fleets of different sizes served by
+ * {@link FakeKafkaConnect}, reporting wall time, request count, response bytes and peak RSS of the kcctl process.
+ * Request and byte counts are compared to the baseline in <i>src/test/resources/benchmark-baseline.json</i>; wall
+ * time and peak RSS only to a baseline of the same machine, if one is given.
+ * <p>
+ * Run via {@code ./mvnw verify -Pbenchmark -DskipTests}. The following system properties are supported:
+ * <ul>
+ * <li>{@code kcctl.benchmark.sizes}: the fleet sizes, default: 10,1000,10000</li>
+ * <li>{@code kcctl.benchmark.iterations}: the runs per scenario and size, of which the median wall time is reported,
+ * default: 3</li>
+ * <li>{@code kcctl.benchmark.machine-baseline}: a file with the wall times and peak RSS of a previous run on this
+ * machine; recorded by the first run if it doesn't exist</li>
+ * <li>{@code kcctl.benchmark.update-baseline}: stores the results as new baseline(s) instead of comparing them</li>
+ * </ul>
+ */
+@EnabledIfSystemProperty(named = CommandBenchmark.APP, matches = ".+")
+class CommandBenchmark {
+
+    static final String APP = "kcctl.benchmark.app";
+
+    private static final Path BASELINE = Paths.get("src", "test", "resources", "benchmark-baseline.json");
+    private static final Path RESULTS = Paths.get("target", "benchmark-results.json");
+    private static final String CONTEXT = "benchmark";
+    private static final int MAX_APPLIED_FILES = 100;
+
+    /**
+     * A command run against a fleet.
+     *
+     * @param fleet customizes the fleet, e.g. adds failed tasks
+     * @param args the arguments of the command, given the fleet size and a directory for input files
+     */
+    private record Scenario(String name, Consumer<FakeKafkaConnect> fleet, Function<Invocation, List<String>> args) {
+    }
+
+    private record Invocation(int connectors, Path workDirectory) {
+    }
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void run_benchmarks() throws Exception {
+        List<Scenario> scenarios = List.of(
+                new Scenario("get connectors", fleet -> {
+                }, invocation -> List.of("get", "connectors")),
+                new Scenario("describe connectors", fleet -> {
+                }, invocation -> List.of("describe", "connector", "-e", ".*")),
+                new Scenario("apply", fleet -> {
+                }, CommandBenchmark::applyArgs),
+                new Scenario("restart failed tasks", fleet -> fleet.failedTaskRatio(0.01),
+                        invocation -> List.of("restart", "connectors", "-e", ".*", "--tasks", "failed")),
+                new Scenario("connector name completions", fleet -> {
+                }, invocation -> List.of("connector-name-completions")),
+                new Scenario("task name completions", fleet -> {
+                }, invocation -> List.of("task-name-completions")));
+
+        int iterations = Integer.getInteger("kcctl.benchmark.iterations", 3);
+        List<Baseline.Measurement> measurements = new ArrayList<>();
+        for (String size : System.getProperty("kcctl.benchmark.sizes", "10,1000,10000").split(",")) {
+            for (Scenario scenario : scenarios) {
+                measurements.add(measure(scenario, Integer.parseInt(size.trim()), iterations));
+            }
+        }
+
+        String machineBaselineFile = System.getProperty("kcctl.benchmark.machine-baseline", "");
+        Path machineBaselinePath = machineBaselineFile.isBlank() ? null : Paths.get(machineBaselineFile);
+
+        Baseline.write(RESULTS, measurements);
+        if (Boolean.getBoolean("kcctl.benchmark.update-baseline")) {
+            Baseline.write(BASELINE, measurements.stream().map(Baseline.Measurement::counts).toList());
+            if (machineBaselinePath != null) {
+                Baseline.write(machineBaselinePath, measurements.stream().map(Baseline.Measurement::resources).toList());
+            }
+            print(measurements, new Baseline(List.of()), new Baseline(List.of()));
+            return;
+        }
+
+        Baseline baseline = Baseline.read(BASELINE);
+        Baseline machineBaseline = new Baseline(List.of());
+        if (machineBaselinePath != null) {
+            if (Files.exists(machineBaselinePath)) {
+                machineBaseline = Baseline.read(machineBaselinePath);
+            }
+            else {
+                Baseline.write(machineBaselinePath, measurements.stream().map(Baseline.Measurement::resources).toList());
+                System.out.println("Recorded wall times and peak RSS of this machine in " + machineBaselinePath);
+            }
+        }
+        print(measurements, baseline, machineBaseline);
+
+        Baseline.Tolerances tolerances = new Baseline.Tolerances(0.5, 0.1, 0.25);
+        List<String> regressions = new ArrayList<>();
+        for (Baseline.Measurement measurement : measurements) {
+            regressions.addAll(baseline.regressions(measurement, tolerances));
+            regressions.addAll(machineBaseline.regressions(measurement, tolerances));
+        }
+        assertThat(regressions).as("Regressions compared to " + BASELINE + (machineBaselinePath != null ? " and " + machineBaselinePath : "")).isEmpty();
+    }
+
+    private Baseline.Measurement measure(Scenario scenario, int connectors, int iterations) throws Exception {
+        long[] wallTimes = new long[iterations];
+        long requests = 0;
+        long bytes = 0;
+        long peakRss = 0;
+
+        for (int i = 0; i < iterations; i++) {
+            // A new fleet for each run, as commands like apply change it
+            FakeKafkaConnect fleet = new FakeKafkaConnect().connectors(connectors).tasksPerConnector(2);
+            scenario.fleet().accept(fleet);
+
+            try (FakeKafkaConnect connect = fleet.start()) {
+                Path home = Files.createTempDirectory(tempDir, "home");
+                Files.writeString(home.resolve(".kcctl"), """
+                        {
+                          "currentContext" : "%s",
+                          "%s" : { "cluster" : "%s" }
+                        }
+                        """.formatted(CONTEXT, CONTEXT, connect.uri()));
+
+                List<String> args = scenario.args().apply(new Invocation(connectors, Files.createTempDirectory(tempDir, "work")));
+                connect.resetStatistics();
+
+                ProcessStats stats = run(home, args);
+                wallTimes[i] = stats.wallTimeMillis();
+                peakRss = Math.max(peakRss, stats.peakRssKb());
+                requests = connect.requestCount();
+                bytes = connect.bytesSent();
+            }
+        }
+
+        Arrays.sort(wallTimes);
+        return new Baseline.Measurement(scenario.name(), connectors, wallTimes[iterations / 2], requests, bytes, peakRss);
+    }
+
+    private record ProcessStats(long wallTimeMillis, long peakRssKb) {
+    }
+
+    /**
+     * Runs kcctl in a separate process, sampling its peak RSS while it is running (only supported on Linux).
+     */
+    private ProcessStats run(Path home, List<String> args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Duser.home=" + home,
+                "-jar",
+                System.getProperty(APP)));
+        command.addAll(args);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(tempDir.resolve("stderr.log").toFile())
+                .start();
+
+        Path status = Paths.get("/proc", String.valueOf(process.pid()), "status");
+        long peakRss = -1;
+        while (!process.waitFor(10, TimeUnit.MILLISECONDS)) {
+            peakRss = Math.max(peakRss, highWaterMark(status));
+        }
+        long wallTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(process.exitValue())
+                .as(() -> "Exit code of '" + String.join(" ", args) + "', stderr: " + readString(tempDir.resolve("stderr.log")))
+                .isZero();
+
+        return new ProcessStats(wallTime, peakRss);
+    }
+
+    /**
+     * Returns the peak resident set size of a process in KB, or -1 if unknown.
+     */
+    private static long highWaterMark(Path status) {
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        }
+        catch (IOException | UncheckedIOException e) {
+            // not on Linux, or the process has terminated in the meantime
+        }
+        return -1;
+    }
+
+    /**
+     * Writes one connector configuration file per new connector, up to {@link #MAX_APPLIED_FILES}.
+     */
+    private static List<String> applyArgs(Invocation invocation) {
+        List<String> args = new ArrayList<>(List.of("apply", "-f"));
+        for (int i = 0; i < Math.min(invocation.connectors(), MAX_APPLIED_FILES); i++) {
+            Path file = invocation.workDirectory().resolve("applied-%05d.json".formatted(i));
+            try {
+                Files.writeString(file, """
+                        { "name": "applied-%05d", "config": { "connector.class": "%s", "tasks.max": "1" } }
+                        """.formatted(i, FakeKafkaConnect.SOURCE_CLASS));
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            args.add(file.toString());
+        }
+        return args;
+    }
+
+    private static void print(List<Baseline.Measurement> measurements, Baseline baseline, Baseline machineBaseline) {
+        PrintWriter out = new PrintWriter(System.out, true);
+        out.println();
+        new TableRenderer<Baseline.Measurement>()
+                .column("SCENARIO", Baseline.Measurement::scenario)
+                .column(" CONNECTORS", m -> " " + m.connectors())
+                .column(" WALL TIME (ms)", m -> " " + m.wallTimeMillis() + delta(m.wallTimeMillis(), machineBaseline.get(m), Baseline.Measurement::wallTimeMillis))
+                .column(" REQUESTS", m -> " " + m.requests() + delta(m.requests(), baseline.get(m), Baseline.Measurement::requests))
+                .column(" BYTES", m -> " " + m.bytes() + delta(m.bytes(), baseline.get(m), Baseline.Measurement::bytes))
+                .column(" PEAK RSS (KB)", m -> " " + m.peakRssKb() + delta(m.peakRssKb(), machineBaseline.get(m), Baseline.Measurement::peakRssKb))
+                .render(measurements, out);
+        out.println();
+        out.println();
+    }
+
+    private static String delta(long value, Baseline.Measurement baseline, Function<Baseline.Measurement, Long> metric) {
+        if (baseline == null || metric.apply(baseline) <= 0) {
+            return "";
+        }
+        return " (%+.0f%%)".formatted((value - metric.apply(baseline)) * 100.0 / metric.apply(baseline));
+    }
+
+    private static String readString(Path file) {
+        try {
+            return Files.readString(file);
+        }
+        catch (IOException e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.kcctl.service.Context;
+import org.kcctl.support.FakeKafkaConnect;
+import org.kcctl.util.ConfigurationContext;
+
+import io.quarkus.test.junit.QuarkusTest;
+import picocli.CommandLine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code apply} for multiple files against a fleet, verifying that a failing or timed out file is reported
+ * in the summary without aborting the other files.
+ */
+@QuarkusTest
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class ApplyCommandFleetTest {
+
+    private FakeKafkaConnect connect;
+
+    private Path configurationDirectory;
+
+    private final StringWriter output = new StringWriter();
+
+    @BeforeEach
+    void createConfigurationDirectory() throws IOException {
+        // @TempDir isn't supported in @QuarkusTest; a fresh directory per test also keeps the capability cache apart
+        configurationDirectory = Files.createTempDirectory("kcctl-test");
+    }
+
+    @AfterEach
+    void stopFakeKafkaConnect() {
+        connect.close();
+    }
+
+    @Test
+    void should_report_timed_out_files_as_failed() throws IOException {
+        connect = new FakeKafkaConnect().latency(Duration.ofMillis(1500)).start();
+
+        assertThat(apply("-f", file("first"), file("second"), "--no-fail-fast", "--parallelism", "2", "--file-timeout", "1"))
+                .isEqualTo(CommandLine.ExitCode.SOFTWARE);
+
+        assertThat(output.toString())
+                .contains("Applying " + file("first") + " didn't complete within 1 s")
+                .contains("Applying " + file("second") + " didn't complete within 1 s")
+                .containsPattern("first\\.json +first +failed")
+                .containsPattern("second\\.json +second +failed");
+    }
+
+    @Test
+    void should_report_request_errors_as_failed() throws IOException {
+        connect = new FakeKafkaConnect().errorRate(1).start();
+
+        assertThat(apply("-f", file("first"), file("second"), "--dry-run", "--no-fail-fast")).isEqualTo(CommandLine.ExitCode.SOFTWARE);
+
+        assertThat(output.toString())
+                .contains("Injected error")
+                .containsPattern("first\\.json +first +failed")
+                .containsPattern("second\\.json +second +failed");
+    }
+
+    @Test
+    void should_skip_remaining_files_after_request_error() throws IOException {
+        connect = new FakeKafkaConnect().errorRate(1).start();
+
+        assertThat(apply("-f", file("first"), file("second"), "--dry-run")).isEqualTo(CommandLine.ExitCode.SOFTWARE);
+
+        assertThat(output.toString())
+                .containsPattern("first\\.json +first +failed")
+                .containsPattern("second\\.json +second +skipped");
+        assertThat(connect.requestCount("PUT /connector-plugins/{name}/config/validate")).isEqualTo(1);
+    }
+
+    @Test
+    void should_apply_remaining_files_after_connection_error() throws IOException {
+        connect = new FakeKafkaConnect().start();
+        String first = file("first");
+        String second = file("second");
+        // Nothing listens anymore, so each request fails with a connection error instead of an error status
+        connect.close();
+
+        assertThat(apply("-f", first, second, "--dry-run", "--no-fail-fast")).isEqualTo(CommandLine.ExitCode.SOFTWARE);
+
+        assertThat(output.toString())
+                .contains("Couldn't apply " + first + ": ", "Couldn't apply " + second + ": ")
+                .containsPattern("second\\.json +second +failed");
+    }
+
+    private String file(String connector) throws IOException {
+        Path file = configurationDirectory.resolve(connector + ".json");
+        Files.writeString(file, """
+                {
+                  "name": "%s",
+                  "config": {
+                    "connector.class": "%s",
+                    "tasks.max": "1"
+                  }
+                }
+                """.formatted(connector, FakeKafkaConnect.SOURCE_CLASS));
+        return file.toString();
+    }
+
+    private int apply(String... args) {
+        ConfigurationContext context = new ConfigurationContext(configurationDirectory.toFile());
+        context.setContext("fake", new Context(connect.uri(), null, null, null, null, null));
+
+        CommandLine commandLine = new CommandLine(new ApplyCommand(context));
+        commandLine.setOut(new PrintWriter(output, true));
+        commandLine.setErr(new PrintWriter(output, true));
+
+        return commandLine.execute(args);
+    }
+}
@@ -117,6 +117,20 @@ class ApplyCommandTest extends IntegrationTest {
         kafkaConnect.ensureConnectorTaskState("heartbeat-source", 0, Connector.State.RUNNING);
     }
 
+    @Test
+    public void should_skip_unchanged_connector() {
+        var path = Paths.get("src", "test", "resources", "heartbeat-source.json");
+        context.runAndEnsureExitCodeOk("-f", path.toAbsolutePath().toString());
+        context.runAndEnsureExitCodeOk("-f", path.toAbsolutePath().toString());
+        context.runAndEnsureExitCodeOk("-f", path.toAbsolutePath().toString(), "--force");
+
+        assertThat(context.output().toString()).isEqualTo("""
+                Created connector heartbeat-source
+                Connector heartbeat-source is unchanged
+                Updated connector heartbeat-source
+                """);
+    }
+
     @Test
     public void do_not_allow_n_with_multiple_f() {
         int exitCode = context.commandLine().execute("-f", "test", "-f", "test2", "-n", "test name");
@@ -145,6 +159,60 @@ class ApplyCommandTest extends IntegrationTest {
         assertThat(context.output().toString()).doesNotContain("Created connector");
     }
 
+    @Test
+    public void should_print_summary_for_multiple_files() {
+        var path = Paths.get("src", "test", "resources", "heartbeat-source.json");
+        var path2 = Paths.get("src", "test", "resources", "heartbeat-source-2.json");
+
+        context.runAndEnsureExitCodeOk("-f", path.toAbsolutePath().toString(), path2.toAbsolutePath().toString(), "--parallelism", "2");
+
+        assertThat(context.output().toString())
+                .contains("Created connector heartbeat-source", "Created connector heartbeat-source-2")
+                .contains("FILE", "CONNECTOR", "RESULT")
+                .containsPattern("heartbeat-source\\.json +heartbeat-source +created")
+                .containsPattern("heartbeat-source-2\\.json +heartbeat-source-2 +created");
+    }
+
+    @Test
+    public void should_skip_remaining_files_after_first_error() {
+        var pathBad = Paths.get("src", "test", "resources", "heartbeat-source-bad.json");
+        var path = Paths.get("src", "test", "resources", "heartbeat-source.json");
+
+        int exitCode = context.commandLine().execute("-f", pathBad.toAbsolutePath().toString(), path.toAbsolutePath().toString());
+
+        assertThat(exitCode).isEqualTo(CommandLine.ExitCode.SOFTWARE);
+        assertThat(context.output().toString())
+                .containsPattern("heartbeat-source-bad\\.json +heartbeat-source-bad +failed")
+                .containsPattern("heartbeat-source\\.json +heartbeat-source +skipped");
+    }
+
+    @Test
+    public void should_apply_all_files_with_no_fail_fast() {
+        var pathBad = Paths.get("src", "test", "resources", "heartbeat-source-bad.json");
+        var path = Paths.get("src", "test", "resources", "heartbeat-source.json");
+        var path2 = Paths.get("src", "test", "resources", "heartbeat-source-2.json");
+
+        int exitCode = context.commandLine().execute("-f", pathBad.toAbsolutePath().toString(), path.toAbsolutePath().toString(),
+                path2.toAbsolutePath().toString(), "--no-fail-fast", "--parallelism", "2");
+
+        assertThat(exitCode).isEqualTo(CommandLine.ExitCode.SOFTWARE);
+        assertThat(context.output().toString())
+                .contains("Created connector heartbeat-source", "Created connector heartbeat-source-2")
+                .containsPattern("heartbeat-source-bad\\.json +heartbeat-source-bad +failed")
+                .containsPattern("heartbeat-source\\.json +heartbeat-source +created")
+                .containsPattern("heartbeat-source-2\\.json +heartbeat-source-2 +created");
+    }
+
+    @Test
+    public void should_reject_invalid_parallelism() {
+        var path = Paths.get("src", "test", "resources", "heartbeat-source.json");
+
+        int exitCode = context.commandLine().execute("-f", path.toAbsolutePath().toString(), "--parallelism", "0");
+
+        assertThat(exitCode).isEqualTo(CommandLine.ExitCode.USAGE);
+        assertThat(context.output().toString()).doesNotContain("Created connector");
+    }
+
     @Test
     public void should_gracefully_handle_missing_connector_class() {
         var path = Paths.get("src", "test", "resources", "nonexistent.json");
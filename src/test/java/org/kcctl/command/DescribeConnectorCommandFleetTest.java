@@ -0,0 +1,90 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.kcctl.service.Context;
+import org.kcctl.support.FakeKafkaConnect;
+import org.kcctl.util.ConfigurationContext;
+
+import io.quarkus.test.junit.QuarkusTest;
+import picocli.CommandLine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code describe connector} for multiple connectors against a fleet, verifying that all of them are
+ * described, without requesting anything not part of the output.
+ */
+@QuarkusTest
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class DescribeConnectorCommandFleetTest {
+
+    private FakeKafkaConnect connect;
+
+    private Path configurationDirectory;
+
+    private final StringWriter output = new StringWriter();
+
+    @BeforeEach
+    void createConfigurationDirectory() throws IOException {
+        // @TempDir isn't supported in @QuarkusTest; a fresh directory per test also keeps the capability cache apart
+        configurationDirectory = Files.createTempDirectory("kcctl-test");
+    }
+
+    @AfterEach
+    void stopFakeKafkaConnect() {
+        connect.close();
+    }
+
+    @Test
+    void should_describe_all_selected_connectors_as_json() {
+        connect = new FakeKafkaConnect().connectors(30).tasksPerConnector(2).start();
+
+        assertThat(describe("-e", "connector-0000[0-2]", "-o", "json")).isEqualTo(CommandLine.ExitCode.OK);
+
+        assertThat(output.toString())
+                .contains("\"name\" : \"connector-00000\"", "\"name\" : \"connector-00001\"", "\"name\" : \"connector-00002\"")
+                .doesNotContain("connector-00003");
+        assertThat(connect.requestCount("GET /connectors")).isEqualTo(1);
+        assertThat(connect.requestCount("GET /connectors/{name}/topics")).isZero();
+        assertThat(connect.requestCount("GET /connectors/{name}/tasks")).isZero();
+    }
+
+    @Test
+    void should_describe_all_selected_connectors_as_json_before_kafka_connect_2_3() {
+        connect = new FakeKafkaConnect().connectors(30).tasksPerConnector(2).version("2.2.0").start();
+
+        assertThat(describe("connector-00000", "connector-00001", "-o", "json", "--parallelism", "1")).isEqualTo(CommandLine.ExitCode.OK);
+
+        assertThat(output.toString()).contains("\"name\" : \"connector-00000\"", "\"name\" : \"connector-00001\"");
+        assertThat(connect.requestCount("GET /connectors/{name}")).isEqualTo(2);
+        assertThat(connect.requestCount("GET /connectors/{name}/status")).isZero();
+    }
+
+    private int describe(String... args) {
+        ConfigurationContext context = new ConfigurationContext(configurationDirectory.toFile());
+        context.setContext("fake", new Context(connect.uri(), null, null, null, null, null));
+
+        CommandLine commandLine = new CommandLine(new DescribeConnectorCommand(context));
+        commandLine.setOut(new PrintWriter(output, true));
+        commandLine.setErr(new PrintWriter(output, true));
+
+        return commandLine.execute(args);
+    }
+}
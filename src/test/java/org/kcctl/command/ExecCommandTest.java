@@ -0,0 +1,153 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import picocli.CommandLine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs scripts with {@code exec}, using commands which don't require a Kafka Connect cluster for a successful
+ * ({@code help}) and a failing (unknown option) execution.
+ */
+@QuarkusTest
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class ExecCommandTest {
+
+    @Inject
+    Instance<CommandLine> commandLines;
+
+    private Path scriptDirectory;
+
+    private final StringWriter output = new StringWriter();
+
+    @BeforeEach
+    void createScriptDirectory() throws IOException {
+        // @TempDir isn't supported in @QuarkusTest
+        scriptDirectory = Files.createTempDirectory("kcctl-test");
+    }
+
+    @Test
+    void should_execute_all_lines_and_print_exit_codes() throws IOException {
+        int exitCode = exec(script("""
+                # Comments and empty lines are ignored
+
+                kcctl help
+                help get
+                """));
+
+        assertThat(exitCode).isEqualTo(CommandLine.ExitCode.OK);
+        assertThat(output.toString())
+                .containsPattern("LINE +COMMAND +EXIT CODE")
+                .containsPattern("3 +kcctl help +0")
+                .containsPattern("4 +help get +0");
+    }
+
+    @Test
+    void should_skip_remaining_lines_after_failure() throws IOException {
+        int exitCode = exec(script("""
+                help
+                get connectors --no-such-option
+                help get
+                """));
+
+        assertThat(exitCode).isEqualTo(CommandLine.ExitCode.USAGE);
+        assertThat(output.toString())
+                .contains("Unknown option: '--no-such-option'")
+                .containsPattern("1 +help +0")
+                .containsPattern("2 +get connectors --no-such-option +2")
+                .containsPattern("3 +help get +skipped");
+    }
+
+    @Test
+    void should_execute_remaining_lines_with_no_fail_fast() throws IOException {
+        int exitCode = exec(script("""
+                get connectors --no-such-option
+                help get
+                """), "--no-fail-fast");
+
+        assertThat(exitCode).isEqualTo(CommandLine.ExitCode.USAGE);
+        assertThat(output.toString())
+                .containsPattern("1 +get connectors --no-such-option +2")
+                .containsPattern("2 +help get +0");
+    }
+
+    @Test
+    void should_not_print_summary_for_single_line() throws IOException {
+        int exitCode = exec(script("help"));
+
+        assertThat(exitCode).isEqualTo(CommandLine.ExitCode.OK);
+        assertThat(output.toString()).doesNotContain("EXIT CODE");
+    }
+
+    @Test
+    void should_reject_malformed_lines_before_executing_anything() throws IOException {
+        int exitCode = exec(script("""
+                get connectors --no-such-option
+                describe connector 'unterminated
+                """));
+
+        assertThat(exitCode).isEqualTo(CommandLine.ExitCode.USAGE);
+        assertThat(output.toString())
+                .startsWith("Line 2: ")
+                .doesNotContain("Unknown option");
+    }
+
+    @Test
+    void should_reject_hosting_commands() throws IOException {
+        int exitCode = exec(script("""
+                help
+                kcctl shell
+                """));
+
+        assertThat(exitCode).isEqualTo(CommandLine.ExitCode.USAGE);
+        assertThat(output.toString().trim()).isEqualTo("Line 2: 'shell' can't be used within scripts");
+    }
+
+    @Test
+    void should_reject_missing_script() {
+        int exitCode = exec(scriptDirectory.resolve("missing.kcctl"));
+
+        assertThat(exitCode).isEqualTo(CommandLine.ExitCode.USAGE);
+        assertThat(output.toString()).contains("Script file not found: ");
+    }
+
+    private Path script(String contents) throws IOException {
+        return Files.writeString(Files.createTempFile(scriptDirectory, "script", ".kcctl"), contents);
+    }
+
+    private int exec(Path script, String... args) {
+        ExecCommand command = new ExecCommand();
+        command.commandLines = commandLines;
+
+        CommandLine commandLine = new CommandLine(command);
+        commandLine.setOut(new PrintWriter(output, true));
+        commandLine.setErr(new PrintWriter(output, true));
+
+        String[] allArgs = new String[args.length + 2];
+        allArgs[0] = "-f";
+        allArgs[1] = script.toString();
+        System.arraycopy(args, 0, allArgs, 2, args.length);
+        return commandLine.execute(allArgs);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.kcctl.service.Context;
+import org.kcctl.support.FakeKafkaConnect;
+import org.kcctl.util.ConfigurationContext;
+
+import io.quarkus.test.junit.QuarkusTest;
+import picocli.CommandLine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code restart connector --rolling} against a fleet, verifying which connectors and tasks get restarted.
+ */
+@QuarkusTest
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class RestartConnectorCommandFleetTest {
+
+    private static final String CONNECTOR_RESTARTS = "POST /connectors/{name}/restart";
+    private static final String TASK_RESTARTS = "POST /connectors/{name}/tasks/{id}/restart";
+
+    private FakeKafkaConnect connect;
+
+    private Path configurationDirectory;
+
+    private final StringWriter output = new StringWriter();
+
+    @BeforeEach
+    void createConfigurationDirectory() throws IOException {
+        // @TempDir isn't supported in @QuarkusTest; a fresh directory per test also keeps the capability cache apart
+        configurationDirectory = Files.createTempDirectory("kcctl-test");
+    }
+
+    @AfterEach
+    void stopFakeKafkaConnect() {
+        connect.close();
+    }
+
+    @Test
+    void should_not_restart_paused_and_stopped_connectors() {
+        connect = new FakeKafkaConnect().connectors(10).tasksPerConnector(2).workers(2).start();
+        connect.setState("connector-00003", "PAUSED");
+        connect.setState("connector-00007", "STOPPED");
+        connect.resetStatistics();
+
+        // Waiting for the paused connector would take until the timeout and then abort the restart
+        assertThat(restart("-e", ".*", "--tasks", "all", "--rolling", "--wait=60")).isEqualTo(CommandLine.ExitCode.OK);
+
+        assertThat(output.toString())
+                .contains("Skipping 2 paused or stopped connector(s): connector-00003, connector-00007")
+                .contains("Restarted 24 instance(s) in 2 wave(s)");
+        assertThat(connect.requestCount(CONNECTOR_RESTARTS)).isEqualTo(8);
+        assertThat(connect.requestCount(TASK_RESTARTS)).isEqualTo(16);
+    }
+
+    @Test
+    void should_require_connector_names() {
+        connect = new FakeKafkaConnect().connectors(10).start();
+
+        assertThat(restart("--rolling")).isEqualTo(CommandLine.ExitCode.USAGE);
+        assertThat(restart()).isEqualTo(CommandLine.ExitCode.USAGE);
+
+        assertThat(output.toString()).contains("Missing required parameter");
+        assertThat(connect.requestCount(CONNECTOR_RESTARTS)).isZero();
+    }
+
+    @Test
+    void should_reject_invalid_max_failure_rate() {
+        connect = new FakeKafkaConnect().connectors(10).start();
+
+        assertThat(restart("-e", ".*", "--rolling", "--max-failure-rate", "101")).isEqualTo(CommandLine.ExitCode.USAGE);
+
+        assertThat(output.toString()).contains("--max-failure-rate must be between 0 and 100");
+        assertThat(connect.requestCount(CONNECTOR_RESTARTS)).isZero();
+    }
+
+    private int restart(String... args) {
+        ConfigurationContext context = new ConfigurationContext(configurationDirectory.toFile());
+        context.setContext("fake", new Context(connect.uri(), null, null, null, null, null));
+
+        CommandLine commandLine = new CommandLine(new RestartConnectorCommand(context));
+        commandLine.setOut(new PrintWriter(output, true));
+        commandLine.setErr(new PrintWriter(output, true));
+
+        return commandLine.execute(args);
+    }
+}
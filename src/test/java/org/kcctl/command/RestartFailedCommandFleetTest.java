@@ -0,0 +1,155 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.kcctl.service.ConnectorStatusInfo;
+import org.kcctl.service.Context;
+import org.kcctl.service.KafkaConnectApi;
+import org.kcctl.service.KafkaConnectClientFactory;
+import org.kcctl.service.TaskState;
+import org.kcctl.support.FakeKafkaConnect;
+import org.kcctl.util.ConfigurationContext;
+
+import io.quarkus.test.junit.QuarkusTest;
+import picocli.CommandLine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code restart failed} against a fleet with failed tasks, verifying that only the failed instances get
+ * restarted, with as few requests as possible.
+ */
+@QuarkusTest
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class RestartFailedCommandFleetTest {
+
+    private static final String CONNECTOR_RESTARTS = "POST /connectors/{name}/restart";
+    private static final String TASK_RESTARTS = "POST /connectors/{name}/tasks/{id}/restart";
+
+    private FakeKafkaConnect connect;
+
+    private Path configurationDirectory;
+
+    @BeforeEach
+    void createConfigurationDirectory() throws IOException {
+        // @TempDir isn't supported in @QuarkusTest; a fresh directory per test also keeps the capability cache apart
+        configurationDirectory = Files.createTempDirectory("kcctl-test");
+    }
+
+    @AfterEach
+    void stopFakeKafkaConnect() {
+        connect.close();
+    }
+
+    @Test
+    void should_restart_connector_and_failed_tasks_with_one_request() {
+        connect = new FakeKafkaConnect().connectors(30).tasksPerConnector(3).failedTaskRatio(0.3).start();
+
+        Map<String, List<Integer>> failedTasks = failedTasks();
+        long severalFailed = failedTasks.values().stream().filter(tasks -> tasks.size() > 1).count();
+        long oneFailed = failedTasks.values().stream().filter(tasks -> tasks.size() == 1).count();
+        assertThat(severalFailed).isPositive();
+        assertThat(oneFailed).isPositive();
+
+        // A healthy task next to failed ones, which must not be restarted along with them
+        String connector = failedTasks.entrySet().stream()
+                .filter(e -> e.getValue().size() == 2)
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElseThrow();
+        int healthyTask = List.of(0, 1, 2).stream().filter(task -> !failedTasks.get(connector).contains(task)).findFirst().orElseThrow();
+        connect.setTaskState(connector, healthyTask, "UNASSIGNED");
+        connect.resetStatistics();
+
+        assertThat(restartFailed()).isEqualTo(CommandLine.ExitCode.OK);
+
+        // restartConnectorAndTasks(name, true, true) for several failed tasks, restartTask() for a single one
+        assertThat(connect.requestCount(CONNECTOR_RESTARTS)).isEqualTo(severalFailed);
+        assertThat(connect.requestCount(TASK_RESTARTS)).isEqualTo(oneFailed);
+        assertThat(connect.requestCount("GET /connectors")).isEqualTo(1);
+        assertThat(connect.requestCount("GET /connectors/{name}/status")).isZero();
+
+        assertThat(failedTasks()).isEmpty();
+        assertThat(taskState(connector, healthyTask)).isEqualTo("UNASSIGNED");
+    }
+
+    @Test
+    void should_restart_each_failed_task_before_kafka_connect_3_0() {
+        connect = new FakeKafkaConnect().connectors(30).tasksPerConnector(3).failedTaskRatio(0.3).version("2.8.0").start();
+        connect.setState("connector-00000", "FAILED");
+
+        Map<String, List<Integer>> failedTasks = failedTasks();
+        long failedTaskCount = failedTasks.values().stream().mapToLong(List::size).sum();
+        connect.resetStatistics();
+
+        assertThat(restartFailed()).isEqualTo(CommandLine.ExitCode.OK);
+
+        // Only the failed connector itself, all failed tasks one by one
+        assertThat(connect.requestCount(CONNECTOR_RESTARTS)).isEqualTo(1);
+        assertThat(connect.requestCount(TASK_RESTARTS)).isEqualTo(failedTaskCount);
+        assertThat(failedTasks()).isEmpty();
+        assertThat(connectorState("connector-00000")).isEqualTo("RUNNING");
+    }
+
+    private int restartFailed() {
+        ConfigurationContext context = new ConfigurationContext(configurationDirectory.toFile());
+        context.setContext("fake", new Context(connect.uri(), null, null, null, null, null));
+
+        CommandLine commandLine = new CommandLine(new RestartFailedCommand(context));
+        StringWriter output = new StringWriter();
+        commandLine.setOut(new PrintWriter(output));
+        commandLine.setErr(new PrintWriter(output));
+
+        return commandLine.execute();
+    }
+
+    private Map<String, List<Integer>> failedTasks() {
+        Map<String, List<Integer>> failedTasks = new TreeMap<>();
+        for (ConnectorStatusInfo status : statuses()) {
+            List<Integer> failed = status.tasks().stream()
+                    .filter(task -> task.state().equals("FAILED"))
+                    .map(TaskState::id)
+                    .toList();
+            if (!failed.isEmpty()) {
+                failedTasks.put(status.name(), failed);
+            }
+        }
+        return failedTasks;
+    }
+
+    private String taskState(String connector, int task) {
+        return client().getConnectorStatus(connector).tasks().get(task).state();
+    }
+
+    private String connectorState(String connector) {
+        return client().getConnectorStatus(connector).connector().state();
+    }
+
+    private List<ConnectorStatusInfo> statuses() {
+        KafkaConnectApi client = client();
+        return client.getConnectors().stream().map(client::getConnectorStatus).toList();
+    }
+
+    private KafkaConnectApi client() {
+        return KafkaConnectClientFactory.getClient(connect.uri());
+    }
+}
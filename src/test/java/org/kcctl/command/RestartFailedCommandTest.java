@@ -0,0 +1,56 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.kcctl.IntegrationTest;
+import org.kcctl.IntegrationTestProfile;
+import org.kcctl.support.InjectCommandContext;
+import org.kcctl.support.KcctlCommandContext;
+
+import io.debezium.testing.testcontainers.Connector;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@QuarkusTest
+@TestProfile(IntegrationTestProfile.class)
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class RestartFailedCommandTest extends IntegrationTest {
+
+    @InjectCommandContext
+    KcctlCommandContext<RestartFailedCommand> context;
+
+    @Test
+    public void should_not_restart_healthy_connectors() {
+        registerTestConnectors("test1", "test2");
+
+        for (String connector : List.of("test1", "test2")) {
+            kafkaConnect.ensureConnectorState(connector, Connector.State.RUNNING);
+            kafkaConnect.ensureConnectorTaskState(connector, 0, Connector.State.RUNNING);
+        }
+
+        context.runAndEnsureExitCodeOk();
+        assertThat(context.output().toString()).contains("No failed connectors or tasks found");
+        assertThat(context.output().toString()).doesNotContain("Restarted");
+    }
+
+    @Test
+    public void should_not_restart_healthy_connectors_in_dry_run() {
+        registerTestConnectors("match-1-test", "nomatch-2-test");
+        kafkaConnect.ensureConnectorTaskState("match-1-test", 0, Connector.State.RUNNING);
+
+        context.runAndEnsureExitCodeOk("--dry-run", "--reg-exp", "match-.*");
+        assertThat(context.output().toString()).contains("No failed connectors or tasks found");
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.kcctl.command.RestartFailedCommand.Action;
+import org.kcctl.command.RestartFailedCommand.Restart;
+import org.kcctl.service.ConnectorState;
+import org.kcctl.service.ConnectorStatusInfo;
+import org.kcctl.service.TaskState;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class RestartFailedPlanTest {
+
+    @Test
+    void should_not_restart_healthy_connector() {
+        assertThat(RestartFailedCommand.plan(status("RUNNING", "RUNNING", "PAUSED", "UNASSIGNED"), true)).isNull();
+    }
+
+    @Test
+    void should_restart_single_failed_task_only() {
+        Restart restart = RestartFailedCommand.plan(status("RUNNING", "RUNNING", "FAILED"), true);
+
+        assertThat(restart.failedTasks()).containsExactly(1);
+        assertThat(restart.action()).isEqualTo(Action.EACH_FAILED_TASK);
+    }
+
+    @Test
+    void should_restart_multiple_failed_tasks_with_one_request() {
+        assertThat(RestartFailedCommand.plan(status("RUNNING", "FAILED", "RUNNING", "FAILED"), true).action())
+                .isEqualTo(Action.CONNECTOR_AND_FAILED_TASKS);
+        assertThat(RestartFailedCommand.plan(status("RUNNING", "FAILED", "RUNNING", "FAILED"), false).action())
+                .isEqualTo(Action.EACH_FAILED_TASK);
+    }
+
+    @Test
+    void should_restart_failed_connector_and_its_failed_tasks() {
+        Restart restart = RestartFailedCommand.plan(status("FAILED", "RUNNING", "FAILED"), true);
+
+        assertThat(restart.connectorState()).isEqualTo("FAILED");
+        assertThat(restart.failedTasks()).containsExactly(1);
+        assertThat(restart.action()).isEqualTo(Action.CONNECTOR_AND_FAILED_TASKS);
+
+        assertThat(RestartFailedCommand.plan(status("FAILED"), false).action()).isEqualTo(Action.CONNECTOR_AND_EACH_FAILED_TASK);
+    }
+
+    private static ConnectorStatusInfo status(String connectorState, String... taskStates) {
+        List<TaskState> tasks = new ArrayList<>();
+        for (int i = 0; i < taskStates.length; i++) {
+            tasks.add(new TaskState(i, taskStates[i], "worker:8083", null));
+        }
+        return new ConnectorStatusInfo("test", new ConnectorState(connectorState, "worker:8083"), "source", tasks);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.completion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.kcctl.command.KcCtlCommand;
+import org.kcctl.util.CompletionCache;
+
+import picocli.CommandLine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class ShellCompleterTest {
+
+    private final List<CompletionCache.Kind> requestedKinds = new ArrayList<>();
+    private final ShellCompleter completer = new ShellCompleter(new CommandLine(new KcCtlCommand()).getCommandSpec(), kind -> {
+        requestedKinds.add(kind);
+        return switch (kind) {
+            case CONNECTORS -> List.of("orders-source", "orders-sink", "customers-source");
+            case TASKS -> List.of("orders-source/0");
+            default -> List.of();
+        };
+    });
+
+    @Test
+    void should_complete_top_level_commands() {
+        assertThat(completer.complete("")).contains("get", "describe", "restart", "shell").doesNotContain("connector-name-completions");
+        assertThat(completer.complete("kcctl ")).contains("get", "describe");
+    }
+
+    @Test
+    void should_complete_subcommands() {
+        assertThat(completer.complete("get co")).contains("connectors").doesNotContain("plugins");
+        assertThat(completer.complete("describe ")).contains("connector", "plugin");
+    }
+
+    @Test
+    void should_complete_connector_names_from_completion_command() {
+        assertThat(completer.complete("describe connector ")).containsExactly("orders-source", "orders-sink", "customers-source");
+        assertThat(completer.complete("describe connector orders")).containsExactly("orders-source", "orders-sink");
+        assertThat(completer.complete("restart task orders")).containsExactly("orders-source/0");
+        assertThat(requestedKinds).containsExactly(CompletionCache.Kind.CONNECTORS, CompletionCache.Kind.CONNECTORS, CompletionCache.Kind.TASKS);
+    }
+
+    @Test
+    void should_complete_options() {
+        assertThat(completer.complete("get connectors --w")).containsExactly("--watch");
+        assertThat(completer.complete("get connectors -")).contains("--watch", "--output-format", "--help");
+    }
+
+    @Test
+    void should_not_complete_values_of_options_without_candidates() {
+        assertThat(completer.complete("get connectors --interval ")).isEmpty();
+        assertThat(completer.complete("describe connector 'orders")).isEmpty();
+    }
+
+    @Test
+    void should_determine_start_of_completed_word() {
+        assertThat(ShellCompleter.wordStart("")).isZero();
+        assertThat(ShellCompleter.wordStart("describe conn")).isEqualTo(9);
+        assertThat(ShellCompleter.wordStart("describe ")).isEqualTo(9);
+    }
+}
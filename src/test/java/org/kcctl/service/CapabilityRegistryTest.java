@@ -0,0 +1,92 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kcctl.util.ConfigurationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class CapabilityRegistryTest {
+
+    @TempDir
+    File tempDir;
+
+    private final AtomicInteger workerInfoRequests = new AtomicInteger();
+
+    @BeforeEach
+    void writeConfiguration() throws IOException {
+        // a cluster URI specific to this test, as the registry also keeps the capabilities in memory
+        Files.writeString(tempDir.toPath().resolve(".kcctl"),
+                "{ \"currentContext\": \"local\", \"local\": { \"cluster\": \"http://" + tempDir.getName() + ":8083\" }}");
+    }
+
+    @Test
+    void should_detect_capabilities_only_once() {
+        var context = new ConfigurationContext(tempDir);
+        var kafkaConnectApi = kafkaConnectApi("3.5.1");
+
+        var capabilities = CapabilityRegistry.getCapabilities(context, kafkaConnectApi);
+        CapabilityRegistry.getCapabilities(context, kafkaConnectApi);
+
+        assertThat(workerInfoRequests.get()).isEqualTo(1);
+        assertThat(capabilities.version().toString()).isEqualTo("3.5");
+        assertThat(capabilities.workerInfo().kafka_cluster_id()).isEqualTo("some-cluster");
+        assertThat(capabilities.supports(Capability.EXPAND_API)).isTrue();
+        assertThat(capabilities.supports(Capability.STOP_CONNECTOR)).isTrue();
+        assertThat(capabilities.supports(Capability.ALTER_OFFSETS)).isFalse();
+        assertThat(capabilities.supports(Capability.CLUSTER_LOG_SCOPE)).isFalse();
+    }
+
+    @Test
+    void should_persist_capabilities_in_cache_directory() {
+        var context = new ConfigurationContext(tempDir);
+
+        CapabilityRegistry.getCapabilities(context, kafkaConnectApi("3.7.0"));
+
+        assertThat(new File(context.getCacheDirectory(), "capabilities.json"))
+                .exists()
+                .content()
+                .contains("3.7.0", "some-cluster");
+    }
+
+    @Test
+    void should_update_capabilities_upon_refresh() {
+        var context = new ConfigurationContext(tempDir);
+
+        CapabilityRegistry.getCapabilities(context, kafkaConnectApi("3.5.0"));
+        CapabilityRegistry.refresh(context, kafkaConnectApi("3.7.0"));
+
+        var capabilities = CapabilityRegistry.getCapabilities(context, kafkaConnectApi("3.7.0"));
+
+        assertThat(workerInfoRequests.get()).isEqualTo(2);
+        assertThat(capabilities.supports(Capability.CLUSTER_LOG_SCOPE)).isTrue();
+    }
+
+    private KafkaConnectApi kafkaConnectApi(String version) {
+        return (KafkaConnectApi) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ KafkaConnectApi.class }, (proxy, method, args) -> {
+            if (method.getName().equals("getWorkerInfo")) {
+                workerInfoRequests.incrementAndGet();
+                return new KafkaConnectInfo(version, "abc123", "some-cluster");
+            }
+
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
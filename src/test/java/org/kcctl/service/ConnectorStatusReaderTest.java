@@ -0,0 +1,110 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class ConnectorStatusReaderTest {
+
+    @Test
+    void should_yield_statuses_one_by_one() {
+        String response = """
+                {
+                  "first": {
+                    "info": { "name": "first", "config": { "connector.class": "Foo" }, "tasks": [], "type": "source" },
+                    "status": {
+                      "name": "first",
+                      "connector": { "state": "RUNNING", "worker_id": "worker1:8083" },
+                      "tasks": [ { "id": 0, "state": "RUNNING", "worker_id": "worker1:8083" } ],
+                      "type": "source"
+                    }
+                  },
+                  "second": {
+                    "status": {
+                      "name": "second",
+                      "connector": { "state": "PAUSED", "worker_id": "worker2:8083", "unknown": "ignored" },
+                      "tasks": [],
+                      "type": "sink"
+                    }
+                  }
+                }
+                """;
+
+        try (ConnectorStatusReader reader = new ConnectorStatusReader(toStream(response))) {
+            assertThat(reader.hasNext()).isTrue();
+            ConnectorStatusInfo first = reader.next();
+            assertThat(first.name()).isEqualTo("first");
+            assertThat(first.connector().state()).isEqualTo("RUNNING");
+            assertThat(first.tasks()).extracting(TaskState::id).containsExactly(0);
+
+            ConnectorStatusInfo second = reader.next();
+            assertThat(second.name()).isEqualTo("second");
+            assertThat(second.type()).isEqualTo("sink");
+
+            assertThat(reader.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    void should_skip_connectors_without_status() {
+        String response = """
+                { "first": { "info": { "name": "first" } }, "second": { "status": { "name": "second", "tasks": [] } } }
+                """;
+
+        try (var statuses = new ConnectorStatusReader(toStream(response)).stream()) {
+            assertThat(statuses.map(ConnectorStatusInfo::name).toList()).isEqualTo(List.of("second"));
+        }
+    }
+
+    @Test
+    void should_handle_empty_response() {
+        try (var statuses = new ConnectorStatusReader(toStream("{}")).stream()) {
+            assertThat(statuses).isEmpty();
+        }
+    }
+
+    @Test
+    void should_reject_unexpected_response() {
+        assertThatThrownBy(() -> new ConnectorStatusReader(toStream("[ \"first\" ]")))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    void should_close_response_when_rejecting_it() {
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream response = new FilterInputStream(toStream("[ \"first\" ]")) {
+            @Override
+            public void close() throws IOException {
+                closed.set(true);
+                super.close();
+            }
+        };
+
+        assertThatThrownBy(() -> new ConnectorStatusReader(response)).isInstanceOf(UncheckedIOException.class);
+        assertThat(closed).isTrue();
+    }
+
+    private static InputStream toStream(String response) {
+        return new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.concurrent.CompletionStage;
+
+import jakarta.ws.rs.HttpMethod;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class KafkaConnectAsyncApiTest {
+
+    @Test
+    void should_provide_async_variant_of_each_endpoint() throws Exception {
+        for (Method method : KafkaConnectApi.class.getMethods()) {
+            if (InputStream.class.isAssignableFrom(method.getReturnType())) {
+                continue;
+            }
+
+            Method async = KafkaConnectAsyncApi.class.getMethod(method.getName(), method.getParameterTypes());
+
+            assertThat(RequestCache.path(async, method.getParameterTypes()))
+                    .describedAs(method.getName())
+                    .isEqualTo(RequestCache.path(method, method.getParameterTypes()));
+            assertThat(httpMethod(async)).describedAs(method.getName()).isEqualTo(httpMethod(method));
+            assertThat(async.getReturnType()).isEqualTo(CompletionStage.class);
+
+            Type responseType = ((ParameterizedType) async.getGenericReturnType()).getActualTypeArguments()[0];
+            Type expected = method.getGenericReturnType() == void.class ? Void.class : method.getGenericReturnType();
+            assertThat(responseType).describedAs(method.getName()).isEqualTo(expected);
+        }
+    }
+
+    private static String httpMethod(Method method) {
+        return Arrays.stream(method.getAnnotations())
+                .map(annotation -> annotation.annotationType().getAnnotation(HttpMethod.class))
+                .filter(httpMethod -> httpMethod != null)
+                .map(HttpMethod::value)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.kcctl.util.FanOut;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class RequestCacheTest {
+
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean blocking;
+
+    @Test
+    void should_memoize_get_requests_within_invocation() {
+        KafkaConnectApi api = RequestCache.wrap(kafkaConnectApi());
+
+        RequestCache.withinInvocation(() -> {
+            api.getConnectors();
+            api.getConnectors();
+            api.getConnectorConfig("a");
+            api.getConnectorConfig("a");
+            api.getConnectorConfig("b");
+            return null;
+        });
+
+        assertThat(requests).containsExactly("getConnectors", "getConnectorConfig a", "getConnectorConfig b");
+    }
+
+    @Test
+    void should_not_memoize_outside_of_invocation() {
+        KafkaConnectApi api = RequestCache.wrap(kafkaConnectApi());
+
+        api.getConnectors();
+        api.getConnectors();
+        RequestCache.withinInvocation(api::getConnectors);
+        RequestCache.withinInvocation(api::getConnectors);
+
+        assertThat(requests).hasSize(4);
+    }
+
+    @Test
+    void should_invalidate_modified_resource_and_collection_after_write() {
+        KafkaConnectApi api = RequestCache.wrap(kafkaConnectApi());
+
+        RequestCache.withinInvocation(() -> {
+            api.getConnectors();
+            api.getConnectorStatus("a");
+            api.getConnectorStatus("b");
+            api.getWorkerInfo();
+
+            api.pauseConnector("a");
+
+            api.getConnectors();
+            api.getConnectorStatus("a");
+            api.getConnectorStatus("b");
+            api.getWorkerInfo();
+            return null;
+        });
+
+        assertThat(requests).containsExactly("getConnectors", "getConnectorStatus a", "getConnectorStatus b", "getWorkerInfo",
+                "pauseConnector a", "getConnectors", "getConnectorStatus a");
+    }
+
+    @Test
+    void should_merge_concurrent_identical_requests() {
+        KafkaConnectApi api = RequestCache.wrap(kafkaConnectApi());
+        blocking = true;
+
+        List<List<String>> results = RequestCache.withinInvocation(() -> FanOut.map(List.of(1, 2, 3, 4), 4, Duration.ofSeconds(10), i -> {
+            if (i == 4) {
+                await(() -> !requests.isEmpty());
+                release.countDown();
+            }
+            return api.getConnectors();
+        }));
+
+        assertThat(requests).containsExactly("getConnectors");
+        assertThat(results).allSatisfy(result -> assertThat(result).containsExactly("a", "b"));
+    }
+
+    @Test
+    void should_not_memoize_failures() {
+        KafkaConnectApi api = RequestCache.wrap(kafkaConnectApi());
+
+        RequestCache.withinInvocation(() -> {
+            assertThatThrownBy(() -> api.getConnector("missing")).isInstanceOf(KafkaConnectNotFoundException.class);
+            assertThatThrownBy(() -> api.getConnector("missing")).isInstanceOf(KafkaConnectNotFoundException.class);
+            return null;
+        });
+
+        assertThat(requests).containsExactly("getConnector missing", "getConnector missing");
+    }
+
+    @Test
+    void should_memoize_async_responses_within_invocation() {
+        KafkaConnectAsyncApi api = RequestCache.wrap(kafkaConnectAsyncApi());
+
+        RequestCache.withinInvocation(() -> {
+            CompletableFuture<List<String>> first = api.getConnectors().toCompletableFuture();
+            CompletableFuture<List<String>> second = api.getConnectors().toCompletableFuture();
+
+            // Completing one caller's stage doesn't affect the others
+            first.complete(List.of("x"));
+            assertThat(second.join()).containsExactly("a", "b");
+
+            api.pauseConnector("a").toCompletableFuture().join();
+            assertThat(api.getConnectors().toCompletableFuture().join()).containsExactly("a", "b");
+            return null;
+        });
+
+        assertThat(requests).containsExactly("getConnectors", "pauseConnector a", "getConnectors");
+    }
+
+    @Test
+    void should_not_memoize_async_failures() {
+        KafkaConnectAsyncApi api = RequestCache.wrap(kafkaConnectAsyncApi());
+
+        RequestCache.withinInvocation(() -> {
+            assertThatThrownBy(() -> api.getConnector("missing").toCompletableFuture().join())
+                    .isInstanceOf(CompletionException.class)
+                    .hasCauseInstanceOf(KafkaConnectNotFoundException.class);
+            assertThatThrownBy(() -> api.getConnector("missing").toCompletableFuture().join())
+                    .hasCauseInstanceOf(KafkaConnectNotFoundException.class);
+            return null;
+        });
+
+        assertThat(requests).containsExactly("getConnector missing", "getConnector missing");
+    }
+
+    @Test
+    void should_determine_request_path() throws Exception {
+        assertThat(RequestCache.path(KafkaConnectApi.class.getMethod("getWorkerInfo"), null)).isEqualTo("/");
+        assertThat(RequestCache.path(KafkaConnectApi.class.getMethod("getConnectors"), null)).isEqualTo("/connectors");
+        assertThat(RequestCache.path(KafkaConnectApi.class.getMethod("restartTask", String.class, String.class), new Object[]{ "a", "0" }))
+                .isEqualTo("/connectors/a/tasks/0/restart");
+    }
+
+    private KafkaConnectApi kafkaConnectApi() {
+        return (KafkaConnectApi) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ KafkaConnectApi.class }, (proxy, method, args) -> {
+            requests.add(method.getName() + (args == null ? "" : " " + args[0]));
+
+            return switch (method.getName()) {
+                case "getConnectors" -> {
+                    if (blocking) {
+                        release.await(10, TimeUnit.SECONDS);
+                    }
+                    yield List.of("a", "b");
+                }
+                case "getConnector" -> throw new KafkaConnectNotFoundException("Connector missing not found");
+                default -> null;
+            };
+        });
+    }
+
+    private KafkaConnectAsyncApi kafkaConnectAsyncApi() {
+        return (KafkaConnectAsyncApi) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ KafkaConnectAsyncApi.class }, (proxy, method, args) -> {
+            requests.add(method.getName() + (args == null ? "" : " " + args[0]));
+
+            return switch (method.getName()) {
+                case "getConnectors" -> CompletableFuture.supplyAsync(() -> List.of("a", "b"));
+                case "getConnector" -> CompletableFuture.failedFuture(new KafkaConnectNotFoundException("Connector missing not found"));
+                default -> CompletableFuture.completedFuture(null);
+            };
+        });
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
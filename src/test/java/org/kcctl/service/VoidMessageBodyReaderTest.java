@@ -0,0 +1,54 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.kcctl.support.FakeKafkaConnect;
+
+import io.quarkus.test.junit.QuarkusTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Kafka Connect answers pausing and resuming connectors with "202 Accepted", without body and content type.
+ */
+@QuarkusTest
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class VoidMessageBodyReaderTest {
+
+    private FakeKafkaConnect connect;
+
+    @BeforeEach
+    void startFakeKafkaConnect() {
+        connect = new FakeKafkaConnect().connectors(1).tasksPerConnector(1).start();
+    }
+
+    @AfterEach
+    void stopFakeKafkaConnect() {
+        connect.close();
+    }
+
+    @Test
+    void should_complete_async_requests_with_empty_accepted_response() throws Exception {
+        KafkaConnectAsyncApi asyncApi = KafkaConnectClientFactory.getAsyncClient(connect.uri());
+
+        Void paused = asyncApi.pauseConnector("connector-00000").toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Void resumed = asyncApi.resumeConnector("connector-00000").toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        assertThat(paused).isNull();
+        assertThat(resumed).isNull();
+        assertThat(connect.requestCount("PUT /connectors/{name}/pause")).isEqualTo(1);
+        assertThat(connect.requestCount("PUT /connectors/{name}/resume")).isEqualTo(1);
+    }
+}
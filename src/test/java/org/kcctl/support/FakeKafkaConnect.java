@@ -0,0 +1,801 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.kcctl.service.AlterResetOffsetsResponse;
+import org.kcctl.service.ConfigInfos;
+import org.kcctl.service.ConnectorExpandInfo;
+import org.kcctl.service.ConnectorInfo;
+import org.kcctl.service.ConnectorOffset;
+import org.kcctl.service.ConnectorOffsets;
+import org.kcctl.service.ConnectorPlugin;
+import org.kcctl.service.ConnectorState;
+import org.kcctl.service.ConnectorStatusInfo;
+import org.kcctl.service.ErrorResponse;
+import org.kcctl.service.KafkaConnectInfo;
+import org.kcctl.service.LoggerLevel;
+import org.kcctl.service.TaskConfig;
+import org.kcctl.service.TaskInfo;
+import org.kcctl.service.TaskState;
+import org.kcctl.service.TopicsInfo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * An in-process stand-in for the Kafka Connect REST API, implementing all the endpoints of
+ * {@link org.kcctl.service.KafkaConnectApi} against an in-memory fleet of synthetic connectors. Latency and errors
+ * can be injected, and the requests are counted per endpoint, allowing to examine how kcctl behaves with large
+ * numbers of connectors without running an actual Kafka Connect cluster.
+ * <p>
+ * Configure the instance and then {@link #start() start} it:
+ *
+ * <pre>
+ * try (FakeKafkaConnect connect = new FakeKafkaConnect().connectors(10_000).tasksPerConnector(2).latency(Duration.ofMillis(5)).start()) {
+ *     // run commands against connect.uri()
+ * }
+ * </pre>
+ *
+ * State changes (pausing, restarting, etc.) take effect immediately.
+ */
+public class FakeKafkaConnect implements AutoCloseable {
+
+    public static final String SOURCE_CLASS = "org.kcctl.fake.FakeSourceConnector";
+    public static final String SINK_CLASS = "org.kcctl.fake.FakeSinkConnector";
+
+    private static final String RUNNING = "RUNNING";
+    private static final String PAUSED = "PAUSED";
+    private static final String STOPPED = "STOPPED";
+    private static final String FAILED = "FAILED";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private final ConcurrentMap<String, Connector> connectors = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, LoggerLevel> loggers = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, LongAdder> requests = new ConcurrentHashMap<>();
+    private final LongAdder bytesSent = new LongAdder();
+
+    private int connectorCount = 0;
+    private int tasksPerConnector = 1;
+    private int workers = 3;
+    private double failedTaskRatio = 0;
+    private int configEntries = 0;
+    private Duration latency = Duration.ZERO;
+    private double errorRate = 0;
+    private String version = "3.7.0";
+    private long seed = 42;
+    private int port = 0;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * A connector of the fleet; its state is guarded by its monitor.
+     */
+    private static class Connector {
+        final String name;
+        final String type;
+        final String worker;
+        Map<String, String> config;
+        String state = RUNNING;
+        List<String> taskStates = new ArrayList<>();
+        List<ConnectorOffset> offsets = new ArrayList<>();
+
+        Connector(String name, String type, String worker, Map<String, String> config) {
+            this.name = name;
+            this.type = type;
+            this.worker = worker;
+            this.config = config;
+        }
+    }
+
+    /**
+     * A response to be sent, with {@code body} being serialized to JSON unless {@code null}.
+     */
+    private record Response(int status, Object body) {
+    }
+
+    /**
+     * Thrown for responding with a Kafka Connect error, e.g. 404 for an unknown connector.
+     */
+    private static class ErrorStatus extends RuntimeException {
+        final int status;
+
+        ErrorStatus(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * The number of synthetic connectors, named "connector-00000" etc. (default: 0).
+     */
+    public FakeKafkaConnect connectors(int count) {
+        this.connectorCount = count;
+        return this;
+    }
+
+    /**
+     * The number of tasks of each synthetic connector (default: 1).
+     */
+    public FakeKafkaConnect tasksPerConnector(int count) {
+        this.tasksPerConnector = count;
+        return this;
+    }
+
+    /**
+     * The number of workers the connectors and tasks are distributed over (default: 3).
+     */
+    public FakeKafkaConnect workers(int count) {
+        this.workers = count;
+        return this;
+    }
+
+    /**
+     * The share of synthetic tasks which are FAILED, between 0 and 1 (default: 0).
+     */
+    public FakeKafkaConnect failedTaskRatio(double ratio) {
+        this.failedTaskRatio = ratio;
+        return this;
+    }
+
+    /**
+     * The number of additional configuration entries of each synthetic connector, e.g. for testing with large
+     * configurations (default: 0).
+     */
+    public FakeKafkaConnect configEntries(int count) {
+        this.configEntries = count;
+        return this;
+    }
+
+    /**
+     * The delay before responding to each request (default: none).
+     */
+    public FakeKafkaConnect latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * The share of requests failing with status 500, between 0 and 1 (default: 0).
+     */
+    public FakeKafkaConnect errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * The Kafka Connect version reported by the root endpoint (default: 3.7.0).
+     */
+    public FakeKafkaConnect version(String version) {
+        this.version = version;
+        return this;
+    }
+
+    /**
+     * The seed for choosing the failed tasks (default: 42).
+     */
+    public FakeKafkaConnect seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * The port to listen on (default: an ephemeral port).
+     */
+    public FakeKafkaConnect port(int port) {
+        this.port = port;
+        return this;
+    }
+
+    /**
+     * Creates the synthetic fleet and starts serving requests on the loopback interface.
+     */
+    public FakeKafkaConnect start() {
+        Random random = new Random(seed);
+        for (int i = 0; i < connectorCount; i++) {
+            Connector connector = new Connector("connector-%05d".formatted(i), i % 2 == 0 ? "source" : "sink", worker(i), syntheticConfig(i));
+            for (int task = 0; task < tasksPerConnector; task++) {
+                connector.taskStates.add(random.nextDouble() < failedTaskRatio ? FAILED : RUNNING);
+            }
+            connector.offsets.add(new ConnectorOffset(Map.of("partition", 0), Map.of("position", i)));
+            connectors.put(connector.name, connector);
+        }
+
+        loggers.put("root", new LoggerLevel("INFO", null));
+        loggers.put("org.apache.kafka.connect", new LoggerLevel("INFO", null));
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+
+        return this;
+    }
+
+    /**
+     * Runs a fake Kafka Connect cluster until terminated, for trying out kcctl against large fleets, e.g.
+     * {@code --connectors 10000 --tasks 2 --latency-ms 5 --port 8083}.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        FakeKafkaConnect connect = new FakeKafkaConnect().port(8083);
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--connectors" -> connect.connectors(Integer.parseInt(value));
+                case "--tasks" -> connect.tasksPerConnector(Integer.parseInt(value));
+                case "--workers" -> connect.workers(Integer.parseInt(value));
+                case "--failed-task-ratio" -> connect.failedTaskRatio(Double.parseDouble(value));
+                case "--config-entries" -> connect.configEntries(Integer.parseInt(value));
+                case "--latency-ms" -> connect.latency(Duration.ofMillis(Long.parseLong(value)));
+                case "--error-rate" -> connect.errorRate(Double.parseDouble(value));
+                case "--version" -> connect.version(value);
+                case "--port" -> connect.port(Integer.parseInt(value));
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        connect.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println("Requests: " + connect.requestCounts())));
+        System.out.println("Fake Kafka Connect with " + connect.connectors.size() + " connectors listening on " + connect.uri());
+        Thread.currentThread().join();
+    }
+
+    public URI uri() {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort());
+    }
+
+    /**
+     * Returns the total number of requests received.
+     */
+    public long requestCount() {
+        return requests.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * Returns the number of requests received for the given endpoint, e.g. "GET /connectors/{name}/status".
+     */
+    public long requestCount(String endpoint) {
+        LongAdder count = requests.get(endpoint);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Returns the number of requests received per endpoint.
+     */
+    public Map<String, Long> requestCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        requests.forEach((endpoint, count) -> counts.put(endpoint, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Returns the number of response body bytes sent.
+     */
+    public long bytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * Resets the request and byte counts, e.g. after setting up a test.
+     */
+    public void resetStatistics() {
+        requests.clear();
+        bytesSent.reset();
+    }
+
+    /**
+     * Sets the state of the given connector and all its tasks, e.g. for simulating failures.
+     */
+    public void setState(String connector, String state) {
+        Connector c = connector(connector);
+        synchronized (c) {
+            c.state = state;
+            c.taskStates.replaceAll(s -> state);
+        }
+    }
+
+    /**
+     * Sets the state of the given task.
+     */
+    public void setTaskState(String connector, int task, String state) {
+        Connector c = connector(connector);
+        synchronized (c) {
+            c.taskStates.set(task, state);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            List<String> path = segments(exchange.getRequestURI().getRawPath());
+            Map<String, List<String>> query = query(exchange.getRequestURI().getRawQuery());
+
+            Response response;
+            try {
+                String endpoint = method + " " + endpoint(path);
+                requests.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+
+                if (!latency.isZero()) {
+                    Thread.sleep(latency);
+                }
+
+                if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                    throw new ErrorStatus(500, "Injected error");
+                }
+
+                response = route(method, path, query, exchange.getRequestBody());
+            }
+            catch (ErrorStatus e) {
+                response = new Response(e.status, new ErrorResponse(e.status, e.getMessage()));
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            catch (RuntimeException e) {
+                response = new Response(500, new ErrorResponse(500, String.valueOf(e.getMessage())));
+            }
+
+            send(exchange, response);
+        }
+    }
+
+    private Response route(String method, List<String> path, Map<String, List<String>> query, InputStream body) {
+        if (path.isEmpty()) {
+            return ok(method, "GET", () -> new KafkaConnectInfo(version, "fake", "fake-cluster"));
+        }
+
+        if (path.get(0).equals("connector-plugins")) {
+            return plugins(method, path, query, body);
+        }
+        else if (path.get(0).equals("connectors")) {
+            return path.size() == 1 ? connectors(method, query, body) : connector(method, path, query, body);
+        }
+        else if (path.get(0).equals("admin") && path.size() > 1 && path.get(1).equals("loggers")) {
+            return loggers(method, path, query, body);
+        }
+
+        throw new ErrorStatus(404, "HTTP 404 Not Found");
+    }
+
+    private Response plugins(String method, List<String> path, Map<String, List<String>> query, InputStream body) {
+        if (path.size() == 1) {
+            return ok(method, "GET", () -> {
+                List<ConnectorPlugin> plugins = new ArrayList<>(List.of(
+                        new ConnectorPlugin(SINK_CLASS, "sink", version),
+                        new ConnectorPlugin(SOURCE_CLASS, "source", version)));
+                if ("false".equals(first(query, "connectorsOnly"))) {
+                    plugins.add(new ConnectorPlugin("org.apache.kafka.connect.transforms.InsertField$Value", "transformation", version));
+                    plugins.add(new ConnectorPlugin("org.apache.kafka.connect.json.JsonConverter", "converter", version));
+                }
+                return plugins;
+            });
+        }
+
+        String plugin = path.get(1);
+        if (path.size() == 3 && path.get(2).equals("config")) {
+            return ok(method, "GET", () -> List.of(
+                    configKey("topics", "LIST", false, "Topics to consume from"),
+                    configKey("tasks.max", "INT", false, "Maximum number of tasks")));
+        }
+
+        if (path.size() == 4 && path.get(2).equals("config") && path.get(3).equals("validate")) {
+            return ok(method, "PUT", () -> {
+                Map<String, String> config = read(body, new TypeReference<>() {
+                });
+                List<ConfigInfos.ConfigInfo> configs = config.entrySet().stream()
+                        .map(e -> new ConfigInfos.ConfigInfo(configKey(e.getKey(), "STRING", false, null),
+                                new ConfigInfos.ConfigValueInfo(e.getKey(), e.getValue(), List.of(), List.of(), true)))
+                        .toList();
+                return new ConfigInfos(plugin, 0, List.of("Common"), configs);
+            });
+        }
+
+        throw new ErrorStatus(404, "HTTP 404 Not Found");
+    }
+
+    private Response connectors(String method, Map<String, List<String>> query, InputStream body) {
+        if (method.equals("POST")) {
+            Map<String, Object> request = read(body, new TypeReference<>() {
+            });
+            String name = (String) request.get("name");
+            @SuppressWarnings("unchecked")
+            Map<String, String> config = (Map<String, String>) request.get("config");
+            if (name == null || config == null) {
+                throw new ErrorStatus(400, "Connector name and config must be given");
+            }
+
+            Connector connector = newConnector(name, config);
+            if (connectors.putIfAbsent(name, connector) != null) {
+                throw new ErrorStatus(409, "Connector " + name + " already exists");
+            }
+            return new Response(201, info(connector));
+        }
+
+        return ok(method, "GET", () -> {
+            List<String> expand = query.getOrDefault("expand", List.of());
+            if (expand.isEmpty()) {
+                return List.copyOf(connectors.keySet());
+            }
+
+            Map<String, ConnectorExpandInfo> result = new LinkedHashMap<>();
+            for (Connector connector : connectors.values()) {
+                result.put(connector.name, new ConnectorExpandInfo(
+                        expand.contains("status") ? status(connector) : null,
+                        expand.contains("info") ? info(connector) : null));
+            }
+            return result;
+        });
+    }
+
+    private Response connector(String method, List<String> path, Map<String, List<String>> query, InputStream body) {
+        String name = path.get(1);
+
+        // Creating a connector via PUT /connectors/{name}/config
+        if (path.size() == 3 && path.get(2).equals("config") && method.equals("PUT")) {
+            Map<String, String> config = read(body, new TypeReference<>() {
+            });
+            Connector created = newConnector(name, config);
+            Connector existing = connectors.putIfAbsent(name, created);
+            if (existing == null) {
+                return new Response(201, info(created));
+            }
+            synchronized (existing) {
+                existing.config = new LinkedHashMap<>(config);
+                existing.config.put("name", name);
+            }
+            return new Response(200, info(existing));
+        }
+
+        Connector connector = connector(name);
+
+        if (path.size() == 2) {
+            if (method.equals("DELETE")) {
+                connectors.remove(name);
+                return new Response(204, null);
+            }
+            return ok(method, "GET", () -> info(connector));
+        }
+
+        String resource = path.get(2);
+        synchronized (connector) {
+            switch (path.size() == 3 ? resource : resource + "/" + path.get(4)) {
+                case "status":
+                    return ok(method, "GET", () -> status(connector));
+                case "config":
+                    return ok(method, "GET", () -> Map.copyOf(connector.config));
+                case "tasks":
+                    return ok(method, "GET", () -> taskConfigs(connector));
+                case "topics":
+                    return ok(method, "GET", () -> Map.of(name, new TopicsInfo(List.of(connector.name + "-topic"))));
+                case "pause":
+                    return transition(method, connector, PAUSED, 202);
+                case "resume":
+                    return transition(method, connector, RUNNING, 202);
+                case "stop":
+                    return transition(method, connector, STOPPED, 204);
+                case "restart":
+                    return restart(method, connector, query);
+                case "offsets":
+                    return offsets(method, connector, body);
+                case "tasks/restart":
+                    return restartTask(method, connector, path.get(3));
+                default:
+                    throw new ErrorStatus(404, "HTTP 404 Not Found");
+            }
+        }
+    }
+
+    private Response transition(String method, Connector connector, String state, int status) {
+        expect(method, "PUT");
+        boolean wasStopped = connector.state.equals(STOPPED);
+        connector.state = state;
+
+        if (!state.equals(STOPPED)) {
+            // Failed tasks remain failed, unless the tasks are started again after having been stopped
+            connector.taskStates.replaceAll(s -> s.equals(FAILED) && !wasStopped ? FAILED : state);
+        }
+        return new Response(status, null);
+    }
+
+    private Response restart(String method, Connector connector, Map<String, List<String>> query) {
+        expect(method, "POST");
+        boolean includeTasks = "true".equals(first(query, "includeTasks"));
+        boolean onlyFailed = "true".equals(first(query, "onlyFailed"));
+
+        if (connector.state.equals(FAILED)) {
+            connector.state = RUNNING;
+        }
+        if (includeTasks) {
+            String state = connector.state.equals(PAUSED) ? PAUSED : RUNNING;
+            connector.taskStates.replaceAll(s -> !onlyFailed || s.equals(FAILED) ? state : s);
+        }
+
+        return includeTasks || onlyFailed ? new Response(202, status(connector)) : new Response(204, null);
+    }
+
+    private Response restartTask(String method, Connector connector, String id) {
+        expect(method, "POST");
+        int task = parseTask(connector, id);
+        connector.taskStates.set(task, connector.state.equals(PAUSED) ? PAUSED : RUNNING);
+        return new Response(204, null);
+    }
+
+    private Response offsets(String method, Connector connector, InputStream body) {
+        if (method.equals("GET")) {
+            return new Response(200, new ConnectorOffsets(List.copyOf(connector.offsets)));
+        }
+
+        if (!connector.state.equals(STOPPED)) {
+            throw new ErrorStatus(400, "Connectors must be in the STOPPED state before their offsets can be modified");
+        }
+
+        switch (method) {
+            case "DELETE":
+                connector.offsets.clear();
+                return new Response(200, new AlterResetOffsetsResponse("The offsets for this connector have been reset successfully"));
+            case "PATCH":
+                ConnectorOffsets offsets = read(body, new TypeReference<>() {
+                });
+                connector.offsets = new ArrayList<>(offsets.offsets());
+                return new Response(200, new AlterResetOffsetsResponse("The offsets for this connector have been altered successfully"));
+            default:
+                throw new ErrorStatus(405, "HTTP 405 Method Not Allowed");
+        }
+    }
+
+    private Response loggers(String method, List<String> path, Map<String, List<String>> query, InputStream body) {
+        if (path.size() == 2) {
+            return ok(method, "GET", () -> Map.copyOf(loggers));
+        }
+
+        String logger = path.get(2);
+        if (method.equals("PUT")) {
+            Map<String, String> request = read(body, new TypeReference<>() {
+            });
+            String level = request.get("level");
+            if (level == null) {
+                throw new ErrorStatus(400, "The request body must contain a 'level' field");
+            }
+
+            List<String> affected = new ArrayList<>();
+            loggers.put(logger, new LoggerLevel(level, System.currentTimeMillis()));
+            loggers.keySet().stream().filter(l -> l.startsWith(logger)).forEach(affected::add);
+            return "cluster".equals(first(query, "scope")) ? new Response(204, null) : new Response(200, affected);
+        }
+
+        return ok(method, "GET", () -> {
+            LoggerLevel level = loggers.get(logger);
+            if (level == null) {
+                throw new ErrorStatus(404, "Logger " + logger + " not found.");
+            }
+            return level;
+        });
+    }
+
+    private Connector connector(String name) {
+        Connector connector = connectors.get(name);
+        if (connector == null) {
+            throw new ErrorStatus(404, "Connector " + name + " not found");
+        }
+        return connector;
+    }
+
+    private Connector newConnector(String name, Map<String, String> config) {
+        String connectorClass = config.getOrDefault("connector.class", SOURCE_CLASS);
+        Connector connector = new Connector(name, connectorClass.toLowerCase().contains("sink") ? "sink" : "source",
+                worker(connectors.size()), new LinkedHashMap<>(config));
+        connector.config.put("name", name);
+
+        int tasks = Integer.parseInt(config.getOrDefault("tasks.max", "1"));
+        for (int i = 0; i < tasks; i++) {
+            connector.taskStates.add(RUNNING);
+        }
+        return connector;
+    }
+
+    private Map<String, String> syntheticConfig(int i) {
+        Map<String, String> config = new LinkedHashMap<>();
+        config.put("name", "connector-%05d".formatted(i));
+        config.put("connector.class", i % 2 == 0 ? SOURCE_CLASS : SINK_CLASS);
+        config.put("tasks.max", String.valueOf(tasksPerConnector));
+        config.put(i % 2 == 0 ? "topic.prefix" : "topics", "topic-%05d".formatted(i));
+        for (int entry = 0; entry < configEntries; entry++) {
+            config.put("fake.property." + entry, "value-" + entry);
+        }
+        return config;
+    }
+
+    private String worker(int index) {
+        return "worker-%d:8083".formatted(index % Math.max(workers, 1));
+    }
+
+    private static ConnectorInfo info(Connector connector) {
+        synchronized (connector) {
+            List<TaskInfo> tasks = new ArrayList<>();
+            for (int i = 0; i < taskCount(connector); i++) {
+                tasks.add(new TaskInfo(connector.name, i));
+            }
+            return new ConnectorInfo(connector.name, Map.copyOf(connector.config), tasks, connector.type);
+        }
+    }
+
+    private ConnectorStatusInfo status(Connector connector) {
+        synchronized (connector) {
+            List<TaskState> tasks = new ArrayList<>();
+            for (int i = 0; i < taskCount(connector); i++) {
+                String state = connector.taskStates.get(i);
+                tasks.add(new TaskState(i, state, taskWorker(connector, i),
+                        state.equals(FAILED) ? "org.apache.kafka.connect.errors.ConnectException: Injected failure" : null));
+            }
+            return new ConnectorStatusInfo(connector.name, new ConnectorState(connector.state, connector.worker), connector.type, tasks);
+        }
+    }
+
+    private static List<TaskConfig> taskConfigs(Connector connector) {
+        List<TaskConfig> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount(connector); i++) {
+            tasks.add(new TaskConfig(new TaskInfo(connector.name, i), Map.of("task.class", connector.config.get("connector.class") + "Task")));
+        }
+        return tasks;
+    }
+
+    /**
+     * Stopped connectors have no tasks.
+     */
+    private static int taskCount(Connector connector) {
+        return connector.state.equals(STOPPED) ? 0 : connector.taskStates.size();
+    }
+
+    private String taskWorker(Connector connector, int task) {
+        int worker = Integer.parseInt(connector.worker.substring("worker-".length(), connector.worker.indexOf(':')));
+        return worker(worker + task + 1);
+    }
+
+    private static int parseTask(Connector connector, String id) {
+        try {
+            int task = Integer.parseInt(id);
+            if (task >= 0 && task < taskCount(connector)) {
+                return task;
+            }
+        }
+        catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new ErrorStatus(404, "Task " + connector.name + "-" + id + " not found");
+    }
+
+    private static ConfigInfos.ConfigKeyInfo configKey(String name, String type, boolean required, String documentation) {
+        return new ConfigInfos.ConfigKeyInfo(name, type, required, null, "HIGH", documentation, "Common", 0, "MEDIUM", name, List.of());
+    }
+
+    private static Response ok(String method, String expected, Supplier<Object> body) {
+        expect(method, expected);
+        return new Response(200, body.get());
+    }
+
+    private static void expect(String method, String expected) {
+        if (!method.equals(expected)) {
+            throw new ErrorStatus(405, "HTTP 405 Method Not Allowed");
+        }
+    }
+
+    private static <T> T read(InputStream body, TypeReference<T> type) {
+        try {
+            return MAPPER.readValue(body, type);
+        }
+        catch (IOException e) {
+            throw new ErrorStatus(400, "Invalid request body: " + e.getMessage());
+        }
+    }
+
+    private void send(HttpExchange exchange, Response response) throws IOException {
+        if (response.body() == null) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+
+        byte[] bytes = MAPPER.writeValueAsBytes(response.body());
+        bytesSent.add(bytes.length);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Returns the endpoint template of the given path, e.g. "/connectors/{name}/tasks/{id}/restart".
+     */
+    private static String endpoint(List<String> path) {
+        List<String> template = new ArrayList<>(path);
+        if (template.size() > 1 && (template.get(0).equals("connectors") || template.get(0).equals("connector-plugins"))) {
+            template.set(1, "{name}");
+        }
+        if (template.size() > 3 && template.get(0).equals("connectors") && template.get(2).equals("tasks")) {
+            template.set(3, "{id}");
+        }
+        if (template.size() > 2 && template.get(0).equals("admin")) {
+            template.set(2, "{name}");
+        }
+        return "/" + String.join("/", template);
+    }
+
+    private static List<String> segments(String rawPath) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : rawPath.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(URLDecoder.decode(segment, StandardCharsets.UTF_8));
+            }
+        }
+        return segments;
+    }
+
+    private static Map<String, List<String>> query(String rawQuery) {
+        Map<String, List<String>> query = new LinkedHashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int eq = parameter.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? parameter : parameter.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(parameter.substring(eq + 1), StandardCharsets.UTF_8);
+            query.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+        return query;
+    }
+
+    private static String first(Map<String, List<String>> query, String key) {
+        List<String> values = query.get(key);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+}
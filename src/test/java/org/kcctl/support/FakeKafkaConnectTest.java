@@ -0,0 +1,184 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.kcctl.service.ConnectorExpandInfo;
+import org.kcctl.service.ConnectorInfo;
+import org.kcctl.service.ConnectorStatusInfo;
+import org.kcctl.service.ConnectorStatusReader;
+import org.kcctl.service.KafkaConnectInfo;
+import org.kcctl.service.TaskState;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class FakeKafkaConnectTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private FakeKafkaConnect connect;
+
+    @AfterEach
+    void stop() {
+        connect.close();
+    }
+
+    @Test
+    void should_serve_synthetic_fleet() {
+        connect = new FakeKafkaConnect().connectors(100).tasksPerConnector(2).workers(4).start();
+
+        assertThat(get("/", KafkaConnectInfo.class).version()).isEqualTo("3.7.0");
+        assertThat(get("/connectors", new TypeReference<List<String>>() {
+        })).hasSize(100).startsWith("connector-00000", "connector-00001");
+        assertThat(get("/connectors/connector-00001", ConnectorInfo.class).type()).isEqualTo("sink");
+        assertThat(get("/connectors/connector-00000/config", new TypeReference<Map<String, String>>() {
+        })).containsEntry("connector.class", FakeKafkaConnect.SOURCE_CLASS);
+
+        Map<String, ConnectorExpandInfo> expanded = get("/connectors?expand=status&expand=info", new TypeReference<>() {
+        });
+        assertThat(expanded).hasSize(100);
+        assertThat(expanded.get("connector-00005").status().tasks()).extracting(TaskState::worker_id)
+                .containsExactly("worker-2:8083", "worker-3:8083");
+        assertThat(expanded.get("connector-00005").info().tasks()).hasSize(2);
+
+        HttpResponse<InputStream> response = send("GET", "/connectors?expand=status", null, HttpResponse.BodyHandlers.ofInputStream());
+        try (ConnectorStatusReader reader = new ConnectorStatusReader(response.body())) {
+            assertThat(reader.stream().map(ConnectorStatusInfo::name)).hasSize(100);
+        }
+    }
+
+    @Test
+    void should_apply_state_changes() {
+        connect = new FakeKafkaConnect().connectors(2).tasksPerConnector(3).failedTaskRatio(1).start();
+
+        assertThat(status("connector-00000").tasks()).extracting(TaskState::state).containsOnly("FAILED");
+
+        assertThat(send("POST", "/connectors/connector-00000/restart?includeTasks=true&onlyFailed=true", null).statusCode()).isEqualTo(202);
+        assertThat(status("connector-00000").tasks()).extracting(TaskState::state).containsOnly("RUNNING");
+
+        assertThat(send("POST", "/connectors/connector-00001/tasks/1/restart", null).statusCode()).isEqualTo(204);
+        assertThat(status("connector-00001").tasks()).extracting(TaskState::state).containsExactly("FAILED", "RUNNING", "FAILED");
+
+        send("PUT", "/connectors/connector-00000/pause", null);
+        assertThat(status("connector-00000").connector().state()).isEqualTo("PAUSED");
+
+        assertThat(send("DELETE", "/connectors/connector-00000/offsets", null).statusCode()).isEqualTo(400);
+        send("PUT", "/connectors/connector-00000/stop", null);
+        assertThat(status("connector-00000").tasks()).isEmpty();
+        assertThat(send("DELETE", "/connectors/connector-00000/offsets", null).body()).contains("reset successfully");
+
+        send("PUT", "/connectors/connector-00000/resume", null);
+        assertThat(status("connector-00000").tasks()).extracting(TaskState::state).containsOnly("RUNNING");
+
+        assertThat(send("POST", "/connectors", """
+                { "name": "new", "config": { "connector.class": "%s", "tasks.max": "2" } }
+                """.formatted(FakeKafkaConnect.SINK_CLASS)).statusCode()).isEqualTo(201);
+        assertThat(status("new").tasks()).hasSize(2);
+        assertThat(send("POST", "/connectors", "{ \"name\": \"new\", \"config\": {} }").statusCode()).isEqualTo(409);
+
+        assertThat(send("DELETE", "/connectors/new", null).statusCode()).isEqualTo(204);
+        HttpResponse<String> notFound = send("GET", "/connectors/new", null);
+        assertThat(notFound.statusCode()).isEqualTo(404);
+        assertThat(notFound.body()).contains("\"error_code\":404", "Connector new not found");
+    }
+
+    @Test
+    void should_count_requests_per_endpoint() {
+        connect = new FakeKafkaConnect().connectors(3).start();
+
+        send("GET", "/connectors", null);
+        status("connector-00000");
+        status("connector-00001");
+        send("POST", "/connectors/connector-00002/tasks/0/restart", null);
+
+        assertThat(connect.requestCount()).isEqualTo(4);
+        assertThat(connect.requestCounts()).containsExactly(
+                Map.entry("GET /connectors", 1L),
+                Map.entry("GET /connectors/{name}/status", 2L),
+                Map.entry("POST /connectors/{name}/tasks/{id}/restart", 1L));
+        assertThat(connect.bytesSent()).isPositive();
+
+        connect.resetStatistics();
+        assertThat(connect.requestCount()).isZero();
+        assertThat(connect.bytesSent()).isZero();
+    }
+
+    @Test
+    void should_inject_errors() {
+        connect = new FakeKafkaConnect().connectors(1).errorRate(1).start();
+
+        HttpResponse<String> response = send("GET", "/connectors", null);
+
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(response.body()).contains("Injected error");
+        assertThat(connect.requestCount("GET /connectors")).isEqualTo(1);
+    }
+
+    private ConnectorStatusInfo status(String connector) {
+        return get("/connectors/" + connector + "/status", ConnectorStatusInfo.class);
+    }
+
+    private <T> T get(String path, Class<T> type) {
+        return get(path, MAPPER.getTypeFactory().constructType(type));
+    }
+
+    private <T> T get(String path, TypeReference<T> type) {
+        return get(path, MAPPER.getTypeFactory().constructType(type));
+    }
+
+    private <T> T get(String path, JavaType type) {
+        HttpResponse<String> response = send("GET", path, null);
+        assertThat(response.statusCode()).isEqualTo(200);
+        try {
+            return MAPPER.readValue(response.body(), type);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) {
+        return send(method, path, body, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private <T> HttpResponse<T> send(String method, String path, String body, HttpResponse.BodyHandler<T> handler) {
+        HttpRequest request = HttpRequest.newBuilder(connect.uri().resolve(path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            return client.send(request, handler);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
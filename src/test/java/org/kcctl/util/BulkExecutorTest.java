@@ -0,0 +1,142 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.kcctl.service.KafkaConnectNotFoundException;
+import org.kcctl.util.BulkExecutor.Outcome;
+import org.kcctl.util.BulkExecutor.Result;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class BulkExecutorTest {
+
+    private static final Executor DELAYED = CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS);
+
+    private final StringWriter out = new StringWriter();
+    private final StringWriter err = new StringWriter();
+
+    @Test
+    void should_apply_operation_to_all_connectors() {
+        List<Result> results = executor(4, 0, false).execute("Paused", List.of("a", "b", "c"),
+                connector -> CompletableFuture.supplyAsync(() -> "Paused connector " + connector, DELAYED));
+
+        assertThat(results).extracting(Result::connector).containsExactly("a", "b", "c");
+        assertThat(results).extracting(Result::outcome).containsOnly(Outcome.SUCCEEDED);
+        assertThat(BulkExecutor.exitCode(results)).isZero();
+        assertThat(out.toString())
+                .contains("Paused connector a", "Paused connector b", "Paused connector c")
+                .containsPattern("RESULT +CONNECTORS")
+                .containsPattern("succeeded +3")
+                .contains("Paused 3 of 3 connector(s) in");
+        assertThat(err.toString()).isEmpty();
+    }
+
+    @Test
+    void should_not_print_summary_for_single_connector() {
+        executor(4, 0, false).execute("Paused", List.of("a"), connector -> CompletableFuture.completedFuture("Paused connector " + connector));
+
+        assertThat(out.toString()).isEqualTo("Paused connector a" + System.lineSeparator());
+    }
+
+    @Test
+    void should_limit_concurrent_operations() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<Result> results = executor(3, 0, false).execute("Paused", names(20), connector -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                running.decrementAndGet();
+                return connector;
+            }, DELAYED);
+        });
+
+        assertThat(results).extracting(Result::outcome).containsOnly(Outcome.SUCCEEDED);
+        assertThat(maxRunning.get()).isEqualTo(3);
+    }
+
+    @Test
+    void should_limit_rate_of_operations() {
+        long start = System.nanoTime();
+
+        executor(20, 20, false).execute("Paused", names(30), CompletableFuture::completedFuture);
+
+        // The first 20 operations may be started right away, the remaining 10 within half a second
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(450);
+    }
+
+    @Test
+    void should_skip_remaining_connectors_after_failure() {
+        List<Result> results = executor(1, 0, false).execute("Deleted", List.of("a", "b", "c"), connector -> connector.equals("b")
+                ? CompletableFuture.failedFuture(new KafkaConnectNotFoundException("Connector b not found"))
+                : CompletableFuture.completedFuture("Deleted connector " + connector));
+
+        assertThat(results).extracting(Result::outcome).containsExactly(Outcome.SUCCEEDED, Outcome.FAILED, Outcome.SKIPPED);
+        assertThat(BulkExecutor.exitCode(results)).isEqualTo(1);
+        assertThat(err.toString()).contains("Failed for connector b: Connector b not found");
+        assertThat(out.toString())
+                .containsPattern("succeeded +1")
+                .containsPattern("failed +1")
+                .containsPattern("skipped +1")
+                .contains("Deleted 1 of 3 connector(s)");
+    }
+
+    @Test
+    void should_not_wait_for_rate_limit_when_skipping_connectors() {
+        long start = System.nanoTime();
+
+        // At 2 operations per second, starting all 20 would take about 9 seconds
+        List<Result> results = executor(1, 2, false).execute("Deleted", names(20),
+                connector -> CompletableFuture.failedFuture(new IllegalStateException("Boom")));
+
+        assertThat(results).extracting(Result::outcome).containsOnly(Outcome.FAILED, Outcome.SKIPPED);
+        assertThat(results).filteredOn(r -> r.outcome() == Outcome.SKIPPED).hasSizeGreaterThanOrEqualTo(18);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+    }
+
+    @Test
+    void should_continue_after_failure_if_requested() {
+        List<Result> results = executor(1, 0, true).execute("Deleted", List.of("a", "b", "c"), connector -> {
+            if (connector.equals("b")) {
+                throw new IllegalStateException("Boom");
+            }
+            return CompletableFuture.completedFuture("Deleted connector " + connector);
+        });
+
+        assertThat(results).extracting(Result::outcome).containsExactly(Outcome.SUCCEEDED, Outcome.FAILED, Outcome.SUCCEEDED);
+        assertThat(err.toString()).contains("Failed for connector b: Boom");
+    }
+
+    @Test
+    void should_reject_invalid_settings() {
+        assertThatThrownBy(() -> executor(0, 0, false)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> executor(1, -1, false)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private BulkExecutor executor(int parallelism, double maxRate, boolean continueOnError) {
+        return new BulkExecutor(parallelism, maxRate, continueOnError, new PrintWriter(out, true), new PrintWriter(err, true), false);
+    }
+
+    private static List<String> names(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "connector-" + i).toList();
+    }
+}
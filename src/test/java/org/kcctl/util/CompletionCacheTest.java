@@ -0,0 +1,97 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kcctl.service.Context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class CompletionCacheTest {
+
+    @TempDir
+    File tempDir;
+
+    private ConfigurationContext context;
+
+    @BeforeEach
+    void createContext() {
+        context = new ConfigurationContext(tempDir);
+        context.setContext("my/context", new Context(URI.create("http://localhost:8083"), null, null, null, null, null));
+    }
+
+    @Test
+    void should_write_candidates_with_expiry_time() throws IOException {
+        long now = System.currentTimeMillis() / 1000;
+
+        String candidates = CompletionCache.put(context, CompletionCache.Kind.CONNECTORS, List.of("first", "second"));
+
+        assertThat(candidates).isEqualTo("first second");
+
+        File cacheFile = new File(tempDir, ".kcctl-cache/completions/my_context/connectors");
+        List<String> lines = Files.readAllLines(cacheFile.toPath());
+        assertThat(lines).hasSize(2);
+        assertThat(Long.parseLong(lines.get(0))).isGreaterThan(now);
+        assertThat(lines.get(1)).isEqualTo("first second");
+    }
+
+    @Test
+    void should_read_candidates_until_expired() throws IOException {
+        CompletionCache.put(context, CompletionCache.Kind.TASKS, List.of("a/0", "a/1"));
+
+        assertThat(CompletionCache.get(context, CompletionCache.Kind.TASKS)).contains("a/0 a/1");
+        assertThat(CompletionCache.get(context, CompletionCache.Kind.LOGGERS)).isEmpty();
+
+        File cacheFile = CompletionCache.getCacheFile(context, CompletionCache.Kind.TASKS);
+        Files.writeString(cacheFile.toPath(), (System.currentTimeMillis() / 1000 - 1) + "\na/0 a/1\n");
+
+        assertThat(CompletionCache.get(context, CompletionCache.Kind.TASKS)).isEmpty();
+    }
+
+    @Test
+    void should_determine_kind_of_completion_command() {
+        assertThat(CompletionCache.Kind.forCommand("connector-name-completions")).contains(CompletionCache.Kind.CONNECTORS);
+        assertThat(CompletionCache.Kind.forCommand("context-name-completions")).contains(CompletionCache.Kind.CONTEXTS);
+        assertThat(CompletionCache.Kind.forCommand("get")).isEmpty();
+    }
+
+    @Test
+    void should_invalidate_candidates_of_given_kinds() {
+        CompletionCache.put(context, CompletionCache.Kind.CONNECTORS, List.of("first"));
+        CompletionCache.put(context, CompletionCache.Kind.LOGGERS, List.of("root"));
+        long generation = CompletionCache.getGeneration();
+
+        CompletionCache.invalidate(context, CompletionCache.Kind.CONNECTORS, CompletionCache.Kind.TASKS);
+
+        assertThat(CompletionCache.getCacheFile(context, CompletionCache.Kind.CONNECTORS)).doesNotExist();
+        assertThat(CompletionCache.getCacheFile(context, CompletionCache.Kind.LOGGERS)).exists();
+        // Candidates held in memory by the shell are discarded, too
+        assertThat(CompletionCache.getGeneration()).isGreaterThan(generation);
+    }
+
+    @Test
+    void should_invalidate_all_candidates_when_contexts_change() {
+        CompletionCache.put(context, CompletionCache.Kind.CONNECTORS, List.of("first"));
+        CompletionCache.put(context, CompletionCache.Kind.CONTEXTS, List.of("my/context"));
+
+        context.setContext("other", new Context(URI.create("http://localhost:8084"), null, null, null, null, null));
+
+        assertThat(new File(tempDir, ".kcctl-cache/completions")).doesNotExist();
+    }
+}
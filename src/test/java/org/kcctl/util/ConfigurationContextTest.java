@@ -200,6 +200,62 @@ class ConfigurationContextTest {
         }
     }
 
+    @Nested
+    class Caching {
+        @Test
+        void should_not_parse_the_configuration_again_when_unchanged() throws IOException {
+            var configFile = tempDir.toPath().resolve(".kcctl");
+
+            Files.writeString(configFile, "{ \"currentContext\": \"preprod\", \"preprod\": { \"cluster\": \"http://preprod:8083\" }}");
+
+            var configurationContext = new ConfigurationContext(tempDir);
+
+            assertThat(configurationContext.getCurrentContext()).isSameAs(configurationContext.getCurrentContext());
+        }
+
+        @Test
+        void should_pick_up_changes_made_by_other_processes() throws IOException {
+            var configFile = tempDir.toPath().resolve(".kcctl");
+
+            Files.writeString(configFile, "{ \"currentContext\": \"preprod\", \"preprod\": { \"cluster\": \"http://preprod:8083\" }}");
+
+            var configurationContext = new ConfigurationContext(tempDir);
+            assertThat(configurationContext.getCurrentContext().getCluster()).isEqualTo(URI.create("http://preprod:8083"));
+
+            Files.writeString(configFile,
+                    "{ \"currentContext\": \"prod\", \"preprod\": { \"cluster\": \"http://preprod:8083\" }, \"prod\": { \"cluster\": \"http://prod:8083\" }}");
+
+            assertThat(configurationContext.getCurrentContext().getCluster()).isEqualTo(URI.create("http://prod:8083"));
+        }
+
+        @Test
+        void should_pick_up_own_changes() throws IOException {
+            var configFile = tempDir.toPath().resolve(".kcctl");
+
+            Files.writeString(configFile, "{ \"currentContext\": \"local\", \"local\": { \"cluster\": \"http://localhost:8083\" }}");
+
+            var configurationContext = new ConfigurationContext(tempDir);
+            assertThat(configurationContext.getCurrentContextName()).isEqualTo("local");
+
+            configurationContext.setContext("preprod", new Context(URI.create("http://preprod:8083"), null, null, null, null, null));
+            configurationContext.setCurrentContext("preprod");
+
+            assertThat(configurationContext.getCurrentContextName()).isEqualTo("preprod");
+            assertThat(configurationContext.getCurrentContext().getCluster()).isEqualTo(URI.create("http://preprod:8083"));
+        }
+
+        @Test
+        void should_not_leave_temporary_files_behind() throws IOException {
+            new ConfigurationContext(tempDir).setContext(
+                    "local",
+                    new Context(URI.create("http://localhost:8083"), null, null, null, null, null));
+
+            try (var files = Files.list(tempDir.toPath())) {
+                assertThat(files.map(f -> f.getFileName().toString())).containsExactlyInAnyOrder(".kcctl", ".kcctl.lock");
+            }
+        }
+    }
+
     static Stream<Arguments> setConfigurationArguments() {
         return Stream.of(
                 arguments(
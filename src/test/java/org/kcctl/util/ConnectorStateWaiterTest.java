@@ -0,0 +1,129 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.kcctl.service.ConnectorState;
+import org.kcctl.service.ConnectorStatusInfo;
+import org.kcctl.service.KafkaConnectException;
+import org.kcctl.service.TaskState;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class ConnectorStateWaiterTest {
+
+    private final StringWriter out = new StringWriter();
+    private final StringWriter err = new StringWriter();
+    private final List<Set<String>> polls = new ArrayList<>();
+
+    @Test
+    void should_wait_until_connectors_and_tasks_reached_state() throws Exception {
+        // b's task gets paused one poll after its connector
+        ConnectorStateWaiter waiter = waiter(poll -> Map.of(
+                "a", status("a", "PAUSED", "PAUSED"),
+                "b", status("b", poll < 1 ? "RUNNING" : "PAUSED", poll < 2 ? "RUNNING" : "PAUSED")));
+
+        List<ConnectorStateWaiter.Convergence> converged = waiter.await(List.of("a", "b"), "PAUSED", Duration.ofSeconds(10));
+
+        assertThat(converged).extracting(ConnectorStateWaiter.Convergence::connector).containsExactly("a", "b");
+        assertThat(converged.get(1).duration()).isGreaterThanOrEqualTo(
+                ConnectorStateWaiter.INITIAL_DELAY.plus(ConnectorStateWaiter.INITIAL_DELAY.multipliedBy(2)));
+        assertThat(polls).containsExactly(Set.of("a", "b"), Set.of("b"), Set.of("b"));
+        assertThat(out.toString()).contains("Connector a is PAUSED after", "Connector b is PAUSED after");
+        assertThat(err.toString()).isEmpty();
+    }
+
+    @Test
+    void should_report_connectors_not_reaching_state_within_timeout() throws Exception {
+        ConnectorStateWaiter waiter = waiter(poll -> Map.of("a", status("a", "RUNNING", "RUNNING", "FAILED")));
+
+        List<ConnectorStateWaiter.Convergence> converged = waiter.await(List.of("a", "b"), "RUNNING", Duration.ofMillis(600));
+
+        assertThat(converged).isEmpty();
+        assertThat(polls).hasSize(3);
+        assertThat(err.toString())
+                .contains("Connector a didn't become RUNNING within 0 s (connector RUNNING, tasks: 1 RUNNING, 1 FAILED)")
+                .contains("Connector b didn't become RUNNING within 0 s (status unknown)");
+    }
+
+    @Test
+    void should_consider_connector_without_tasks() {
+        assertThat(ConnectorStateWaiter.isInState(status("a", "STOPPED"), "STOPPED", () -> 2)).isTrue();
+        assertThat(ConnectorStateWaiter.isInState(status("a", "RUNNING"), "STOPPED", () -> 2)).isFalse();
+        assertThat(ConnectorStateWaiter.isInState(status("a", "RUNNING", "UNASSIGNED"), "RUNNING", () -> 1)).isFalse();
+    }
+
+    @Test
+    void should_not_consider_running_connector_converged_before_its_tasks_are_listed() {
+        assertThat(ConnectorStateWaiter.isInState(status("a", "RUNNING"), "RUNNING", () -> 2)).isFalse();
+        assertThat(ConnectorStateWaiter.isInState(status("a", "PAUSED"), "PAUSED", () -> 2)).isFalse();
+        assertThat(ConnectorStateWaiter.isInState(status("a", "RUNNING"), "RUNNING", () -> 0)).isTrue();
+        assertThat(ConnectorStateWaiter.isInState(status("a", "RUNNING", "RUNNING", "RUNNING"), "RUNNING", () -> 2)).isTrue();
+    }
+
+    @Test
+    void should_wait_until_tasks_of_resumed_connector_are_listed() throws Exception {
+        ConnectorStateWaiter waiter = waiter(poll -> Map.of("a", poll < 1 ? status("a", "RUNNING") : status("a", "RUNNING", "RUNNING")));
+
+        List<ConnectorStateWaiter.Convergence> converged = waiter.await(List.of("a"), "RUNNING", Duration.ofSeconds(10));
+
+        assertThat(converged).extracting(ConnectorStateWaiter.Convergence::connector).containsExactly("a");
+        assertThat(polls).hasSize(2);
+    }
+
+    @Test
+    void should_keep_polling_after_failed_poll() throws Exception {
+        ConnectorStateWaiter waiter = waiter(poll -> {
+            if (poll == 0) {
+                throw new KafkaConnectException("Request timed out while the group is rebalancing", Response.Status.INTERNAL_SERVER_ERROR);
+            }
+            return Map.of("a", status("a", "PAUSED", "PAUSED"));
+        });
+
+        List<ConnectorStateWaiter.Convergence> converged = waiter.await(List.of("a"), "PAUSED", Duration.ofSeconds(10));
+
+        assertThat(converged).extracting(ConnectorStateWaiter.Convergence::connector).containsExactly("a");
+        assertThat(polls).hasSize(2);
+        assertThat(err.toString()).contains("Couldn't retrieve the connector status, retrying: Request timed out while the group is rebalancing");
+    }
+
+    private interface Polls {
+        Map<String, ConnectorStatusInfo> apply(int poll);
+    }
+
+    private ConnectorStateWaiter waiter(Polls statuses) {
+        return new ConnectorStateWaiter(pending -> {
+            polls.add(pending);
+            Map<String, ConnectorStatusInfo> result = new HashMap<>(statuses.apply(polls.size() - 1));
+            result.keySet().retainAll(pending);
+            return result;
+        }, connector -> 1, new PrintWriter(out, true), new PrintWriter(err, true));
+    }
+
+    private static ConnectorStatusInfo status(String name, String state, String... taskStates) {
+        List<TaskState> tasks = new ArrayList<>();
+        for (int i = 0; i < taskStates.length; i++) {
+            tasks.add(new TaskState(i, taskStates[i], "worker:8083", null));
+        }
+        return new ConnectorStatusInfo(name, new ConnectorState(state, "worker:8083"), "source", tasks);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kcctl.command.KcCtlCommand;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class DaemonTest {
+
+    private static final String DAEMON_DIRECTORY = System.getProperty("user.dir");
+
+    private final CommandSpec commandSpec = new CommandLine(KcCtlCommand.class).getCommandSpec();
+
+    @TempDir
+    Path clientDirectory;
+
+    @Test
+    void should_execute_commands_from_any_directory() {
+        assertThat(canExecute(DAEMON_DIRECTORY, "get", "connectors")).isTrue();
+        assertThat(canExecute(clientDirectory.toString(), "get", "connectors")).isTrue();
+        assertThat(canExecute(clientDirectory.toString(), "describe", "connector", "my-connector", "-o", "json")).isTrue();
+    }
+
+    @Test
+    void should_not_execute_commands_reading_from_stdin() {
+        assertThat(canExecute(DAEMON_DIRECTORY, "apply", "-f", "-")).isFalse();
+    }
+
+    @Test
+    void should_not_execute_commands_referring_to_relative_files_of_other_directory() throws IOException {
+        Files.writeString(clientDirectory.resolve("connector.json"), "{}");
+
+        assertThat(canExecute(clientDirectory.toString(), "apply", "-f", "connector.json")).isFalse();
+        assertThat(canExecute(clientDirectory.toString(), "apply", "--file=connector.json")).isFalse();
+        assertThat(canExecute(clientDirectory.toString(), "apply", "-f", clientDirectory.resolve("connector.json").toString())).isTrue();
+        assertThat(canExecute(DAEMON_DIRECTORY, "apply", "-f", "connector.json")).isTrue();
+    }
+
+    @Test
+    void should_not_execute_commands_writing_to_relative_files_of_other_directory() {
+        // The file doesn't exist yet, but would be created relative to the daemon's directory
+        assertThat(canExecute(clientDirectory.toString(), "get", "connectors", "--timings-json", "timings.json")).isFalse();
+        assertThat(canExecute(clientDirectory.toString(), "--timings-json=timings.json", "get", "connectors")).isFalse();
+        assertThat(canExecute(clientDirectory.toString(), "get", "connectors", "--timings-json", clientDirectory.resolve("timings.json").toString())).isTrue();
+    }
+
+    @Test
+    void should_not_execute_daemon_exec_and_shell_commands() {
+        assertThat(canExecute(DAEMON_DIRECTORY, "daemon")).isFalse();
+        assertThat(canExecute(DAEMON_DIRECTORY, "exec", "-f", "/tmp/script.kcctl")).isFalse();
+        assertThat(canExecute(DAEMON_DIRECTORY, "shell")).isFalse();
+    }
+
+    @Test
+    void should_recognize_commands_after_global_options() {
+        assertThat(canExecute(DAEMON_DIRECTORY, "--timings", "shell")).isFalse();
+        assertThat(canExecute(DAEMON_DIRECTORY, "--timings-json", "/tmp/timings.json", "exec")).isFalse();
+        assertThat(canExecute(DAEMON_DIRECTORY, "--timings", "get", "connectors")).isTrue();
+    }
+
+    @Test
+    void should_not_execute_commands_with_flight_recording() {
+        assertThat(canExecute(DAEMON_DIRECTORY, "get", "connectors", "--jfr", "/tmp/kcctl.jfr")).isFalse();
+        assertThat(canExecute(DAEMON_DIRECTORY, "--jfr=/tmp/kcctl.jfr", "get", "connectors")).isFalse();
+    }
+
+    @Test
+    void should_create_socket_directory_accessible_by_owner_only() throws IOException {
+        Path socketDirectory = Daemon.getSocketPath(clientDirectory.resolve(".kcctl-cache")).getParent();
+
+        Daemon.createPrivateDirectory(socketDirectory);
+
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(socketDirectory))).isEqualTo("rwx------");
+    }
+
+    @Test
+    void should_restrict_permissions_of_existing_socket_directory() throws IOException {
+        Path socketDirectory = Files.createDirectory(clientDirectory.resolve("daemon"));
+        Files.setPosixFilePermissions(socketDirectory, PosixFilePermissions.fromString("rwxr-xr-x"));
+
+        Daemon.createPrivateDirectory(socketDirectory);
+
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(socketDirectory))).isEqualTo("rwx------");
+    }
+
+    private boolean canExecute(String workingDirectory, String... args) {
+        return Daemon.canExecute(workingDirectory, commandSpec, args);
+    }
+}
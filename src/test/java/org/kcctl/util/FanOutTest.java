@@ -0,0 +1,112 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class FanOutTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    void should_return_results_in_order_of_inputs() {
+        List<Integer> inputs = IntStream.range(0, 100).boxed().toList();
+
+        List<String> results = FanOut.map(inputs, 8, TIMEOUT, i -> {
+            sleep(ThreadLocalRandom.current().nextInt(5));
+            return "result-" + i;
+        });
+
+        assertThat(results).containsExactlyElementsOf(inputs.stream().map(i -> "result-" + i).toList());
+    }
+
+    @Test
+    void should_not_exceed_parallelism() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        FanOut.map(IntStream.range(0, 50).boxed().toList(), 4, TIMEOUT, i -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleep(5);
+            inFlight.decrementAndGet();
+            return i;
+        });
+
+        assertThat(maxInFlight.get()).isBetween(1, 4);
+    }
+
+    @Test
+    void should_keep_null_results() {
+        List<String> results = FanOut.map(List.of("a", "b", "c"), 2, TIMEOUT, s -> s.equals("b") ? null : s);
+
+        assertThat(results).containsExactly("a", null, "c");
+    }
+
+    @Test
+    void should_propagate_exceptions() {
+        assertThatThrownBy(() -> FanOut.map(List.of("a", "b", "c"), 2, TIMEOUT, s -> {
+            if (s.equals("b")) {
+                throw new IllegalStateException("Failed: " + s);
+            }
+            return s;
+        }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Failed: b");
+    }
+
+    @Test
+    void should_time_out_slow_invocations() {
+        assertThatThrownBy(() -> FanOut.map(List.of("fast", "slow"), 2, Duration.ofMillis(200), s -> {
+            if (s.equals("slow")) {
+                sleep(10_000);
+            }
+            return s;
+        }))
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(TimeoutException.class)
+                .hasMessageContaining("'slow'");
+    }
+
+    @Test
+    void should_recover_failed_and_timed_out_invocations() {
+        List<String> results = FanOut.map(List.of("a", "failing", "slow", "b"), 2, Duration.ofMillis(200), s -> {
+            if (s.equals("failing")) {
+                throw new IllegalStateException("Failed: " + s);
+            }
+            if (s.equals("slow")) {
+                sleep(10_000);
+            }
+            return s;
+        }, (s, e) -> s + ": " + e.getClass().getSimpleName());
+
+        assertThat(results).containsExactly("a", "failing: IllegalStateException", "slow: TimeoutException", "b");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
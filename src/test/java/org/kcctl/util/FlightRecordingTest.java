@@ -0,0 +1,63 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class FlightRecordingTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void should_record_events_of_action_to_file() throws Exception {
+        Path file = tempDir.resolve("kcctl.jfr");
+        StringWriter err = new StringWriter();
+
+        int result = FlightRecording.record(file, new PrintWriter(err, true), () -> {
+            FlightRecording.cacheAccess("requests", "/connectors", false);
+            FlightRecording.cacheAccess("requests", "/connectors", true);
+            return 42;
+        });
+
+        assertThat(result).isEqualTo(42);
+        assertThat(err.toString()).isEmpty();
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("org.kcctl.CacheAccess"))
+                .toList();
+
+        assertThat(events).extracting(event -> event.getString("key")).containsExactly("/connectors", "/connectors");
+        assertThat(events).extracting(event -> event.getBoolean("hit")).containsExactly(false, true);
+    }
+
+    @Test
+    void should_report_unwritable_file() {
+        Path file = tempDir.resolve("missing").resolve("kcctl.jfr");
+        StringWriter err = new StringWriter();
+
+        String result = FlightRecording.record(file, new PrintWriter(err, true), () -> "done");
+
+        assertThat(result).isEqualTo("done");
+        assertThat(err.toString()).startsWith("Couldn't write flight recording to " + file);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class LiveViewTest {
+
+    private static final String E = "\u001B[";
+
+    private final StringWriter output = new StringWriter();
+    private final LiveView view = new LiveView(new PrintWriter(output), true, 24, 80);
+
+    @Test
+    void should_write_all_lines_initially() {
+        view.update(List.of("NAME STATE", "a    RUNNING", "b    RUNNING"));
+
+        assertThat(output.toString()).isEqualTo(
+                "\r" + E + "2KNAME STATE\n" +
+                        "\r" + E + "2Ka    RUNNING\n" +
+                        "\r" + E + "2Kb    RUNNING\n");
+    }
+
+    @Test
+    void should_rewrite_changed_lines_only() {
+        view.update(List.of("NAME STATE", "a    RUNNING", "b    RUNNING", ""));
+        output.getBuffer().setLength(0);
+
+        view.update(List.of("NAME STATE", "a    FAILED", "b    RUNNING", ""));
+
+        assertThat(output.toString()).isEqualTo(
+                E + "4A" +
+                        E + "1B" +
+                        "\r" + E + "2Ka    FAILED\n" +
+                        E + "2B");
+    }
+
+    @Test
+    void should_not_write_anything_but_cursor_movements_if_unchanged() {
+        view.update(List.of("NAME STATE", "a    RUNNING"));
+        output.getBuffer().setLength(0);
+
+        view.update(List.of("NAME STATE", "a    RUNNING"));
+
+        assertThat(output.toString()).isEqualTo(E + "2A" + E + "2B");
+    }
+
+    @Test
+    void should_clear_remainder_of_longer_previous_view() {
+        view.update(List.of("NAME STATE", "a    RUNNING", "b    RUNNING"));
+        output.getBuffer().setLength(0);
+
+        view.update(List.of("NAME STATE", "b    RUNNING"));
+
+        assertThat(output.toString()).isEqualTo(
+                E + "3A" +
+                        E + "1B" +
+                        "\r" + E + "2Kb    RUNNING\n" +
+                        E + "J");
+    }
+
+    @Test
+    void should_cut_off_view_taller_than_terminal() {
+        LiveView small = new LiveView(new PrintWriter(output), true, 4, 80);
+
+        small.update(List.of("NAME STATE", "a    RUNNING", "b    RUNNING", "c    RUNNING", "d    RUNNING"));
+        output.getBuffer().setLength(0);
+        small.update(List.of("NAME STATE", "a    FAILED", "b    RUNNING", "c    RUNNING", "d    RUNNING"));
+
+        // Three lines, so that the cursor line below them fits in, too
+        assertThat(output.toString()).isEqualTo(
+                E + "3A" +
+                        E + "1B" +
+                        "\r" + E + "2Ka    FAILED\n" +
+                        E + "1B");
+    }
+
+    @Test
+    void should_show_number_of_cut_off_lines() {
+        new LiveView(new PrintWriter(output), true, 4, 80).update(List.of("NAME STATE", "a    RUNNING", "b    RUNNING", "c    RUNNING", "d    RUNNING"));
+
+        assertThat(output.toString()).isEqualTo(
+                "\r" + E + "2KNAME STATE\n" +
+                        "\r" + E + "2Ka    RUNNING\n" +
+                        "\r" + E + "2K... 3 more line(s), enlarge the terminal for seeing them\n");
+    }
+
+    @Test
+    void should_redraw_entire_screen_if_terminal_size_is_unknown() {
+        LiveView unknown = new LiveView(new PrintWriter(output), true, 24, 0);
+
+        unknown.update(List.of("NAME STATE", "a    RUNNING"));
+        output.getBuffer().setLength(0);
+        unknown.update(List.of("NAME STATE", "a    FAILED"));
+
+        assertThat(output.toString()).isEqualTo(E + "H" + E + "2J" + "NAME STATE\n" + "a    FAILED\n");
+    }
+
+    @Test
+    void should_truncate_lines_wider_than_terminal() {
+        LiveView narrow = new LiveView(new PrintWriter(output), true, 24, 8);
+
+        narrow.update(List.of("NAME STATE", "a    RUNNING"));
+
+        assertThat(output.toString()).isEqualTo(
+                "\r" + E + "2KNAME ST\n" +
+                        "\r" + E + "2Ka    RU\n");
+    }
+
+    @Test
+    void should_not_count_escape_sequences_when_truncating() {
+        String running = Colors.colorizeState("RUNNING");
+
+        assertThat(LiveView.truncate("a " + running, 10)).isEqualTo("a " + running);
+        assertThat(LiveView.truncate("a " + running, 9)).isEqualTo("a " + Colors.ANSI_GREEN + "RUNNIN" + Colors.ANSI_RESET);
+        assertThat(LiveView.truncate("a " + running, 3)).isEqualTo("a " + Colors.ANSI_GREEN + Colors.ANSI_RESET);
+    }
+
+    @Test
+    void should_append_updates_without_control_sequences_if_not_a_terminal() {
+        LiveView plain = new LiveView(new PrintWriter(output), false, 0, 0);
+
+        plain.update(List.of("NAME STATE", "a    RUNNING"));
+        plain.update(List.of("NAME STATE", "a    FAILED"));
+
+        assertThat(output.toString()).isEqualTo(String.join(System.lineSeparator(), "NAME STATE", "a    RUNNING", "NAME STATE", "a    FAILED", ""));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class OutputBufferTest {
+
+    private final StringWriter output = new StringWriter();
+    private final PrintWriter target = new PrintWriter(output);
+
+    @Test
+    void should_write_output_only_when_closed() {
+        try (OutputBuffer buffer = new OutputBuffer(target)) {
+            buffer.writer().println("Created connector a");
+            assertThat(output.toString()).isEmpty();
+        }
+
+        assertThat(output.toString()).isEqualTo("Created connector a" + System.lineSeparator());
+    }
+
+    @Test
+    void should_not_interleave_output_of_concurrent_operations() {
+        List<Thread> threads = IntStream.range(0, 8)
+                .mapToObj(i -> Thread.ofVirtual().start(() -> {
+                    try (OutputBuffer buffer = new OutputBuffer(target)) {
+                        for (int line = 0; line < 100; line++) {
+                            buffer.writer().println(i);
+                            Thread.yield();
+                        }
+                    }
+                }))
+                .toList();
+        threads.forEach(thread -> {
+            try {
+                thread.join();
+            }
+            catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        List<String> lines = output.toString().lines().toList();
+        assertThat(lines).hasSize(800);
+        for (int block = 0; block < 8; block++) {
+            assertThat(lines.subList(block * 100, (block + 1) * 100)).containsOnly(lines.get(block * 100));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.kcctl.service.ConnectorState;
+import org.kcctl.service.ConnectorStatusInfo;
+import org.kcctl.service.TaskState;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class RollingRestartTest {
+
+    private final List<ConnectorStatusInfo> statuses = List.of(
+            new ConnectorStatusInfo("a", new ConnectorState("RUNNING", "w2:8083"), "source", List.of(
+                    new TaskState(0, "RUNNING", "w1:8083", null),
+                    new TaskState(1, "FAILED", "w2:8083", "trace"))),
+            new ConnectorStatusInfo("b", new ConnectorState("RUNNING", "w1:8083"), "sink", List.of(
+                    new TaskState(0, "RUNNING", "w2:8083", null))));
+
+    private final StringWriter out = new StringWriter();
+    private final StringWriter err = new StringWriter();
+    private final List<Set<String>> polls = new ArrayList<>();
+
+    @Test
+    void should_create_one_wave_per_worker() {
+        List<RollingRestart.Wave> waves = RollingRestart.plan(statuses, task -> true, RollingRestart.PER_WORKER);
+
+        assertThat(waves).extracting(RollingRestart.Wave::description).containsExactly("worker w1:8083", "worker w2:8083");
+        assertThat(waves.get(0).units()).extracting(RollingRestart.Unit::name).containsExactly("a/0", "b");
+        assertThat(waves.get(1).units()).extracting(RollingRestart.Unit::name).containsExactly("a", "a/1", "b/0");
+    }
+
+    @Test
+    void should_only_include_selected_tasks() {
+        List<RollingRestart.Wave> waves = RollingRestart.plan(statuses, task -> "FAILED".equals(task.state()), RollingRestart.PER_WORKER);
+
+        assertThat(waves.get(0).units()).extracting(RollingRestart.Unit::name).containsExactly("b");
+        assertThat(waves.get(1).units()).extracting(RollingRestart.Unit::name).containsExactly("a", "a/1");
+
+        assertThat(RollingRestart.plan(statuses, null, RollingRestart.PER_WORKER))
+                .flatExtracting(RollingRestart.Wave::units)
+                .extracting(RollingRestart.Unit::name)
+                .containsExactly("b", "a");
+    }
+
+    @Test
+    void should_create_waves_of_given_percentage() {
+        List<RollingRestart.Wave> waves = RollingRestart.plan(statuses, task -> true, "40%");
+
+        assertThat(waves).extracting(RollingRestart.Wave::description).containsExactly("2 instance(s)", "2 instance(s)", "1 instance(s)");
+        assertThat(waves).flatExtracting(RollingRestart.Wave::units)
+                .extracting(RollingRestart.Unit::name)
+                .containsExactly("a/0", "b", "a", "a/1", "b/0");
+
+        assertThat(RollingRestart.plan(statuses, task -> true, "100%")).hasSize(1);
+        assertThat(RollingRestart.plan(statuses, task -> true, "1%")).hasSize(5);
+    }
+
+    @Test
+    void should_put_unassigned_instances_into_separate_wave() {
+        List<RollingRestart.Wave> waves = RollingRestart.plan(List.of(
+                new ConnectorStatusInfo("c", new ConnectorState("UNASSIGNED", ""), "sink", List.of())), task -> true, RollingRestart.PER_WORKER);
+
+        assertThat(waves).extracting(RollingRestart.Wave::description).containsExactly("worker unassigned");
+    }
+
+    @Test
+    void should_leave_out_paused_and_stopped_connectors() {
+        List<ConnectorStatusInfo> withInactive = new ArrayList<>(statuses);
+        withInactive.add(new ConnectorStatusInfo("c", new ConnectorState("PAUSED", "w1:8083"), "sink", List.of(
+                new TaskState(0, "PAUSED", "w1:8083", null))));
+        withInactive.add(new ConnectorStatusInfo("d", new ConnectorState("STOPPED", "w2:8083"), "sink", List.of()));
+
+        assertThat(RollingRestart.isRestartable(withInactive.get(2))).isFalse();
+        assertThat(RollingRestart.plan(withInactive, task -> true, RollingRestart.PER_WORKER))
+                .flatExtracting(RollingRestart.Wave::units)
+                .extracting(RollingRestart.Unit::name)
+                .containsExactly("a/0", "b", "a", "a/1", "b/0");
+    }
+
+    @Test
+    void should_wait_for_restarted_units_to_leave_and_reach_running_state() throws Exception {
+        RollingRestart.Unit connector = new RollingRestart.Unit("a", null, "w2:8083");
+        RollingRestart.Unit task = new RollingRestart.Unit("a", 1, "w2:8083");
+
+        // The first poll still shows the state from before the restart
+        Set<RollingRestart.Unit> running = awaitRunning(List.of(connector, task), Duration.ofMinutes(1), poll -> switch (poll) {
+            case 0 -> status("a", "RUNNING", "RUNNING", "RUNNING");
+            case 1 -> status("a", "UNASSIGNED", "RUNNING");
+            default -> status("a", "RUNNING", "RUNNING", "RESTARTING");
+        }, Duration.ofSeconds(2));
+
+        assertThat(running).containsExactly(connector);
+        assertThat(polls).hasSizeGreaterThan(2);
+        assertThat(out.toString()).contains("Connector a is RUNNING again after");
+        assertThat(err.toString()).contains("Task a/1 didn't get RUNNING again within 2 s (RESTARTING)");
+    }
+
+    @Test
+    void should_only_consider_restarted_units() throws Exception {
+        RollingRestart.Unit connector = new RollingRestart.Unit("a", null, "w2:8083");
+
+        Set<RollingRestart.Unit> running = awaitRunning(List.of(connector), Duration.ZERO, poll -> status("a", "RUNNING", "FAILED", "UNASSIGNED"),
+                Duration.ofSeconds(10));
+
+        assertThat(running).containsExactly(connector);
+        assertThat(polls).hasSize(1);
+        assertThat(err.toString()).isEmpty();
+    }
+
+    @Test
+    void should_trust_running_state_after_settle_period() throws Exception {
+        RollingRestart.Unit task = new RollingRestart.Unit("a", 0, "w1:8083");
+
+        Set<RollingRestart.Unit> running = awaitRunning(List.of(task), Duration.ofMillis(300), poll -> status("a", "RUNNING", "RUNNING"),
+                Duration.ofSeconds(10));
+
+        // Not trusted when polled right away, but as soon as the settle period is over
+        assertThat(running).containsExactly(task);
+        assertThat(polls.size()).isBetween(2, 3);
+        assertThat(out.toString()).contains("Task a/0 is RUNNING again after");
+    }
+
+    @Test
+    void should_keep_polling_after_failed_poll() throws Exception {
+        RollingRestart.Unit connector = new RollingRestart.Unit("a", null, "w2:8083");
+
+        Set<RollingRestart.Unit> running = awaitRunning(List.of(connector), Duration.ZERO, poll -> {
+            if (poll == 0) {
+                throw new IllegalStateException("Connection refused");
+            }
+            return status("a", "RUNNING");
+        }, Duration.ofSeconds(10));
+
+        assertThat(running).containsExactly(connector);
+        assertThat(polls).hasSize(2);
+        assertThat(err.toString()).contains("Couldn't retrieve the connector status, retrying: Connection refused");
+    }
+
+    @Test
+    void should_reject_invalid_wave_size() {
+        assertThatThrownBy(() -> RollingRestart.plan(statuses, null, "half"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid wave size 'half'");
+        assertThatThrownBy(() -> RollingRestart.plan(statuses, null, "0%"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("between 1 and 100");
+    }
+
+    private Set<RollingRestart.Unit> awaitRunning(List<RollingRestart.Unit> units, Duration settlePeriod, IntFunction<ConnectorStatusInfo> statuses,
+                                                  Duration timeout)
+            throws InterruptedException {
+        return RollingRestart.awaitRunning(units, connectors -> {
+            polls.add(connectors);
+            ConnectorStatusInfo status = statuses.apply(polls.size() - 1);
+            return Map.of(status.name(), status);
+        }, settlePeriod, timeout, new PrintWriter(out, true), new PrintWriter(err, true));
+    }
+
+    private static ConnectorStatusInfo status(String name, String state, String... taskStates) {
+        List<TaskState> tasks = new ArrayList<>();
+        for (int i = 0; i < taskStates.length; i++) {
+            tasks.add(new TaskState(i, taskStates[i], "w1:8083", null));
+        }
+        return new ConnectorStatusInfo(name, new ConnectorState(state, "w1:8083"), "source", tasks);
+    }
+}
@@ -8,6 +8,7 @@
 package org.kcctl.util;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Properties;
 
 import org.junit.jupiter.api.Nested;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StringsTest {
@@ -92,4 +94,29 @@ public class StringsTest {
             assertTrue(props.isEmpty());
         }
     }
+
+    @Nested
+    public class SplitArguments {
+        @Test
+        public void splitsAtWhitespace() {
+            assertEquals(List.of("get", "connectors", "-o", "ndjson"), Strings.splitArguments("  get connectors\t-o   ndjson "));
+        }
+
+        @Test
+        public void keepsQuotedWhitespace() {
+            assertEquals(List.of("patch", "connector", "my-connector", "--set", "transforms=a b"),
+                    Strings.splitArguments("patch connector my-connector --set 'transforms=a b'"));
+            assertEquals(List.of("--set", "key=it's"), Strings.splitArguments("--set \"key=it's\""));
+        }
+
+        @Test
+        public void supportsEscapesAndEmptyArguments() {
+            assertEquals(List.of("a b", "", "c\"d"), Strings.splitArguments("a\\ b '' \"c\\\"d\""));
+        }
+
+        @Test
+        public void rejectsUnclosedQuotes() {
+            assertThrows(IllegalArgumentException.class, () -> Strings.splitArguments("describe connector 'foo"));
+        }
+    }
 }
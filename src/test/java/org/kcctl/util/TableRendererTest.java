@@ -0,0 +1,94 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+
+import com.github.freva.asciitable.AsciiTable;
+import com.github.freva.asciitable.Column;
+import com.github.freva.asciitable.HorizontalAlign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class TableRendererTest {
+
+    private static final List<String[]> ROWS = List.of(
+            new String[]{ "heartbeat-source", " source", " 0: RUNNING, 1: FAILED" },
+            new String[]{ "sink", " sink", " " + "0: RUNNING, ".repeat(20) + "20: PAUSED" },
+            new String[]{ "a-connector-with-a-rather-long-name", " source", " 0: UNASSIGNED" });
+
+    @Test
+    void should_render_same_layout_as_ascii_table() {
+        String expected = AsciiTable.getTable(AsciiTable.NO_BORDERS, ROWS, List.of(
+                new Column().header("NAME").dataAlign(HorizontalAlign.LEFT).with(row -> row[0]),
+                new Column().header(" TYPE").dataAlign(HorizontalAlign.LEFT).with(row -> row[1]),
+                new Column().header(" TASKS").dataAlign(HorizontalAlign.LEFT).maxWidth(40).with(row -> row[2])));
+
+        String actual = render(ROWS, new TableRenderer<String[]>()
+                .column("NAME", row -> row[0])
+                .column(" TYPE", row -> row[1])
+                .column(" TASKS", row -> row[2], String::valueOf, 40));
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void should_render_empty_table_like_ascii_table() {
+        String expected = AsciiTable.getTable(AsciiTable.NO_BORDERS, List.<String[]> of(), List.of(
+                new Column().header("NAME").dataAlign(HorizontalAlign.LEFT).with(row -> row[0]),
+                new Column().header(" TYPE").dataAlign(HorizontalAlign.LEFT).with(row -> row[1])));
+
+        String actual = render(List.of(), new TableRenderer<String[]>()
+                .column("NAME", row -> row[0])
+                .column(" TYPE", row -> row[1]));
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void should_style_values_without_affecting_alignment() {
+        String actual = render(ROWS, new TableRenderer<String[]>()
+                .column(" TASKS", row -> row[2], Colors::replaceColorState, 40)
+                .column(" TYPE", row -> row[1]));
+
+        String plain = render(ROWS, new TableRenderer<String[]>()
+                .column(" TASKS", row -> row[2], String::valueOf, 40)
+                .column(" TYPE", row -> row[1]));
+
+        assertThat(actual).contains(Colors.ANSI_GREEN + "RUNNING" + Colors.ANSI_RESET, Colors.ANSI_RED + "FAILED" + Colors.ANSI_RESET);
+        assertThat(actual.replaceAll("\u001B\\[\\d+m", "")).isEqualTo(plain);
+    }
+
+    @Test
+    void should_wrap_at_spaces_and_split_long_words() {
+        assertThat(TableRenderer.wrap("0: RUNNING, 1: FAILED", 12)).containsExactly("0: RUNNING,", "1: FAILED");
+        assertThat(TableRenderer.wrap("abcdefghij", 4)).containsExactly("abcd", "efgh", "ij");
+        assertThat(TableRenderer.wrap("short", 10)).containsExactly("short");
+    }
+
+    @Test
+    void should_colorize_all_states_in_single_pass() {
+        assertThat(Colors.replaceColorState(" 0: RUNNING, 1: STOPPED, 2: UNKNOWN"))
+                .isEqualTo(" 0: " + Colors.ANSI_GREEN + "RUNNING" + Colors.ANSI_RESET + ", 1: " + Colors.ANSI_YELLOW + "STOPPED" + Colors.ANSI_RESET
+                        + ", 2: UNKNOWN");
+        assertThat(Colors.replaceColorState("no states here")).isEqualTo("no states here");
+    }
+
+    private static String render(List<String[]> rows, TableRenderer<String[]> renderer) {
+        StringWriter out = new StringWriter();
+        renderer.render(rows, new PrintWriter(out));
+        return out.toString();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Copyright The original authors
+ *
+ *  Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.kcctl.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+class TimingsTest {
+
+    private static final long MS = 1_000_000;
+
+    private Timings timings;
+
+    @BeforeEach
+    void start() {
+        timings = Timings.start();
+    }
+
+    @AfterEach
+    void stop() {
+        timings.stop();
+    }
+
+    @Test
+    void should_compute_percentiles_using_nearest_rank() {
+        long[] values = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+
+        assertThat(Timings.percentile(values, 50)).isEqualTo(5);
+        assertThat(Timings.percentile(values, 99)).isEqualTo(10);
+        assertThat(Timings.percentile(values, 0)).isEqualTo(1);
+        assertThat(Timings.percentile(new long[]{ 42 }, 99)).isEqualTo(42);
+    }
+
+    @Test
+    void should_record_spans_of_current_thread() {
+        try (Timings.Span span = Timings.span("read configuration")) {
+            assertThat(Timings.current()).isSameAs(timings);
+        }
+
+        assertThat(timings.phases()).extracting(Timings.Phase::name).contains("read configuration");
+    }
+
+    @Test
+    void should_aggregate_requests_per_endpoint() {
+        timings.addRequest("GET", "/connectors/a/status", "/connectors/{name}/status", 200, 0, 2 * MS).bytes().add(100);
+        timings.addRequest("GET", "/connectors/b/status", "/connectors/{name}/status", 200, 0, 4 * MS).bytes().add(50);
+        timings.addRequest("GET", "/connectors/c/status", "/connectors/{name}/status", 404, 0, 1 * MS);
+        timings.addRequest("GET", "/connectors", "/connectors", 200, 0, 3 * MS);
+
+        List<Timings.EndpointReport> endpoints = timings.endpoints();
+
+        assertThat(endpoints).containsExactly(
+                new Timings.EndpointReport("GET /connectors", 1, 3.0, 3.0, 3.0, 0),
+                new Timings.EndpointReport("GET /connectors/{name}/status", 3, 2.0, 4.0, 4.0, 150));
+    }
+
+    @Test
+    void should_attribute_remaining_command_time_to_processing() {
+        long start = 1_000 * MS;
+        timings.addPhase(new Timings.Phase(Timings.COMMAND, start, 100 * MS));
+        timings.addPhase(new Timings.Phase("detect version", start, 10 * MS));
+        // Two overlapping requests and one sequential request
+        timings.addRequest("GET", "/connectors", "/connectors", 200, start + 10 * MS, 20 * MS);
+        timings.addRequest("GET", "/connectors/a", "/connectors/{name}", 200, start + 20 * MS, 20 * MS);
+        timings.addRequest("GET", "/connectors/b", "/connectors/{name}", 200, start + 50 * MS, 10 * MS);
+
+        List<Timings.Phase> timeline = timings.timeline().stream()
+                .filter(phase -> !phase.name().equals(Timings.STARTUP))
+                .toList();
+
+        assertThat(timeline).extracting(Timings.Phase::name)
+                .containsExactly(Timings.COMMAND, "detect version", "requests (3)", "processing and rendering");
+        assertThat(timeline.get(2).durationNanos()).isEqualTo(40 * MS);
+        assertThat(timeline.get(3).durationNanos()).isEqualTo(50 * MS);
+    }
+
+    @Test
+    void should_not_attribute_startup_to_hosted_executions() {
+        timings.stop();
+        Timings.hostingCommands();
+        timings = Timings.start();
+
+        assertThat(timings.phases()).extracting(Timings.Phase::name).doesNotContain(Timings.STARTUP);
+    }
+
+    @Test
+    void should_print_phases_and_endpoints() {
+        timings.addPhase(new Timings.Phase(Timings.COMMAND, 0, 5 * MS));
+        timings.addRequest("GET", "/connectors", "/connectors", 200, 0, 3 * MS).bytes().add(10);
+
+        StringWriter out = new StringWriter();
+        timings.print(new PrintWriter(out));
+
+        assertThat(out.toString())
+                .contains("PHASE", "DURATION (ms)", "processing and rendering")
+                .contains("ENDPOINT", "P50 (ms)", "P99 (ms)", "GET /connectors");
+    }
+}